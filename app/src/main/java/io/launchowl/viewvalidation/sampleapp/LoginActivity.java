@@ -12,11 +12,22 @@ import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
 
+import java.io.File;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import io.launchowl.viewvalidationlibrary.BatchingAsyncCondition;
 import io.launchowl.viewvalidationlibrary.Criteria;
+import io.launchowl.viewvalidationlibrary.DebouncedValidation;
+import io.launchowl.viewvalidationlibrary.HedgingPolicy;
+import io.launchowl.viewvalidationlibrary.LookupBatcher;
+import io.launchowl.viewvalidationlibrary.MemoizedAsyncCondition;
 import io.launchowl.viewvalidationlibrary.Observer;
+import io.launchowl.viewvalidationlibrary.PersistentResultStore;
+import io.launchowl.viewvalidationlibrary.ResultCache;
+import io.launchowl.viewvalidationlibrary.SingleFlightAsyncCondition;
 import io.launchowl.viewvalidationlibrary.Validator;
 import io.launchowl.viewvalidationlibrary.ValidatorSet;
 
@@ -54,26 +65,72 @@ public class LoginActivity extends AppCompatActivity {
          * A single AsyncCondition will is added to the validator. The UserRepository
          * class contains a collection of existing usernames to search. It returns
          * a response in <=1500ms to simulate querying a remote service.
+         *
+         * The ShortCircuit policy evaluates the cheap character check first, so the
+         * UserRepository is only queried for usernames that could be valid.
          */
         EditText userNameEditText = (EditText) findViewById(R.id.user_name);
+
+        /*
+         * Collect the usernames being checked for 20ms, or until 25 have been collected, and
+         * look them up with a single call to the UserRepository. Other fields of a larger form,
+         * such as an email address or phone number, could share the same batcher.
+         */
+        final UserRepository userRepository = new UserRepository();
+
+        /* Java 8
+         *  => Lambda Expression
+         *  => collection.stream()
+         *  => Collectors.toMap(Function<? super T, ? extends K> keyMapper, Function<? super T, ? extends U> valueMapper)
+         */
+        LookupBatcher<String> userNameAvailability = new LookupBatcher<>((userNames, cancellationToken) -> {
+            Map<String, User> users = userRepository.getUsers(userNames, cancellationToken);
+            return userNames.stream().collect(Collectors.toMap(userName -> userName, userName -> !users.containsKey(userName)));
+        }, 20, 25);
+
         final Validator<EditText> userNameAvailableValidator = new Validator<>(new Criteria<>(userNameEditText)
-            .asyncTest(new Criteria.AsyncCondition<EditText>() {
+            .evaluationPolicy(Criteria.EvaluationPolicy.ShortCircuit)
 
-                @Override
-                protected void evaluate(EditText view) {
-                    UserRepository userRepository = new UserRepository();
+            // Don't look up usernames that contain special characters
+            /* Java 8
+             *  => Lambda Expression
+             */
+            .test(editText -> Pattern.matches("^[a-zA-Z0-9]*$", editText.getText().toString()))
 
-                    /* Java 8
-                     *  => Lambda Expression
-                     */
-                    userRepository.getUser(view.getText().toString(), user -> complete(user == null));
-                }
+            /*
+             * Remember the answers for each username so retyping a username doesn't query
+             * the UserRepository again. Taken usernames are re-checked after 10 seconds.
+             * Screens checking the same username at the same time share one query. A query
+             * slower than 90% of recent queries is retried in parallel (for at most 1 in 10
+             * queries), and a query that takes longer than 2 seconds is reported as Unknown.
+             */
+            /* Java 8
+             *  => Lambda Expression
+             */
+            .asyncTest(new SingleFlightAsyncCondition<>(new MemoizedAsyncCondition<EditText, String>(new BatchingAsyncCondition<EditText, String>(
+                    view -> view.getText().toString().toLowerCase(), userNameAvailability) {
 
                 @Override
                 protected void onCancelled() {
                     resetViews();
                 }
-            })
+            },
+            /* Java 8
+             *  => Lambda Expression
+             */
+            view -> view.getText().toString().toLowerCase(),
+            new ResultCache<>(50, 60000, 10000))
+                .persist(new PersistentResultStore(new File(getCacheDir(), "username-availability"), 60000, 10000), "username-available",
+                        /* Java 8
+                         *  => Lambda Expression
+                         */
+                        userName -> userName),
+            /* Java 8
+             *  => Lambda Expression
+             */
+            view -> view.getText().toString().toLowerCase(),
+            "username-available").hedge(new HedgingPolicy(0.9, 0.1)),
+            2000, Validator.ValidationResult.Unknown)
         );
 
         /*
@@ -82,11 +139,13 @@ public class LoginActivity extends AppCompatActivity {
         Observer<TextView> userNameStatusObserver = new Observer<TextView>((TextView) findViewById(R.id.username_status)) {
             @Override
             protected void onValidationComplete(TextView view, Validator.ValidationResult validationResult) {
-                // Display whether the username is "Available" or "Not available".
+                // Display whether the username is "Available", "Not available" or couldn't be checked.
                 view.setText(
                         validationResult == Validator.ValidationResult.Valid
                                 ? getString(R.string.success_available)
-                                : getString(R.string.error_not_available)
+                                : validationResult == Validator.ValidationResult.Unknown
+                                        ? getString(R.string.error_availability_unknown)
+                                        : getString(R.string.error_not_available)
                 );
 
                 // Change the color of the text.
@@ -165,6 +224,13 @@ public class LoginActivity extends AppCompatActivity {
         // Add the validators to a ValidatorSet so they can both be validated via a single request.
         final ValidatorSet validatorSet = new ValidatorSet(userNameAvailableValidator, userNameCompliesValidator);
 
+        /*
+         * Wait for the user to pause typing before validating, so a burst of keystrokes
+         * results in a single lookup. Validate at least every 1500ms while typing continues.
+         */
+        final DebouncedValidation debouncedValidation = new DebouncedValidation(validatorSet, 300)
+                .maxWait(1500);
+
         // Listen for text being modified in the user name view.
         userNameEditText.addTextChangedListener(new TextWatcher() {
             @Override
@@ -183,11 +249,12 @@ public class LoginActivity extends AppCompatActivity {
                 if (s.toString().length() > 3) {
 
                     /*
-                     * Calling validate() on the validatorSet object will evaluate both
-                     * userNameAvailableValidator and userNameCompliesValidator.
+                     * Calling validate() on the debouncedValidation object will evaluate both
+                     * userNameAvailableValidator and userNameCompliesValidator once typing pauses.
                      */
-                    validatorSet.validate();
+                    debouncedValidation.validate();
                 } else {
+                    debouncedValidation.cancel();
                     validatorSet.cancelValidation();
                     // Reset the views if the input is not at least 4 characters.
                     resetViews();
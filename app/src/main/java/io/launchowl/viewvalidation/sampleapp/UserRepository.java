@@ -5,10 +5,16 @@ import android.os.Looper;
 import android.os.Message;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.launchowl.viewvalidationlibrary.CancellationToken;
 
 /**
  * A mock user repository.
@@ -23,18 +29,69 @@ public class UserRepository {
 
     /**
      * Retrieves a user.
+     * <p>
+     * The request stops as soon as the {@link CancellationToken} is cancelled, in which case
+     * the listener isn't called.
      *
      * @param userName username
+     * @param cancellationToken the token of the evaluation that needs the user
      * @param onUuserRetrievedListener an {@link OnuserRetrievedListener}
      */
-    void getUser(final String userName, final OnuserRetrievedListener onUuserRetrievedListener) {
-        try {
-            Thread.sleep(ThreadLocalRandom.current().nextInt(300, 1500));
+    void getUser(final String userName, CancellationToken cancellationToken, final OnuserRetrievedListener onUuserRetrievedListener) {
+        if (awaitResponse(cancellationToken)) {
             onUuserRetrievedListener.onUserRetrieved(findUser(userName));
-        } catch (InterruptedException e ) {
-            e.printStackTrace();
         }
+    }
 
+    /**
+     * Retrieves several users with a single request, as a remote service with a bulk endpoint
+     * would. Blocks the calling thread until the response arrives.
+     * <p>
+     * The request stops as soon as the {@link CancellationToken} is cancelled, in which case
+     * no users are returned.
+     *
+     * @param userNames usernames
+     * @param cancellationToken the token of the evaluations that need the users
+     * @return the existing users, keyed by the requested username
+     */
+    Map<String, User> getUsers(Set<String> userNames, CancellationToken cancellationToken) {
+        Map<String, User> found = new HashMap<>();
+        if (!awaitResponse(cancellationToken)) {
+            return found;
+        }
+
+        for (String userName : userNames) {
+            User user = findUser(userName);
+            if (user != null) {
+                found.put(userName, user);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Simulates the latency of a remote service, unless the request is cancelled first.
+     *
+     * @param cancellationToken the token of the request
+     * @return true if the response arrived, false if the request was cancelled
+     */
+    private boolean awaitResponse(CancellationToken cancellationToken) {
+        final CountDownLatch cancelled = new CountDownLatch(1);
+
+        /* Java 8
+         *  => Method Reference
+         */
+        CancellationToken.Registration registration = cancellationToken.onCancelled(cancelled::countDown);
+
+        try {
+            return !cancelled.await(ThreadLocalRandom.current().nextInt(300, 1500), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            registration.unregister();
+        }
     }
 
     /**
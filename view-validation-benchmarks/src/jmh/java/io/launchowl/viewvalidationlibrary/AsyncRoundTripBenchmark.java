@@ -0,0 +1,72 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the round trip of a round with an {@link Criteria.AsyncCondition}: the round starts
+ * on the thread that receives results, the condition completes on a worker thread and the
+ * result is delivered back.
+ * <p>
+ * Outside Android, the results are received by the "ViewValidation Results" thread of the
+ * {@link MainThreadDispatcher}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncRoundTripBenchmark {
+    @Param({"MainThread", "Concurrent"})
+    private Criteria.Aggregation aggregation;
+
+    private Criteria<String> criteria;
+
+    @Setup
+    public void setUp() {
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        this.criteria = new Criteria<>("launchowl")
+                .aggregation(this.aggregation)
+                .test(view -> !view.isEmpty())
+                .asyncTest(new Criteria.AsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view) {
+                        complete(view.length() < 32);
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+                });
+    }
+
+    @Benchmark
+    public Validator.ValidationResult roundTrip() {
+        final CompletableFuture<Validator.ValidationResult> result = new CompletableFuture<>();
+
+        /* Java 8
+         *  => Lambda Expression
+         *  => Method Reference
+         */
+        MainThreadDispatcher.getInstance().post(() -> this.criteria.evaluateAsync().thenAccept(result::complete));
+
+        return result.join();
+    }
+}
@@ -0,0 +1,62 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a round of {@link Criteria#evaluate(Criteria.EvalCompleteListener)} with only
+ * synchronous conditions, the work done on the main UI thread after each keystroke.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CriteriaBenchmark {
+    @Param({"1", "8", "64"})
+    private int conditionCount;
+
+    @Param({"All", "ShortCircuit"})
+    private Criteria.EvaluationPolicy evaluationPolicy;
+
+    private Criteria<String> criteria;
+    private Validator.ValidationResult validationResult;
+
+    /* Java 8
+     *  => Lambda Expression
+     */
+    private final Criteria.EvalCompleteListener listener = validationResult -> this.validationResult = validationResult;
+
+    @Setup
+    public void setUp() {
+        this.criteria = new Criteria<>("launchowl").evaluationPolicy(this.evaluationPolicy);
+
+        for (int i = 0; i < this.conditionCount; i++) {
+            final int minLength = i % 8;
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            this.criteria.test(view -> view.length() >= minLength);
+        }
+    }
+
+    @Benchmark
+    public Validator.ValidationResult evaluate() {
+        this.criteria.evaluate(this.listener);
+
+        return this.validationResult;
+    }
+}
@@ -0,0 +1,55 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the result of a {@link Validator} fans out to its {@link Observer} objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObserverNotificationBenchmark {
+    @Param({"1", "16", "256"})
+    private int observerCount;
+
+    private Validator<String> validator;
+
+    @Setup
+    public void setUp(final Blackhole blackhole) {
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        this.validator = new Validator<>(new Criteria<>("launchowl").test(view -> !view.isEmpty()));
+
+        for (int i = 0; i < this.observerCount; i++) {
+            this.validator.observe(new Observer<Integer>(i) {
+                @Override
+                protected void onValidationComplete(Integer view, Validator.ValidationResult validationResult) {
+                    blackhole.consume(validationResult);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void validate() {
+        this.validator.validate();
+    }
+}
@@ -0,0 +1,52 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ValidatorSet#validate()} for forms of different sizes, including keeping the
+ * form-level counts up to date.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorSetBenchmark {
+    @Param({"10", "100", "1000"})
+    private int validatorCount;
+
+    private ValidatorSet validatorSet;
+
+    @Setup
+    public void setUp() {
+        this.validatorSet = new ValidatorSet();
+
+        for (int i = 0; i < this.validatorCount; i++) {
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            this.validatorSet.add(new Validator<>(new Criteria<>("field " + i).test(view -> !view.isEmpty())));
+        }
+    }
+
+    @Benchmark
+    public Validator.ValidationResult validate() {
+        this.validatorSet.validate();
+
+        return this.validatorSet.getResult();
+    }
+}
@@ -0,0 +1,92 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * This class is a {@link Criteria.AsyncCondition} whose lookup is combined with the lookups of
+ * other conditions into one bulk lookup by a {@link LookupBatcher}.
+ * <p>
+ * Evaluating the condition only adds its key to the current batch, so it is done on the thread
+ * that starts the evaluation instead of tying up a worker thread while the batch collects keys.
+ * The condition completes with the result of its key once the batch response arrives.
+ * <p>
+ * <pre>
+ * {@code
+ *  new Criteria<>(editText)
+ *      .asyncTest(new BatchingAsyncCondition<>(view -> view.getText().toString(), availability));
+ * }
+ * </pre>
+ * <p>
+ * When the evaluation is superseded or cancelled, its key is removed from a batch that hasn't
+ * been sent yet. Override {@link #onCancelled()} to reset the view.
+ *
+ * @param <T> the type of view being validated
+ * @param <K> the type of the keys
+ *
+ * @see LookupBatcher
+ */
+public class BatchingAsyncCondition<T, K> extends CancellableAsyncCondition<T> {
+    private final Function<? super T, ? extends K> key;
+    private final LookupBatcher<K> batcher;
+
+    /**
+     * Class constructor specifying the key of the view and the batcher that looks it up.
+     *
+     * @param key a function that returns the key to look up from the view
+     * @param batcher the {@link LookupBatcher} shared with other conditions
+     */
+    public BatchingAsyncCondition(Function<? super T, ? extends K> key, LookupBatcher<K> batcher) {
+        this.key = key;
+        this.batcher = batcher;
+    }
+
+    /**
+     * Returns the {@link LookupBatcher} that looks up the key.
+     *
+     * @return the batcher
+     */
+    public LookupBatcher<K> getBatcher() {
+        return this.batcher;
+    }
+
+    /**
+     * Starts the evaluation on the calling thread, since adding a key doesn't block. A hedged
+     * duplicate runs on the supplied {@link Executor}, rather than on the thread that times the
+     * hedge.
+     */
+    @Override
+    void start(Attempt attempt, T view, Executor executor) {
+
+        /* Java 8
+         *  => Method Reference
+         */
+        start(attempt, view, Runnable::run, executor);
+    }
+
+    /**
+     * Adds the key of the view to the current batch. The condition completes when the batch
+     * response arrives.
+     *
+     * @param view the view being validated
+     * @param cancellationToken the token of this evaluation
+     */
+    @Override
+    protected final void evaluate(T view, CancellationToken cancellationToken) {
+        final LookupBatcher<K>.Request request = this.batcher.add(this.key.apply(view), completion());
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        cancellationToken.onCancelled(() -> this.batcher.cancel(request));
+    }
+
+    /**
+     * Called when the evaluation is cancelled via {@link Criteria#cancelValidation()}. Does
+     * nothing by default; override it to reset the view.
+     */
+    @Override
+    protected void onCancelled() {
+
+    }
+}
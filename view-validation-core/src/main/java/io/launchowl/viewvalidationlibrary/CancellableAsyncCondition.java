@@ -0,0 +1,60 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * This class is a {@link Criteria.AsyncCondition} whose evaluation receives a
+ * {@link CancellationToken}, so it can stop once its result is no longer needed.
+ * <p>
+ * <pre>
+ * {@code
+ *  new Criteria<>(editText)
+ *      .asyncTest(new CancellableAsyncCondition<EditText>() {
+ *          protected void evaluate(EditText view, CancellationToken cancellationToken) {
+ *              Call call = client.newCall(request);
+ *              cancellationToken.onCancelled(call::cancel);
+ *              ...
+ *          }
+ *
+ *          protected void onCancelled() {
+ *          }
+ *      });
+ * }
+ * </pre>
+ *
+ * @param <T> the type of view being validated
+ *
+ * @see CancellationToken
+ */
+public abstract class CancellableAsyncCondition<T> extends Criteria.AsyncCondition<T> {
+
+    /**
+     * Perform a test using data from the view being evaluated, stopping once the supplied
+     * {@link CancellationToken} is cancelled.
+     * <p>
+     * The token is cancelled when the evaluation is cancelled, superseded by a newer round,
+     * misses its deadline or loses to a hedged duplicate (see {@link #hedge(HedgingPolicy)}).
+     * A cancelled evaluation should return as soon as it can, without calling
+     * {@link #complete(boolean)}, so its worker thread is free for other conditions. The
+     * worker thread is also interrupted, but code that catches {@link InterruptedException}
+     * can't miss the token.
+     *
+     * @param view the view being evaluated
+     * @param cancellationToken the token of this evaluation
+     */
+    protected abstract void evaluate(T view, CancellationToken cancellationToken);
+
+    /**
+     * Performs the test with a token that is never cancelled. The {@link Criteria} always
+     * supplies the token of the evaluation via {@link #evaluate(Object, CancellationToken)}.
+     *
+     * @param view the view being evaluated
+     */
+    @Override
+    protected final void evaluate(T view) {
+        evaluate(view, new CancellationToken());
+    }
+
+    @Override
+    final void evaluateCancellable(T view, CancellationToken cancellationToken) {
+        evaluate(view, cancellationToken);
+    }
+}
@@ -0,0 +1,169 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * This class tells a {@link CancellableAsyncCondition} that its evaluation is no longer needed.
+ * <p>
+ * Every evaluation receives its own token via
+ * {@link CancellableAsyncCondition#evaluate(Object, CancellationToken)}. The token is cancelled
+ * when the evaluation is cancelled, superseded by a newer round, misses its deadline or loses
+ * to a hedged duplicate. Unlike an interrupt, cancellation can't be swallowed by code that
+ * catches {@link InterruptedException}, and it reaches work that has already left the worker
+ * thread.
+ * <p>
+ * A condition can poll the token via {@link #isCancelled()} or {@link #throwIfCancelled()}
+ * between steps, and stop nested work by registering a callback:
+ * <p>
+ * <pre>
+ * {@code
+ *  protected void evaluate(EditText view, CancellationToken cancellationToken) {
+ *      Call call = client.newCall(request);
+ *      cancellationToken.onCancelled(call::cancel);
+ *      ...
+ *  }
+ * }
+ * </pre>
+ * <p>
+ * Work that should be cancelled on its own as well can be given a token created via
+ * {@link #newChild()}, which is cancelled together with its parent.
+ * <p>
+ * This class is thread safe.
+ */
+public final class CancellationToken {
+    private volatile boolean cancelled = false;
+
+    // Null once the token has been cancelled. Guarded by this.
+    private List<Runnable> callbacks = new ArrayList<>();
+
+    /**
+     * Removes a callback registered via {@link #onCancelled(Runnable)}.
+     */
+    public interface Registration {
+
+        /**
+         * Removes the callback, so it isn't called if the token is cancelled later. Does nothing
+         * if the callback has already been called.
+         */
+        void unregister();
+    }
+
+    /**
+     * Returns whether the evaluation has been cancelled.
+     *
+     * @return true if the token has been cancelled, otherwise false
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the evaluation has been cancelled.
+     *
+     * @throws CancellationException if the token has been cancelled
+     */
+    public void throwIfCancelled() {
+        if (this.cancelled) {
+            throw new CancellationException("The evaluation has been cancelled.");
+        }
+    }
+
+    /**
+     * Registers a callback that is called when the token is cancelled.
+     * <p>
+     * The callback is called on the thread that cancels the token, which is often the main UI
+     * thread, so it should only signal the work to stop. If the token has already been
+     * cancelled, the callback is called right away on the calling thread. When a
+     * {@link Criteria} cancels the token of an evaluation, exceptions thrown by the callbacks
+     * are ignored.
+     *
+     * @param callback the callback
+     * @return a {@link Registration} that removes the callback, for example once the work it
+     * stops has finished
+     */
+    public Registration onCancelled(final Runnable callback) {
+        synchronized (this) {
+            if (!this.cancelled) {
+                this.callbacks.add(callback);
+
+                /* Java 8
+                 *  => Lambda Expression
+                 */
+                return () -> remove(callback);
+            }
+        }
+
+        callback.run();
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        return () -> { };
+    }
+
+    /**
+     * Returns a new token that is cancelled when this one is, and can also be cancelled on
+     * its own.
+     *
+     * @return the child token
+     */
+    public CancellationToken newChild() {
+        final CancellationToken child = new CancellationToken();
+
+        /* Java 8
+         *  => Method Reference
+         *  => Lambda Expression
+         */
+        final Registration registration = onCancelled(child::cancel);
+        child.onCancelled(registration::unregister);
+
+        return child;
+    }
+
+    /**
+     * Cancels the token and calls the registered callbacks.
+     * <p>
+     * Every callback is called, even if one of them throws. The first exception is rethrown
+     * afterwards.
+     *
+     * @return true if this call cancelled the token, false if it had already been cancelled
+     */
+    public boolean cancel() {
+        List<Runnable> callbacks;
+
+        synchronized (this) {
+            if (this.cancelled) {
+                return false;
+            }
+
+            this.cancelled = true;
+            callbacks = this.callbacks;
+            this.callbacks = null;
+        }
+
+        RuntimeException error = null;
+        for (Runnable callback : callbacks) {
+            try {
+                callback.run();
+            } catch (RuntimeException e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+
+        if (error != null) {
+            throw error;
+        }
+
+        return true;
+    }
+
+    private synchronized void remove(Runnable callback) {
+        if (this.callbacks != null) {
+            this.callbacks.remove(callback);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class combines the results of a round on the worker threads that produce them, without
+ * locks, see {@link Criteria.Aggregation#Concurrent}.
+ * <p>
+ * The state of the round is packed into a single long, so the counter and the result are
+ * updated together with one compareAndSet. No result is lost and exactly one caller sees the
+ * round being decided:
+ * <pre>
+ * | generation (31 bits) | expected (15 bits) | complete (15 bits) | decided (1 bit) | result (2 bits) |
+ * </pre>
+ * This class is thread safe.
+ */
+final class ConcurrentAggregator implements RoundAggregator {
+    private static final long SEVERITY_MASK = 0x3L;
+    private static final long DECIDED = 1L << 2;
+    private static final int COMPLETE_SHIFT = 3;
+    private static final int EXPECTED_SHIFT = 18;
+    private static final int GENERATION_SHIFT = 33;
+    private static final long COUNT_MASK = 0x7FFFL;
+    private static final long GENERATION_MASK = 0x7FFFFFFFL;
+
+    /**
+     * The results ordered by precedence, indexed by severity.
+     */
+    private static final Validator.ValidationResult[] SEVERITIES = {
+            Validator.ValidationResult.Valid,
+            Validator.ValidationResult.Unknown,
+            Validator.ValidationResult.Invalid
+    };
+
+    // Starts out decided, so nothing is added before the first round.
+    private final AtomicLong state = new AtomicLong(DECIDED);
+
+    @Override
+    public void begin(int generation, int expected) {
+        if (expected > COUNT_MASK) {
+            throw new IllegalStateException("Too many asynchronous conditions to aggregate concurrently");
+        }
+
+        this.state.set(pack(generation, expected, 0, Validator.ValidationResult.Valid, false));
+    }
+
+    @Override
+    public Decision add(int generation, Validator.ValidationResult result, boolean decideEarly) {
+        long state;
+        long next;
+        boolean decided;
+
+        do {
+            state = this.state.get();
+
+            if (generationOf(state) != (generation & GENERATION_MASK) || (state & DECIDED) != 0) {
+                return Decision.STALE;
+            }
+
+            int complete = completeOf(state) + 1;
+            int expected = expectedOf(state);
+            Validator.ValidationResult merged = SEVERITIES[Math.max((int) (state & SEVERITY_MASK), severityOf(result))];
+            decided = complete == expected || (decideEarly && result == Validator.ValidationResult.Invalid);
+
+            next = pack(generation, expected, complete, merged, decided);
+        } while (!this.state.compareAndSet(state, next));
+
+        return decided ? new Decision(resultOf(next), completeOf(next) < expectedOf(next)) : Decision.PENDING;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    private static long pack(int generation, int expected, int complete, Validator.ValidationResult result, boolean decided) {
+        return ((generation & GENERATION_MASK) << GENERATION_SHIFT)
+                | ((long) expected << EXPECTED_SHIFT)
+                | ((long) complete << COMPLETE_SHIFT)
+                | (decided ? DECIDED : 0)
+                | severityOf(result);
+    }
+
+    private static long generationOf(long state) {
+        return state >>> GENERATION_SHIFT;
+    }
+
+    private static int expectedOf(long state) {
+        return (int) ((state >>> EXPECTED_SHIFT) & COUNT_MASK);
+    }
+
+    private static int completeOf(long state) {
+        return (int) ((state >>> COMPLETE_SHIFT) & COUNT_MASK);
+    }
+
+    private static Validator.ValidationResult resultOf(long state) {
+        return SEVERITIES[(int) (state & SEVERITY_MASK)];
+    }
+
+    private static int severityOf(Validator.ValidationResult result) {
+        if (result == Validator.ValidationResult.Invalid) {
+            return 2;
+        }
+
+        return result == Validator.ValidationResult.Unknown ? 1 : 0;
+    }
+}
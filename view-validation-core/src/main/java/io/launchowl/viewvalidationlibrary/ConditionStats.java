@@ -0,0 +1,117 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * This class records how long a {@link Criteria.Condition} takes to evaluate and how often
+ * it fails.
+ * <p>
+ * A {@link Criteria} keeps one instance per condition and uses it to decide the order in which
+ * the conditions are evaluated when its {@link Criteria.EvaluationPolicy} is
+ * {@link Criteria.EvaluationPolicy#ShortCircuit}. The condition with the lowest
+ * {@link #getScore()} is evaluated first, so conditions that are cheap and fail often are
+ * tested before conditions that are expensive and rarely fail.
+ * <p>
+ * This class is thread safe, since conditions may be evaluated in parallel.
+ *
+ * @see Criteria#getConditionStats(Criteria.Condition)
+ */
+public final class ConditionStats {
+    // Measurements replace the cost hint once this many evaluations have been recorded.
+    private static final int MIN_SAMPLES = 5;
+    private static final double SMOOTHING = 0.2;
+    private static final long DEFAULT_COST_NANOS = 1000;
+
+    private final long costHintNanos;
+    private double averageCostNanos = 0;
+    private int evaluations = 0;
+    private int failures = 0;
+
+    /**
+     * Class constructor specifying the expected cost of the condition.
+     *
+     * @param costHintNanos the expected evaluation time in nanoseconds, or 0 if unknown
+     */
+    ConditionStats(long costHintNanos) {
+        this.costHintNanos = costHintNanos;
+    }
+
+    /**
+     * Records a single evaluation.
+     *
+     * @param elapsedNanos the time the evaluation took in nanoseconds
+     * @param passed the result of the evaluation
+     */
+    synchronized void record(long elapsedNanos, boolean passed) {
+        this.averageCostNanos = this.evaluations == 0
+                ? elapsedNanos
+                : SMOOTHING * elapsedNanos + (1 - SMOOTHING) * this.averageCostNanos;
+        this.evaluations++;
+
+        if (!passed) {
+            this.failures++;
+        }
+    }
+
+    /**
+     * Returns the estimated evaluation time.
+     * <p>
+     * The cost hint is used until enough evaluations have been measured.
+     *
+     * @return the estimated cost in nanoseconds
+     */
+    public synchronized double getCostNanos() {
+        if (this.evaluations >= MIN_SAMPLES || (this.evaluations > 0 && this.costHintNanos <= 0)) {
+            return this.averageCostNanos;
+        }
+
+        return this.costHintNanos > 0 ? this.costHintNanos : DEFAULT_COST_NANOS;
+    }
+
+    /**
+     * Returns the estimated probability that the condition fails.
+     * <p>
+     * The estimate is smoothed so a condition that has never been evaluated is assumed to fail
+     * half of the time.
+     *
+     * @return the failure rate between 0 and 1
+     */
+    public synchronized double getFailureRate() {
+        return (this.failures + 1.0) / (this.evaluations + 2.0);
+    }
+
+    /**
+     * Returns the expected cost of evaluating this condition per failure it detects. Lower
+     * scores are evaluated first.
+     *
+     * @return the score
+     */
+    public synchronized double getScore() {
+        return getCostNanos() / getFailureRate();
+    }
+
+    /**
+     * Returns the number of evaluations recorded.
+     *
+     * @return the number of evaluations
+     */
+    public synchronized int getEvaluationCount() {
+        return this.evaluations;
+    }
+
+    /**
+     * Returns the number of evaluations that failed.
+     *
+     * @return the number of failures
+     */
+    public synchronized int getFailureCount() {
+        return this.failures;
+    }
+
+    /**
+     * Returns the cost hint supplied via {@link Criteria#test(Criteria.Condition, long)}.
+     *
+     * @return the cost hint in nanoseconds, or 0 if none was supplied
+     */
+    public long getCostHintNanos() {
+        return this.costHintNanos;
+    }
+}
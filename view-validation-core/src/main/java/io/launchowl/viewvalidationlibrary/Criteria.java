@@ -0,0 +1,1882 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * This class contains a collection conditions that are tested to determine if a view is valid.
+ * <p>
+ * A Criteria object contains one or more {@link Condition} or {@link AsyncCondition} that are added
+ * via {@link #test(Condition)} and {@link #asyncTest(AsyncCondition)}, respectively.
+ * <p>
+ * All conditions can be evaluated by calling the {@link Criteria#evaluate(EvalCompleteListener)}
+ * method. The method will deliver a single result ({@link io.launchowl.viewvalidationlibrary.Validator.ValidationResult})
+ * to the supplied {@link EvalCompleteListener}.
+ * <p>
+ * By default every condition is evaluated. Setting the {@link EvaluationPolicy} to
+ * {@link EvaluationPolicy#ShortCircuit} via {@link #evaluationPolicy(EvaluationPolicy)} evaluates
+ * the synchronous conditions first, stops at the first one that fails, and only starts the
+ * asynchronous conditions when every synchronous condition has passed.
+ * <p>
+ * The time each {@link Condition} takes and how often it fails are recorded in a
+ * {@link ConditionStats}. When short-circuiting, the conditions are reordered so cheap conditions
+ * that fail often are evaluated first, unless the order is pinned via
+ * {@link #conditionOrder(ConditionOrder)}. Cost hints can be supplied via
+ * {@link #test(Condition, long)}.
+ * <p>
+ * As soon as any {@link AsyncCondition} fails the result is known to be
+ * {@link io.launchowl.viewvalidationlibrary.Validator.ValidationResult#Invalid}, so the asynchronous
+ * conditions that are still running are cancelled and the result is delivered without waiting
+ * for them.
+ * <p>
+ * An {@link AsyncCondition} can be given a deadline via
+ * {@link #asyncTest(AsyncCondition, long, Validator.ValidationResult)}. If it hasn't completed in
+ * time, it is cancelled and the configured result is used in its place, so a slow or
+ * unresponsive operation can't hold back the result indefinitely.
+ * <p>
+ * Each call to {@link #evaluate(EvalCompleteListener)} starts a new round identified by a
+ * generation number. Results delivered by {@link AsyncCondition} objects that were started in an
+ * earlier round are discarded before they reach the main UI thread, so the
+ * {@link EvalCompleteListener} only receives the result of the newest round.
+ * <p>
+ * By default every asynchronous result is delivered to the main UI thread, where it is combined
+ * with the others. Setting the {@link Aggregation} to {@link Aggregation#Concurrent} via
+ * {@link #aggregation(Aggregation)} combines the results on the worker threads instead, so only
+ * the final result is delivered to the main UI thread.
+ * <p>
+ * The result can also be received as a {@link CompletableFuture} via {@link #evaluateAsync()}, so
+ * a validation can be composed with other asynchronous work.
+ * <p>
+ * {@link Condition} objects that are too expensive for the main UI thread can be evaluated in
+ * parallel on a work-stealing pool via {@link #parallel(boolean)}. Only the combined result is
+ * delivered to the main UI thread.
+ * <p>
+ * A {@link FrameBudgetWatchdog} added via {@link #watchdog(FrameBudgetWatchdog)} times each
+ * {@link Condition} on the main UI thread and offloads the ones that repeatedly take too much of
+ * the frame budget to a worker thread, where they are evaluated like an {@link AsyncCondition}.
+ * <p>
+ * How long each condition takes, how often it fails and how long results wait for the main UI
+ * thread can be reported to a {@link ValidationMetrics} sink via
+ * {@link #metrics(ValidationMetrics)}, and what happened in each round can be recorded by a
+ * {@link ValidationTrace} via {@link #trace(ValidationTrace)}.
+ * <p>
+ * The view doesn't have to be an Android view. Outside an Android runtime any object can be
+ * validated, and the results are delivered on the thread provided by the
+ * {@link MainThreadDispatcher}, so the same conditions can run on a server or in a benchmark.
+ *
+ * @param <T> the type of view being validated
+ */
+public class Criteria<T> {
+    private EvaluationPolicy evaluationPolicy = EvaluationPolicy.All;
+    private ConditionOrder conditionOrder = ConditionOrder.Adaptive;
+    private int reorderCount = 0;
+    private RoundAggregator aggregator = new MainThreadAggregator();
+    private boolean parallel = false;
+    private FrameBudgetWatchdog watchdog;
+    private volatile ValidationMetrics metrics;
+    private volatile ValidationTrace trace;
+    private final List<Condition<T>> overBudgetConditions = new ArrayList<>();
+    private volatile int generation = 0;
+    private volatile PendingFuture pendingFuture;
+    private final AtomicInteger staleCompletions = new AtomicInteger();
+    private final AtomicInteger timeouts = new AtomicInteger();
+    private Validator.ValidationResult validationResult = Validator.ValidationResult.Valid;
+    private EvalCompleteListener evalCompleteListener;
+    private Executor executor;
+    private Executor fallbackExecutor;
+    final private T validatedView;
+    final private Set<Condition<T>> conditions;
+    final private List<Condition<T>> orderedConditions;
+    final private Map<Condition<T>, ConditionStats> conditionStats;
+    final private Set<AsyncCondition<T>> asyncConditions;
+    final private Criteria<T> criteria;
+
+    /**
+     * Determines how the conditions of a {@link Criteria} are evaluated.
+     */
+    public enum EvaluationPolicy {
+        /**
+         * Start every {@link AsyncCondition} and evaluate every {@link Condition}, even after
+         * one has failed.
+         */
+        All,
+
+        /**
+         * Evaluate the {@link Condition} objects first and stop at the first failure. The
+         * {@link AsyncCondition} objects are only started if every {@link Condition} passed.
+         */
+        ShortCircuit
+    }
+
+    /**
+     * Determines the order in which {@link Condition} objects are evaluated when the
+     * {@link EvaluationPolicy} is {@link EvaluationPolicy#ShortCircuit}.
+     */
+    public enum ConditionOrder {
+        /**
+         * Evaluate the conditions with the lowest {@link ConditionStats#getScore()} first.
+         */
+        Adaptive,
+
+        /**
+         * Evaluate the conditions in the order they were added.
+         */
+        Pinned
+    }
+
+    /**
+     * A future waiting for the result of a round started by {@link #evaluateAsync()}.
+     */
+    private static final class PendingFuture {
+        final int generation;
+        final CompletableFuture<Validator.ValidationResult> future;
+        final boolean completeOnWorker;
+
+        PendingFuture(int generation, CompletableFuture<Validator.ValidationResult> future, boolean completeOnWorker) {
+            this.generation = generation;
+            this.future = future;
+            this.completeOnWorker = completeOnWorker;
+        }
+    }
+
+    /**
+     * Determines where the results of the {@link AsyncCondition} objects are combined.
+     */
+    public enum Aggregation {
+        /**
+         * Deliver every result to the main UI thread and combine it there.
+         */
+        MainThread,
+
+        /**
+         * Combine the results on the worker threads that produce them, without locks, and only
+         * deliver the final result to the main UI thread.
+         */
+        Concurrent
+    }
+
+    /**
+     * A condition is a single test that will return true or false.
+     * <p>
+     * Conditions are intended to test a single scenario. Add additiona conditions to a
+     * {@link Criteria} instance to test each unique unique scenario.
+     * <p>
+     * For example, one condition could test whether a username contain valid characters. A separate
+     * condition could test whether the username contains profanity.
+     *
+     * @param <T> the type of view being validated
+     *
+     * @see AsyncCondition
+     */
+    public interface Condition<T> {
+
+        /**
+         * Perform a test using data from the view being validated.
+         * <p>
+         * <pre>
+         *  // Assumes <i>view</i> is a {@code TextView}
+         *  // Make sure the username contains a fruit
+         * {@code String[] fruit = {
+         *   "apple",
+         *   "banana",
+         *   "blueberry",
+         *   "kiwi",
+         *   "orange",
+         *   "strawberry"
+         *  };
+         *  Pattern pattern = Pattern.compile(TextUtils.join("|", fruit));
+         *  Matcher matcher = pattern.matcher(view.getText().toString().toLowerCase());
+         *  return matcher.find();
+         * }
+         * </pre>
+         * @param view the view being validated
+         *
+         * @return true or false depending on whether the test passed
+         */
+        boolean evaluate(T view);
+    }
+
+    /**
+     * An asynchronous condition is a single test that performs an asynchronous operation and
+     * then returns a true or false value by invoking {@link #complete(boolean)}.
+     * <p>
+     * Conditions are intended to test a single scenario. Add additional conditions to a
+     * {@link Criteria} instance to test each unique scenario.
+     * <p>
+     * For example, the asynchronous operation could check if a username is available by
+     * querying a web service.
+     * <p>
+     * The {@link #complete(boolean)} method should be called in the overridden
+     * {@link #evaluate(Object)} method to notify the Criteria object that the
+     * asynchronous operation is complete.
+     * <p>
+     * To find out when an evaluation is no longer needed, extend
+     * {@link CancellableAsyncCondition} instead.
+     *
+     * @param <T> the type of view being validated
+     */
+    public static abstract class AsyncCondition<T> {
+        // The attempt being evaluated by the current worker thread.
+        private static final ThreadLocal<Attempt> currentAttempt = new ThreadLocal<>();
+
+        // Outcomes of an attempt that tell a result apart from a missed deadline.
+        private static final int COMPLETED = 0;
+        private static final int TIMED_OUT = 1;
+
+        private boolean cancelled = false;
+        private long timeoutMillis = 0;
+        private Validator.ValidationResult timeoutResult = Validator.ValidationResult.Invalid;
+        private volatile HedgingPolicy hedgingPolicy;
+        private volatile Criteria<?> criteria;
+        private volatile Attempt attempt;
+        private volatile AsyncCondition<?> wrapper;
+        private Future<?> future;
+
+        /**
+         * A single evaluation of an asynchronous condition during one round of its
+         * {@link Criteria}.
+         * <p>
+         * Running an attempt delivers its result, see {@link #deliver(Attempt)}.
+         */
+        static final class Attempt implements Runnable {
+            final AsyncCondition<?> asyncCondition;
+            final int generation;
+            final Object snapshot;
+            final AtomicBoolean completed = new AtomicBoolean();
+            final long startNanos = System.nanoTime();
+            volatile ScheduledFuture<?> deadline;
+            volatile ScheduledFuture<?> hedgeTimer;
+            volatile Future<?> primary;
+            volatile Future<?> hedge;
+            volatile Thread hedgeRunner;
+            volatile long queuedNanos;
+            volatile int outcome;
+            volatile Validator.ValidationResult result;
+
+            Attempt(AsyncCondition<?> asyncCondition, int generation, Object snapshot) {
+                this.asyncCondition = asyncCondition;
+                this.generation = generation;
+                this.snapshot = snapshot;
+            }
+
+            @Override
+            public void run() {
+                this.asyncCondition.deliver(this);
+            }
+
+            /**
+             * Cancels the deadline and the pending hedge of this attempt, if it has them.
+             */
+            void cancelTimers() {
+                cancelFuture(this.deadline, false);
+                cancelFuture(this.hedgeTimer, false);
+            }
+
+            /**
+             * Interrupts the duplicate evaluation of this attempt, if one was started.
+             */
+            void cancelHedge() {
+                cancelFuture(this.hedge, true);
+            }
+
+            private static void cancelFuture(Future<?> future, boolean mayInterruptIfRunning) {
+                if (future != null) {
+                    future.cancel(mayInterruptIfRunning);
+                }
+            }
+        }
+
+        /**
+         * A task that runs an evaluation and cancels the {@link CancellationToken} it supplied
+         * when the task is cancelled.
+         * <p>
+         * The token is cancelled even if the task has already returned, so work started by the
+         * evaluation that is still running is stopped as well. A running task is also
+         * interrupted, which wakes up blocking calls.
+         */
+        static final class EvaluationTask extends FutureTask<Void> {
+            private final CancellationToken cancellationToken;
+
+            EvaluationTask(Runnable evaluation, CancellationToken cancellationToken) {
+                super(evaluation, null);
+                this.cancellationToken = cancellationToken;
+            }
+
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                try {
+                    this.cancellationToken.cancel();
+                } catch (RuntimeException e) {
+                    // A failing callback must neither keep the task running nor reach the
+                    // thread that cancels it, which is often the main UI thread.
+                }
+
+                return super.cancel(mayInterruptIfRunning);
+            }
+        }
+
+        /**
+         * Notifies the Criteria object of the result of an attempt. Called on the main UI thread
+         * by the {@link MainThreadDispatcher}.
+         *
+         * @param attempt the attempt whose result is ready
+         *
+         * @see Criteria#asyncConditionComplete(int, Validator.ValidationResult)
+         */
+        final void deliver(Attempt attempt) {
+            ValidationMetrics metrics = criteria.metrics;
+            if (metrics != null && attempt.queuedNanos != 0) {
+                metrics.onResultDequeued(System.nanoTime() - attempt.queuedNanos);
+            }
+
+            if (cancelled) {
+                return;
+            }
+
+            // Stop a condition that missed its deadline before its replacement result is delivered.
+            if (attempt.outcome == TIMED_OUT && attempt.generation == criteria.generation) {
+                interruptEvaluation();
+                onCancelled();
+            }
+
+            criteria.asyncConditionComplete(attempt.generation, attempt.result);
+        }
+
+        /**
+         * Notifies the Criteria object that the asynchronous operation is complete.
+         * <p>
+         * This method should be called be called in the overridden {@link #evaluate(Object)}
+         * method.
+         * <p>
+         * If the evaluation has been superseded by a newer round of the {@link Criteria}, or has
+         * already completed, the result is discarded without notifying the main UI thread.
+         *
+         * @param result true if the test passed, otherwise false
+         */
+        protected final void complete(boolean result) {
+
+            // A wrapped condition completes on behalf of the condition that wraps it.
+            AsyncCondition<?> wrapper = this.wrapper;
+            if (wrapper != null) {
+                wrapper.complete(result);
+                return;
+            }
+
+            complete(resolveAttempt(), result);
+        }
+
+        /**
+         * Notifies the Criteria object that the supplied attempt is complete.
+         *
+         * @param attempt the attempt the result belongs to, or null if it isn't known
+         * @param result true if the test passed, otherwise false
+         */
+        final void complete(Attempt attempt, boolean result) {
+            Criteria<?> criteria = this.criteria;
+
+            // Even a stale result is a valid answer for the input it was evaluated with.
+            if (attempt != null) {
+                onResult(attempt.snapshot, result);
+            }
+
+            // Drop results from earlier rounds before they are queued for the main UI thread.
+            if (attempt == null || attempt.generation != criteria.generation
+                    || !attempt.completed.compareAndSet(false, true)) {
+                if (criteria != null) {
+                    criteria.dropStale(this, attempt != null ? attempt.generation : -1);
+                }
+                return;
+            }
+
+            attempt.cancelTimers();
+            finishHedging(attempt);
+
+            // An offloaded condition has already been reported as the condition it wraps.
+            ValidationMetrics metrics = criteria.metrics;
+            if (metrics != null && !(this instanceof Criteria.OffloadedCondition)) {
+                metrics.onConditionEvaluated(this, System.nanoTime() - attempt.startNanos, result);
+            }
+
+            ValidationTrace trace = criteria.trace;
+            if (trace != null) {
+                trace.record(ValidationTrace.EventType.ConditionEnded, this, attempt.generation,
+                        toValidationResult(result), System.nanoTime());
+            }
+
+            // Queue the result for the main UI thread, where the Criteria object will be notified.
+            sendResult(attempt, COMPLETED, result ? Validator.ValidationResult.Valid : Validator.ValidationResult.Invalid);
+        }
+
+        /**
+         * Completes an attempt that missed its deadline with the configured timeout result.
+         * <p>
+         * Called on the deadline scheduler's thread. The evaluation is cancelled on the main UI
+         * thread before the result is delivered.
+         *
+         * @param attempt the attempt that missed its deadline
+         */
+        private void timeOut(Attempt attempt) {
+            Criteria<?> criteria = this.criteria;
+
+            if (attempt.generation != criteria.generation || !attempt.completed.compareAndSet(false, true)) {
+                return;
+            }
+
+            criteria.timeouts.incrementAndGet();
+            attempt.cancelTimers();
+            attempt.cancelHedge();
+
+            ValidationTrace trace = criteria.trace;
+            if (trace != null) {
+                trace.record(ValidationTrace.EventType.ConditionEnded, this, attempt.generation,
+                        this.timeoutResult, System.nanoTime());
+            }
+            sendResult(attempt, TIMED_OUT, this.timeoutResult);
+        }
+
+        /**
+         * Records the latency of a completed attempt and cancels the evaluation that lost, if the
+         * attempt was hedged.
+         *
+         * @param attempt the completed attempt
+         */
+        private void finishHedging(Attempt attempt) {
+            HedgingPolicy hedgingPolicy = this.hedgingPolicy;
+            if (hedgingPolicy == null) {
+                return;
+            }
+
+            boolean hedgeWon = attempt.hedgeRunner == Thread.currentThread();
+            hedgingPolicy.record(System.nanoTime() - attempt.startNanos, hedgeWon);
+
+            Future<?> loser = hedgeWon ? attempt.primary : attempt.hedge;
+            if (loser != null) {
+                loser.cancel(true);
+            }
+        }
+
+        /**
+         * Queues the result of an attempt for delivery on the main UI thread.
+         * <p>
+         * When the {@link Criteria} object aggregates concurrently, a completed result is
+         * combined on the current thread instead. A timeout still goes to the main UI thread,
+         * where the evaluation is cancelled.
+         *
+         * @param attempt the attempt the result belongs to
+         * @param outcome {@link #COMPLETED} or {@link #TIMED_OUT}
+         * @param result the result of the attempt
+         */
+        private void sendResult(Attempt attempt, int outcome, Validator.ValidationResult result) {
+            attempt.outcome = outcome;
+            attempt.result = result;
+
+            Criteria<?> criteria = this.criteria;
+            if (outcome == COMPLETED && criteria.aggregator.isConcurrent()) {
+                criteria.addResult(attempt.generation, result, true, false);
+                return;
+            }
+
+            if (criteria.metrics != null) {
+                attempt.queuedNanos = System.nanoTime();
+            }
+
+            getDispatcher().dispatch(attempt);
+        }
+
+        /**
+         * Returns a callback that completes the evaluation running on the current thread.
+         * <p>
+         * Must be called from {@link #evaluate(Object)}. The callback can be invoked later on
+         * any thread and still completes the attempt it was created for, so a late result can't
+         * be mistaken for the result of a newer evaluation.
+         *
+         * @return the callback
+         */
+        final Consumer<Boolean> completion() {
+
+            // A wrapped condition completes on behalf of the condition that wraps it.
+            AsyncCondition<?> owner = this;
+            while (owner.wrapper != null) {
+                owner = owner.wrapper;
+            }
+
+            final AsyncCondition<?> target = owner;
+            final Attempt attempt = target.resolveAttempt();
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            return result -> target.complete(attempt, result);
+        }
+
+        /**
+         * Returns the {@link Attempt} that {@link #complete(boolean)} belongs to.
+         * <p>
+         * When {@link #complete(boolean)} is called on the worker thread that ran
+         * {@link #evaluate(Object)}, the attempt started on that thread is used. Otherwise, for
+         * example when the result is delivered on a callback thread, the latest attempt is used.
+         *
+         * @return the attempt, or null if the condition has never been evaluated
+         */
+        private Attempt resolveAttempt() {
+            Attempt attempt = currentAttempt.get();
+
+            return attempt != null && attempt.asyncCondition == this ? attempt : this.attempt;
+        }
+
+        /**
+         * Perform a test using data from the view being evaluated.
+         * <p>
+         * Any code included in this method will be executed on a worker thread supplied by the
+         * {@link Executor} of the enclosing {@link Criteria} (see {@link ValidationExecutors}). After the
+         * data has been evaluated call {@link #complete(boolean)} to notify the Criteria
+         * object that the asynchronous operation is complete.
+         * <p>
+         * If {@link #complete(boolean)} is not executed, then
+         * {@link EvalCompleteListener#onComplete(Validator.ValidationResult)} will never be invoked.
+         *
+         * @param view
+         */
+        protected abstract void evaluate(T view);
+
+        /**
+         * Runs an evaluation with its {@link CancellationToken}. Conditions that don't take a
+         * token ignore it and run {@link #evaluate(Object)}.
+         *
+         * @param view the view being evaluated
+         * @param cancellationToken the token of this evaluation
+         *
+         * @see CancellableAsyncCondition
+         */
+        void evaluateCancellable(T view, CancellationToken cancellationToken) {
+            evaluate(view);
+        }
+
+        /**
+         * This method is called if {@link Criteria#cancelValidation()} ()} is invoked.
+         */
+        protected abstract void onCancelled();
+
+        /**
+         * Cancels the asynchronous operation.
+         */
+        final void cancel() {
+            // Claim the attempt, so a result that arrives now isn't counted as well.
+            Attempt attempt = this.attempt;
+            boolean running = attempt != null && attempt.completed.compareAndSet(false, true);
+
+            cancelled = true;
+            abandonAttempt();
+            interruptEvaluation();
+            this.onCancelled();
+
+            ValidationMetrics metrics = running ? this.criteria.metrics : null;
+            if (metrics != null) {
+                metrics.onConditionCancelled(this);
+            }
+
+            ValidationTrace trace = running ? this.criteria.trace : null;
+            if (trace != null) {
+                trace.record(ValidationTrace.EventType.ConditionCancelled, this, attempt.generation, null, System.nanoTime());
+            }
+        }
+
+        /**
+         * Returns whether this condition was started in the supplied round and hasn't
+         * completed yet.
+         *
+         * @param generation the generation of the round
+         * @return true if the condition is still running in that round, otherwise false
+         */
+        final boolean isRunning(int generation) {
+            Attempt attempt = this.attempt;
+
+            return attempt != null && attempt.generation == generation && !attempt.completed.get();
+        }
+
+        /**
+         * Cancels the timers and the duplicate evaluation of the latest attempt, if it has them.
+         */
+        private void abandonAttempt() {
+            Attempt attempt = this.attempt;
+            if (attempt != null) {
+                attempt.cancelTimers();
+                attempt.cancelHedge();
+            }
+        }
+
+        /**
+         * Cancels the {@link CancellationToken} of the running evaluation, if any, and interrupts
+         * it, without calling {@link #onCancelled()}.
+         */
+        void interruptEvaluation() {
+            if (this.future != null) {
+                this.future.cancel(true);
+            }
+        }
+
+        /**
+         * Hedges slow evaluations of this condition by starting a duplicate evaluation.
+         * <p>
+         * The {@link #evaluate(Object)} method may then run on two worker threads at the same
+         * time. The first call to {@link #complete(boolean)} is used and the other evaluation
+         * is cancelled. When evaluations are shared via {@link SingleFlightAsyncCondition}, only
+         * the condition that started an evaluation hedges it.
+         *
+         * @param hedgingPolicy the {@link HedgingPolicy} for this condition, or null to stop hedging
+         * @return this {@link AsyncCondition} instance
+         */
+        public final AsyncCondition<T> hedge(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Returns the {@link HedgingPolicy} of this condition.
+         *
+         * @return the policy, or null if this condition isn't hedged
+         */
+        public final HedgingPolicy getHedgingPolicy() {
+            return this.hedgingPolicy;
+        }
+
+        /**
+         * Sets the deadline of each evaluation and the result used when it is missed.
+         *
+         * @param timeoutMillis the time allowed, in milliseconds, or 0 for no deadline
+         * @param timeoutResult the result used when the deadline is missed
+         */
+        final void setTimeout(long timeoutMillis, Validator.ValidationResult timeoutResult) {
+            this.timeoutMillis = timeoutMillis;
+            this.timeoutResult = timeoutResult;
+        }
+
+        /**
+         * Routes calls to {@link #complete(boolean)} made by this condition to another condition.
+         * <p>
+         * Used by conditions that wrap this one, such as {@link MemoizedAsyncCondition}.
+         *
+         * @param wrapper the condition that wraps this one
+         */
+        final void wrapWith(AsyncCondition<?> wrapper) {
+            this.wrapper = wrapper;
+        }
+
+        /**
+         * Captures the input of an evaluation on the main UI thread.
+         * <p>
+         * The snapshot is passed to {@link #lookup(Object)} and {@link #onResult(Object, boolean)}.
+         *
+         * @param view the view being validated
+         * @return a snapshot of the input, or null if this condition doesn't use snapshots
+         */
+        Object snapshot(T view) {
+            return null;
+        }
+
+        /**
+         * Returns a previously computed result for the input, if one is available, so the
+         * evaluation can complete without running {@link #evaluate(Object)}.
+         *
+         * @param snapshot the snapshot returned by {@link #snapshot(Object)}
+         * @return the result, or null if it isn't known
+         */
+        Boolean lookup(Object snapshot) {
+            return null;
+        }
+
+        /**
+         * Called on the worker thread when {@link #complete(boolean)} is invoked.
+         *
+         * @param snapshot the snapshot returned by {@link #snapshot(Object)}
+         * @param result the result of the evaluation
+         */
+        void onResult(Object snapshot, boolean result) {
+        }
+
+        /**
+         * Executes {@link #evaluate(Object)} on the supplied {@link Executor}, unless the result
+         * is already known.
+         *
+         * @param criteria the instance of the enclosing {@link Criteria} object
+         * @param view the view being validated
+         * @param executor the {@link Executor} that will run {@link #evaluate(Object)}
+         * @return the result if it is already known, otherwise null once the evaluation is started
+         */
+        final Boolean initEvaluate(final Criteria<?> criteria, final T view, final Executor executor) {
+            cancelled = false;
+            this.criteria = criteria;
+
+            // Cancel the current evaluation to prevent a race condition.
+            abandonAttempt();
+            interruptEvaluation();
+
+            Object snapshot = snapshot(view);
+            Boolean knownResult = lookup(snapshot);
+            if (knownResult != null) {
+                this.attempt = null;
+                return knownResult;
+            }
+
+            final Attempt attempt = new Attempt(this, criteria.generation, snapshot);
+            this.attempt = attempt;
+
+            ValidationTrace trace = criteria.trace;
+            if (trace != null) {
+                trace.record(ValidationTrace.EventType.ConditionStarted, this, attempt.generation, null, attempt.startNanos);
+            }
+
+            start(attempt, view, executor);
+
+            if (this.timeoutMillis > 0 && !attempt.completed.get()) {
+
+                /* Java 8
+                 *  => Lambda Expression
+                 */
+                attempt.deadline = ValidationExecutors.getDeadlineScheduler()
+                        .schedule(() -> timeOut(attempt), this.timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+
+            return null;
+        }
+
+        /**
+         * Starts an attempt whose result isn't already known.
+         * <p>
+         * By default {@link #evaluate(Object)} is executed on the supplied {@link Executor}.
+         * Conditions such as {@link SingleFlightAsyncCondition} may share another condition's
+         * evaluation instead.
+         *
+         * @param attempt the attempt to start
+         * @param view the view being validated
+         * @param executor the {@link Executor} that will run {@link #evaluate(Object)}
+         */
+        void start(Attempt attempt, T view, Executor executor) {
+            start(attempt, view, executor, executor);
+        }
+
+        /**
+         * Starts an attempt whose result isn't already known, running the evaluation and its
+         * hedged duplicate, if any, on separate executors.
+         *
+         * @param attempt the attempt to start
+         * @param view the view being validated
+         * @param executor the {@link Executor} that will run {@link #evaluate(Object)}
+         * @param hedgeExecutor the {@link Executor} that will run the duplicate evaluation
+         */
+        final void start(Attempt attempt, T view, Executor executor, Executor hedgeExecutor) {
+            FutureTask<Void> task = newTask(attempt, view);
+            this.future = task;
+            attempt.primary = task;
+            executor.execute(task);
+
+            scheduleHedge(attempt, view, hedgeExecutor);
+        }
+
+        /**
+         * Schedules a duplicate evaluation for when the attempt reaches the hedging delay, if
+         * this condition has a {@link HedgingPolicy} with enough recorded latencies.
+         */
+        final void scheduleHedge(final Attempt attempt, final T view, final Executor executor) {
+            final HedgingPolicy hedgingPolicy = this.hedgingPolicy;
+            if (hedgingPolicy == null) {
+                return;
+            }
+
+            hedgingPolicy.onEvaluationStarted();
+
+            long delayNanos = hedgingPolicy.getHedgeDelayNanos();
+            if (delayNanos < 0 || attempt.completed.get()) {
+                return;
+            }
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            attempt.hedgeTimer = ValidationExecutors.getDeadlineScheduler()
+                    .schedule(() -> startHedge(attempt, view, executor, hedgingPolicy), delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Starts a duplicate evaluation of an attempt that is still running, if the
+         * {@link HedgingPolicy} allows the extra load.
+         */
+        private void startHedge(final Attempt attempt, final T view, Executor executor, HedgingPolicy hedgingPolicy) {
+            if (attempt.completed.get() || attempt.generation != this.criteria.generation || !hedgingPolicy.tryHedge()) {
+                return;
+            }
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            final CancellationToken cancellationToken = new CancellationToken();
+            FutureTask<Void> task = new EvaluationTask(() -> {
+                attempt.hedgeRunner = Thread.currentThread();
+                runEvaluation(attempt, view, cancellationToken);
+            }, cancellationToken);
+            attempt.hedge = task;
+            executor.execute(task);
+        }
+
+        /**
+         * Returns a task that runs {@link #evaluateCancellable(Object, CancellationToken)} for the
+         * supplied attempt, so {@link #complete(boolean)} can tell which attempt it belongs to.
+         * Cancelling the task cancels the {@link CancellationToken} of the evaluation.
+         *
+         * @param attempt the attempt being evaluated
+         * @param view the view being validated
+         * @return the task
+         */
+        final FutureTask<Void> newTask(final Attempt attempt, final T view) {
+            final CancellationToken cancellationToken = new CancellationToken();
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            return new EvaluationTask(() -> runEvaluation(attempt, view, cancellationToken), cancellationToken);
+        }
+
+        /**
+         * Runs {@link #evaluateCancellable(Object, CancellationToken)} on the current worker
+         * thread for the supplied attempt.
+         */
+        private void runEvaluation(Attempt attempt, T view, CancellationToken cancellationToken) {
+            currentAttempt.set(attempt);
+            try {
+                evaluateCancellable(view, cancellationToken);
+            } finally {
+                currentAttempt.remove();
+            }
+        }
+
+        /**
+         * Returns the {@link MainThreadDispatcher} that delivers the results.
+         * <p>
+         * For testing.
+         *
+         * @return the shared dispatcher
+         */
+        MainThreadDispatcher getDispatcher() {
+            return MainThreadDispatcher.getInstance();
+        }
+    }
+
+    /**
+     * This interface is supplied to the {@link Criteria#evaluate(EvalCompleteListener)}
+     * method and receives the final validation result after all conditions in a criteria object
+     * have been completed their tests.
+     */
+    public interface EvalCompleteListener {
+
+        /**
+         * This method is called after all conditions of the criteria
+         * have been tested.
+         *
+         * @param validationResult the result after all conditions have been tested
+         */
+        void onComplete(Validator.ValidationResult validationResult);
+    }
+
+    /**
+     * Class constructor specifying the view being validated.
+     *
+     * @param validatedView the view being validated
+     */
+    public Criteria(T validatedView) {
+        this.validatedView = validatedView;
+        this.conditions = new LinkedHashSet<>();
+        this.orderedConditions = new ArrayList<>();
+        this.conditionStats = new HashMap<>();
+        this.asyncConditions = new HashSet<>();
+        this.criteria = this;
+    }
+
+    /**
+     * Adds an {@link AsyncCondition} to be tested.
+     * <p>
+     * For example, the asynchronous operation could evaluate whether a
+     * username is available.
+     *
+     * @param asyncCondition a condition that performs an asynchronous operation
+     * @return this {@link Criteria} instance
+     *
+     * @see AsyncCondition
+     * @see Condition
+     */
+    public Criteria<T> asyncTest(AsyncCondition<T> asyncCondition) {
+        this.asyncConditions.add(asyncCondition);
+        return this;
+    }
+
+    /**
+     * Adds an {@link AsyncCondition} to be tested that must complete within a deadline.
+     * <p>
+     * If the condition hasn't called {@link AsyncCondition#complete(boolean)} within the
+     * deadline, it is cancelled and the supplied result is used in its place. For example,
+     * {@link Validator.ValidationResult#Unknown} can be used to tell the user that a username
+     * couldn't be checked rather than that it isn't available.
+     *
+     * @param asyncCondition a condition that performs an asynchronous operation
+     * @param timeoutMillis the time allowed for each evaluation, in milliseconds
+     * @param timeoutResult the result used when the deadline is missed
+     * @return this {@link Criteria} instance
+     *
+     * @see #getTimeoutCount()
+     */
+    public Criteria<T> asyncTest(AsyncCondition<T> asyncCondition, long timeoutMillis, Validator.ValidationResult timeoutResult) {
+        asyncCondition.setTimeout(timeoutMillis, timeoutResult);
+        return asyncTest(asyncCondition);
+    }
+
+    /**
+     * Sets the {@link Executor} used to run this instance's {@link AsyncCondition} objects.
+     * <p>
+     * An executor set here takes precedence over one supplied to the {@link Validator} and over
+     * the global default returned by {@link ValidationExecutors#getDefaultExecutor()}.
+     *
+     * @param executor the executor to use, or null to fall back to the defaults
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets how the conditions are evaluated.
+     *
+     * @param evaluationPolicy an {@link EvaluationPolicy}, {@link EvaluationPolicy#All} by default
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> evaluationPolicy(EvaluationPolicy evaluationPolicy) {
+        this.evaluationPolicy = evaluationPolicy;
+        return this;
+    }
+
+    /**
+     * Adds a {@link Condition} to be tested.
+     * <p>
+     * For example, the synchronous operation could evaluate whether a username contains valid
+     * characters.
+     *
+     * @param condition a condition that can be tested immediately
+     * @return this {@link Criteria} instance
+     *
+     * @see AsyncCondition
+     * @see Condition
+     */
+    public Criteria<T> test(Condition<T> condition) {
+        return test(condition, 0);
+    }
+
+    /**
+     * Adds a {@link Condition} to be tested along with the time it is expected to take.
+     * <p>
+     * The hint is used to order the conditions until the actual cost has been measured.
+     *
+     * @param condition a condition that can be tested immediately
+     * @param costHintNanos the expected evaluation time in nanoseconds, or 0 if unknown
+     * @return this {@link Criteria} instance
+     *
+     * @see ConditionStats
+     */
+    public Criteria<T> test(Condition<T> condition, long costHintNanos) {
+        if (this.conditions.add(condition)) {
+            this.orderedConditions.add(condition);
+            this.conditionStats.put(condition, new ConditionStats(costHintNanos));
+        }
+        return this;
+    }
+
+    /**
+     * Sets the order in which the {@link Condition} objects are evaluated when short-circuiting.
+     *
+     * @param conditionOrder a {@link ConditionOrder}, {@link ConditionOrder#Adaptive} by default
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> conditionOrder(ConditionOrder conditionOrder) {
+        this.conditionOrder = conditionOrder;
+        return this;
+    }
+
+    /**
+     * Sets whether the {@link Condition} objects are evaluated in parallel.
+     * <p>
+     * In parallel, the conditions are spread across the work-stealing pool returned by
+     * {@link ValidationExecutors#getComputePool()} and the result is delivered to the main UI
+     * thread once all of them have been evaluated, so the result is never delivered during the
+     * call to {@link #evaluate(EvalCompleteListener)}. The results are combined in the same way
+     * whatever order the conditions finish in. When short-circuiting, the remaining conditions
+     * are skipped once one has failed, and the {@link AsyncCondition} objects are started on the
+     * main UI thread after every condition has passed.
+     * <p>
+     * Like {@link AsyncCondition#evaluate(Object)}, a condition evaluated in parallel receives
+     * the view on a worker thread, so it shouldn't change the view.
+     *
+     * @param parallel true to evaluate the conditions in parallel, false by default
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Sets where the results of the {@link AsyncCondition} objects are combined.
+     * <p>
+     * With {@link Aggregation#Concurrent}, a failed condition still decides the result early
+     * and cancels the conditions that are still running, but on the main UI thread once the
+     * final result arrives.
+     *
+     * @param aggregation an {@link Aggregation}, {@link Aggregation#MainThread} by default
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> aggregation(Aggregation aggregation) {
+        this.aggregator = aggregation == Aggregation.Concurrent ? new ConcurrentAggregator() : new MainThreadAggregator();
+        return this;
+    }
+
+    /**
+     * Sets the {@link FrameBudgetWatchdog} that times the {@link Condition} objects evaluated on
+     * the main UI thread.
+     * <p>
+     * A condition that repeatedly overruns its share of the frame budget is offloaded when the
+     * next round starts. From then on it is evaluated on a worker thread supplied by the
+     * {@link Executor} of this instance, like an {@link AsyncCondition}, so it only reaches the
+     * result after the round has been delivered asynchronously.
+     *
+     * @param watchdog the watchdog, or null to stop timing the conditions
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> watchdog(FrameBudgetWatchdog watchdog) {
+        this.watchdog = watchdog;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ValidationMetrics} sink that receives the measurements of this instance.
+     * <p>
+     * Without a sink nothing is measured apart from what this instance needs itself, such as
+     * the {@link ConditionStats}.
+     *
+     * @param metrics the sink, or null to stop reporting
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> metrics(ValidationMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ValidationTrace} that records the events of this instance and its
+     * conditions.
+     *
+     * @param trace the trace, or null to stop recording
+     * @return this {@link Criteria} instance
+     */
+    public Criteria<T> trace(ValidationTrace trace) {
+        this.trace = trace;
+        return this;
+    }
+
+
+    /**
+     * Evaluates all {@link Condition} and {@link AsyncCondition} objects associated with
+     * this instance.
+     *
+     * @param evalCompleteListener an {@link EvalCompleteListener} that will handle the final result
+     */
+    void evaluate(EvalCompleteListener evalCompleteListener) {
+        evaluate(evalCompleteListener, null);
+    }
+
+    /**
+     * Evaluates all {@link Condition} and {@link AsyncCondition} objects associated with
+     * this instance.
+     *
+     * @param evalCompleteListener an {@link EvalCompleteListener} that will handle the final result
+     * @param fallbackExecutor the {@link Executor} to use if one hasn't been set via
+     *                         {@link #executor(Executor)}, may be null
+     */
+    void evaluate(EvalCompleteListener evalCompleteListener, Executor fallbackExecutor) {
+        evaluate(evalCompleteListener, fallbackExecutor, null, false);
+    }
+
+    /**
+     * Evaluates all {@link Condition} and {@link AsyncCondition} objects associated with this
+     * instance and returns a future that completes with the result.
+     * <p>
+     * Must be called on the main UI thread. The future completes on the main UI thread, or, when
+     * the results are aggregated concurrently (see {@link Aggregation#Concurrent}), on the worker
+     * thread that decides the result, so dependent stages don't wait for the main UI thread. If
+     * the round is superseded by a newer one or cancelled, the future is cancelled.
+     *
+     * @return a future that completes with the result of this round
+     */
+    public CompletableFuture<Validator.ValidationResult> evaluateAsync() {
+        return evaluateAsync(null, null);
+    }
+
+    /**
+     * Evaluates all conditions and returns a future that completes with the result after the
+     * supplied listener has been notified on the main UI thread.
+     *
+     * @param evalCompleteListener an {@link EvalCompleteListener} that will handle the final
+     *                             result, or null to only complete the future
+     * @param fallbackExecutor the {@link Executor} to use if one hasn't been set via
+     *                         {@link #executor(Executor)}, may be null
+     * @return a future that completes with the result of this round
+     */
+    CompletableFuture<Validator.ValidationResult> evaluateAsync(final EvalCompleteListener evalCompleteListener, Executor fallbackExecutor) {
+        final CompletableFuture<Validator.ValidationResult> future = new CompletableFuture<>();
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        evaluate(validationResult -> {
+            if (evalCompleteListener != null) {
+                evalCompleteListener.onComplete(validationResult);
+            }
+            future.complete(validationResult);
+        }, fallbackExecutor, future, evalCompleteListener == null);
+
+        return future;
+    }
+
+    /**
+     * Starts a new round.
+     *
+     * @param future the future waiting for the result of the round, or null
+     * @param completeOnWorker true if the future may be completed on a worker thread
+     */
+    private void evaluate(EvalCompleteListener evalCompleteListener, Executor fallbackExecutor,
+                          CompletableFuture<Validator.ValidationResult> future, boolean completeOnWorker) {
+        this.evalCompleteListener = evalCompleteListener;
+        this.fallbackExecutor = fallbackExecutor;
+
+        // Start a new round. Anything still running from the previous round is now stale.
+        cancelPendingFuture();
+        offloadOverBudgetConditions();
+        this.generation++;
+
+        ValidationTrace trace = this.trace;
+        if (trace != null) {
+            trace.record(ValidationTrace.EventType.EvaluateStarted, this, this.generation, null, System.nanoTime());
+        }
+
+        if (future != null) {
+            this.pendingFuture = new PendingFuture(this.generation, future, completeOnWorker);
+        }
+        reset();
+
+        if (this.evaluationPolicy == EvaluationPolicy.ShortCircuit) {
+            if (isParallel()) {
+                forkShortCircuitConditions();
+                return;
+            }
+
+            evaluateConditions();
+        }
+
+        startRound(this.generation, this.evaluationPolicy == EvaluationPolicy.ShortCircuit);
+    }
+
+    /**
+     * Starts the round in the {@link RoundAggregator}, starts the asynchronous conditions and
+     * adds the result of the synchronous conditions, which count as one more result of the
+     * round, so the round can't be decided before they have been evaluated.
+     * <p>
+     * When short-circuiting, the synchronous conditions have already been evaluated and the
+     * asynchronous conditions are only started if every synchronous condition passed.
+     *
+     * @param generation the generation of the round
+     * @param shortCircuit true if the {@link EvaluationPolicy} is {@link EvaluationPolicy#ShortCircuit}
+     */
+    private void startRound(final int generation, boolean shortCircuit) {
+        final boolean startAsync = !shortCircuit || this.validationResult == Validator.ValidationResult.Valid;
+
+        // Start the round before any worker thread can complete it.
+        this.aggregator.begin(generation, (startAsync ? this.asyncConditions.size() : 0) + 1);
+
+        if (startAsync) {
+            evaluateAsyncConditions();
+
+            // A known failure has already decided and delivered the round.
+            if (generation != this.generation) {
+                return;
+            }
+        } else {
+
+            // Stop any asynchronous conditions still running from an earlier round.
+            this.asyncConditions.forEach(AsyncCondition::interruptEvaluation);
+        }
+
+        if (!shortCircuit && isParallel()) {
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            forkConditions(result -> addResultFromWorker(generation, result));
+            return;
+        }
+
+        if (!shortCircuit) {
+            evaluateConditions();
+        }
+
+        Validator.ValidationResult result = this.validationResult;
+        reset();
+
+        // Only decides the round if every asynchronous result was already known.
+        addResult(generation, result, false, true);
+    }
+
+    /**
+     * Returns whether this round evaluates its {@link Condition} objects in parallel.
+     *
+     * @return true if parallel evaluation is enabled and there are conditions to evaluate
+     */
+    private boolean isParallel() {
+        return this.parallel && !this.orderedConditions.isEmpty();
+    }
+
+    /**
+     * Evaluates the synchronous conditions of a short-circuiting round in parallel and continues
+     * the round on the main UI thread.
+     */
+    private void forkShortCircuitConditions() {
+        final int generation = this.generation;
+
+        if (this.conditionOrder == ConditionOrder.Adaptive) {
+            reorderConditions();
+        }
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        forkConditions(result -> getDispatcher().dispatch(() -> {
+
+            // A newer round has started since the conditions were forked.
+            if (generation != this.generation) {
+                dropStale(this, generation);
+                return;
+            }
+
+            setValidationResult(result);
+            startRound(generation, true);
+        }));
+    }
+
+    /**
+     * Evaluates the synchronous conditions on the compute pool.
+     *
+     * @param callback receives the combined result on a thread of the compute pool
+     */
+    private void forkConditions(Consumer<Validator.ValidationResult> callback) {
+        final List<Condition<T>> conditions = new ArrayList<>(this.orderedConditions);
+        final boolean shortCircuit = this.evaluationPolicy == EvaluationPolicy.ShortCircuit;
+
+        ValidationExecutors.getComputePool().execute(
+                new ConditionTask(conditions, new boolean[conditions.size()], 0, conditions.size(),
+                        shortCircuit ? new AtomicBoolean() : null, callback));
+    }
+
+    /**
+     * Evaluates a range of {@link Condition} objects, splitting it in half until each task
+     * evaluates a single condition.
+     */
+    private final class ConditionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Condition<T>> conditions;
+        private final boolean[] results;
+        private final int from;
+        private final int to;
+        private final AtomicBoolean failed;
+        private final Consumer<Validator.ValidationResult> callback;
+
+        /**
+         * @param failed set when a condition fails so the remaining conditions are skipped, or
+         *               null to evaluate every condition
+         * @param callback receives the combined result, only supplied to the root task
+         */
+        ConditionTask(List<Condition<T>> conditions, boolean[] results, int from, int to,
+                      AtomicBoolean failed, Consumer<Validator.ValidationResult> callback) {
+            this.conditions = conditions;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.failed = failed;
+            this.callback = callback;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                if (this.to - this.from == 1) {
+                    evaluateOne();
+                } else {
+                    int middle = (this.from + this.to) >>> 1;
+                    invokeAll(new ConditionTask(this.conditions, this.results, this.from, middle, this.failed, null),
+                            new ConditionTask(this.conditions, this.results, middle, this.to, this.failed, null));
+                }
+            } catch (final RuntimeException e) {
+                if (this.callback == null) {
+                    throw e;
+                }
+
+                // Fail on the main UI thread, as a condition evaluated there would have.
+                /* Java 8
+                 *  => Lambda Expression
+                 */
+                getDispatcher().dispatch(() -> {
+                    throw e;
+                });
+                return;
+            }
+
+            if (this.callback != null) {
+                this.callback.accept(combine());
+            }
+        }
+
+        private void evaluateOne() {
+            if (this.failed != null && this.failed.get()) {
+
+                // Skipped, the result is already known.
+                this.results[this.from] = true;
+                return;
+            }
+
+            boolean passed = evaluateCondition(this.conditions.get(this.from), false);
+            this.results[this.from] = passed;
+
+            if (!passed && this.failed != null) {
+                this.failed.set(true);
+            }
+        }
+
+        /**
+         * Combines the results of every condition. Called after all subtasks have completed.
+         */
+        private Validator.ValidationResult combine() {
+            for (boolean result : this.results) {
+                if (!result) {
+                    return Validator.ValidationResult.Invalid;
+                }
+            }
+
+            return Validator.ValidationResult.Valid;
+        }
+    }
+
+    /**
+     * Evaluate all synchronous conditions.
+     */
+    void evaluateConditions() {
+        if (this.evaluationPolicy == EvaluationPolicy.ShortCircuit) {
+            if (this.conditionOrder == ConditionOrder.Adaptive) {
+                reorderConditions();
+            }
+
+            /* Java 8
+             *  => collection.stream()
+             *  => stream.allMatch(Predicate<? super T> predicate)
+             *  => Lambda Expression
+             */
+            setValidationResult(this.orderedConditions.stream().allMatch(condition -> evaluateCondition(condition, true)));
+            return;
+        }
+
+        /* Java 8
+         *  => collection.forEach(Consumer<? super T> action)
+         */
+        this.orderedConditions.forEach(condition -> setValidationResult(evaluateCondition(condition, true)));
+    }
+
+    /**
+     * Evaluates a single {@link Condition} and records its cost and result.
+     *
+     * @param condition the condition to evaluate
+     * @param mainThread true if the condition is evaluated on the main UI thread, where it is
+     *                   timed by the {@link FrameBudgetWatchdog}
+     * @return the result of the condition
+     */
+    private boolean evaluateCondition(Condition<T> condition, boolean mainThread) {
+        long start = System.nanoTime();
+        boolean result = condition.evaluate(this.validatedView);
+        long end = System.nanoTime();
+        long elapsedNanos = end - start;
+        this.conditionStats.get(condition).record(elapsedNanos, result);
+
+        ValidationTrace trace = this.trace;
+        if (trace != null) {
+            int generation = this.generation;
+            trace.record(ValidationTrace.EventType.ConditionStarted, condition, generation, null, start);
+            trace.record(ValidationTrace.EventType.ConditionEnded, condition, generation, toValidationResult(result), end);
+        }
+
+        ValidationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.onConditionEvaluated(condition, elapsedNanos, result);
+        }
+
+        // Offloaded once the round is over, so it isn't evaluated twice in this round.
+        FrameBudgetWatchdog watchdog = this.watchdog;
+        if (mainThread && watchdog != null && watchdog.record(condition, elapsedNanos)) {
+            this.overBudgetConditions.add(condition);
+        }
+
+        return result;
+    }
+
+    /**
+     * Moves the conditions that overran the frame budget to worker threads.
+     */
+    private void offloadOverBudgetConditions() {
+        if (this.overBudgetConditions.isEmpty()) {
+            return;
+        }
+
+        for (Condition<T> condition : this.overBudgetConditions) {
+            if (this.conditions.remove(condition)) {
+                this.orderedConditions.remove(condition);
+                asyncTest(new OffloadedCondition(condition));
+
+                if (this.watchdog != null) {
+                    this.watchdog.offloaded(condition);
+                }
+            }
+        }
+
+        this.overBudgetConditions.clear();
+    }
+
+    /**
+     * A {@link Condition} that overran the frame budget, evaluated on a worker thread.
+     */
+    private final class OffloadedCondition extends AsyncCondition<T> {
+        private final Condition<T> condition;
+
+        OffloadedCondition(Condition<T> condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        protected void evaluate(T view) {
+            complete(evaluateCondition(this.condition, false));
+        }
+
+        @Override
+        protected void onCancelled() {
+
+        }
+
+        @Override
+        MainThreadDispatcher getDispatcher() {
+            return Criteria.this.getDispatcher();
+        }
+    }
+
+    /**
+     * Sorts the conditions so the lowest {@link ConditionStats#getScore()} is evaluated first.
+     */
+    private void reorderConditions() {
+        List<Condition<T>> previousOrder = new ArrayList<>(this.orderedConditions);
+
+        /* Java 8
+         *  => list.sort(Comparator<? super E> c)
+         *  => Lambda Expression
+         */
+        this.orderedConditions.sort((condition1, condition2) -> Double.compare(
+                this.conditionStats.get(condition1).getScore(),
+                this.conditionStats.get(condition2).getScore()));
+
+        if (!previousOrder.equals(this.orderedConditions)) {
+            this.reorderCount++;
+        }
+    }
+
+    /**
+     * Returns the {@link Condition} objects in the order they were last evaluated.
+     *
+     * @return the conditions in evaluation order
+     */
+    public List<Condition<T>> getConditionOrder() {
+        return Collections.unmodifiableList(this.orderedConditions);
+    }
+
+    /**
+     * Returns the number of times the adaptive ordering changed the evaluation order.
+     *
+     * @return the number of reorderings
+     */
+    public int getReorderCount() {
+        return this.reorderCount;
+    }
+
+    /**
+     * Returns the cost and failure statistics recorded for a {@link Condition}.
+     *
+     * @param condition a condition added to this instance
+     * @return the statistics, or null if the condition wasn't added to this instance
+     */
+    public ConditionStats getConditionStats(Condition<T> condition) {
+        return this.conditionStats.get(condition);
+    }
+
+    /**
+     * Initiate all asynchronous conditions.
+     */
+    void evaluateAsyncConditions() {
+        final Executor executor = resolveExecutor();
+        final int generation = this.generation;
+
+        for (AsyncCondition<T> asyncCondition : this.asyncConditions) {
+
+            // A known failure decided the round, so the remaining conditions aren't started.
+            if (generation != this.generation) {
+                asyncCondition.interruptEvaluation();
+                continue;
+            }
+
+            Boolean knownResult = asyncCondition.initEvaluate(this, this.validatedView, executor);
+
+            // A known result completes immediately, without a worker thread or a trip to the
+            // dispatcher, and a known failure decides the round like any other failure.
+            if (knownResult != null) {
+                addResult(generation, toValidationResult(knownResult), true, true);
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link Executor} that will run the asynchronous conditions.
+     *
+     * @return the executor set on this instance, the executor supplied by the {@link Validator}
+     * or the global default
+     */
+    Executor resolveExecutor() {
+        if (this.executor != null) {
+            return this.executor;
+        }
+
+        return this.fallbackExecutor != null ? this.fallbackExecutor : ValidationExecutors.getDefaultExecutor();
+    }
+
+    void cancelValidation() {
+
+        // Results from the cancelled round must not be delivered.
+        this.generation++;
+        cancelPendingFuture();
+
+        /* Java 8
+         *  => collection.forEach(Consumer<? super T> action)
+         *  => Method Reference
+         */
+        this.asyncConditions.forEach(AsyncCondition::cancel);
+    }
+
+    /**
+     * Cancels the future waiting for the result of the previous round, if it hasn't completed.
+     */
+    private void cancelPendingFuture() {
+        PendingFuture pendingFuture = this.pendingFuture;
+        this.pendingFuture = null;
+
+        if (pendingFuture != null) {
+            pendingFuture.future.cancel(false);
+        }
+    }
+
+    /**
+     * Returns the view being validated.
+     *
+     * @return the view supplied to the {@link #Criteria(Object)} constructor
+     */
+    T getValidatedView() {
+        return this.validatedView;
+    }
+
+    /**
+     * Returns all {@link Condition} objects added to this instance.
+     * <p>
+     * For testing.
+     * @return all {@link Condition} objects added to this instance
+     */
+    Set<Condition<T>> getConditions() {
+        return Collections.unmodifiableSet(this.conditions);
+    }
+
+    /**
+     * Returns all {@link AsyncCondition} objects added to this instance.
+     * <p>
+     * For testing.
+     * @return all {@link AsyncCondition} objects added to this instance
+     */
+    Set<AsyncCondition<T>> getAsyncConditions() {
+        return Collections.unmodifiableSet(this.asyncConditions);
+    }
+
+    /**
+     * Returns the number of asynchronous results that were discarded because they belonged to
+     * an earlier round or were delivered more than once.
+     *
+     * @return the number of discarded results
+     */
+    public int getStaleCompletionCount() {
+        return this.staleCompletions.get();
+    }
+
+    /**
+     * Counts a result that is discarded because it belongs to an earlier round or its round was
+     * already decided. May be called from any thread.
+     *
+     * @param subject the condition or {@link Criteria} whose result is discarded
+     * @param generation the generation of the round the result belongs to
+     */
+    private void dropStale(Object subject, int generation) {
+        this.staleCompletions.incrementAndGet();
+
+        ValidationTrace trace = this.trace;
+        if (trace != null) {
+            trace.record(ValidationTrace.EventType.StaleResultDropped, subject, generation, null, System.nanoTime());
+        }
+    }
+
+    /**
+     * Returns the number of asynchronous conditions that missed their deadline.
+     *
+     * @return the number of timeouts
+     */
+    public int getTimeoutCount() {
+        return this.timeouts.get();
+    }
+
+    /**
+     * Returns the generation of the current round.
+     *
+     * @return the generation of the current round
+     */
+    int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * This method is called on the main UI thread when {@link AsyncCondition#complete(boolean)}
+     * is invoked.
+     * <p>
+     * The result is discarded if it belongs to an earlier round.
+     *
+     * @param generation the generation of the round the result belongs to
+     * @param result the result of testing the condition
+     */
+    void asyncConditionComplete(int generation, boolean result) {
+        asyncConditionComplete(generation, toValidationResult(result));
+    }
+
+    /**
+     * This method is called on the main UI thread when an {@link AsyncCondition} completes or
+     * misses its deadline.
+     * <p>
+     * The result is discarded if it belongs to an earlier round.
+     *
+     * @param generation the generation of the round the result belongs to
+     * @param result the result of the condition
+     */
+    void asyncConditionComplete(int generation, Validator.ValidationResult result) {
+        addResult(generation, result, true, true);
+    }
+
+    /**
+     * This method is called when {@link AsyncCondition#complete(boolean)} is invoked for the
+     * current round.
+     *
+     * @param result the result of testing the condition
+     *
+     * @see AsyncCondition
+     */
+    void asyncConditionComplete(boolean result) {
+        asyncConditionComplete(this.generation, result);
+    }
+
+    /**
+     * Adds a result produced on a worker thread. It is combined right away when the
+     * {@link RoundAggregator} is concurrent, otherwise on the main UI thread.
+     *
+     * @param generation the generation of the round the result belongs to
+     * @param result the result to add
+     */
+    private void addResultFromWorker(final int generation, final Validator.ValidationResult result) {
+        if (this.aggregator.isConcurrent()) {
+            addResult(generation, result, true, false);
+            return;
+        }
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        getDispatcher().dispatch(() -> addResult(generation, result, true, true));
+    }
+
+    /**
+     * Adds a result to its round and delivers the final result if this call decided the round.
+     * <p>
+     * A round decided on the main UI thread is delivered right away. A round decided on a worker
+     * thread is queued for the main UI thread, and a future nobody listens to on the main UI
+     * thread is completed right away.
+     *
+     * @param generation the generation of the round the result belongs to
+     * @param result the result to add
+     * @param decideEarly true if a failure decides the round before every result is in
+     * @param mainThread true if called on the main UI thread
+     */
+    void addResult(final int generation, Validator.ValidationResult result, boolean decideEarly, boolean mainThread) {
+        RoundAggregator.Decision decision = generation == this.generation
+                ? this.aggregator.add(generation, result, decideEarly)
+                : RoundAggregator.Decision.STALE;
+
+        if (decision == RoundAggregator.Decision.STALE) {
+            dropStale(this, generation);
+            return;
+        }
+        if (decision == RoundAggregator.Decision.PENDING) {
+            return;
+        }
+
+        if (mainThread) {
+            deliverResult(generation, decision, 0);
+            return;
+        }
+
+        final RoundAggregator.Decision decided = decision;
+        final long queuedNanos = this.metrics != null ? System.nanoTime() : 0;
+
+        PendingFuture pendingFuture = this.pendingFuture;
+        if (pendingFuture != null && pendingFuture.completeOnWorker && pendingFuture.generation == generation) {
+            pendingFuture.future.complete(decided.result);
+        }
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        getDispatcher().dispatch(() -> deliverResult(generation, decided, queuedNanos));
+    }
+
+    /**
+     * Delivers the final result of a round on the main UI thread.
+     * <p>
+     * When a failure decided the round early, the asynchronous conditions that are still
+     * running are cancelled before the result is delivered, so any changes made by
+     * {@link AsyncCondition#onCancelled()} are followed by the final result.
+     *
+     * @param generation the generation of the decided round
+     * @param decision the decision of the round
+     * @param queuedNanos the time the result was queued, or 0 if it isn't measured
+     */
+    private void deliverResult(int generation, RoundAggregator.Decision decision, long queuedNanos) {
+        ValidationMetrics metrics = this.metrics;
+        if (metrics != null && queuedNanos != 0) {
+            metrics.onResultDequeued(System.nanoTime() - queuedNanos);
+        }
+
+        // A newer round has started since this one was decided.
+        if (generation != this.generation) {
+            return;
+        }
+
+        if (decision.early) {
+            cancelRunning(generation);
+        }
+
+        this.evalCompleteListener.onComplete(decision.result);
+    }
+
+    /**
+     * Cancels the asynchronous conditions that are still running in a round whose result has
+     * been decided.
+     *
+     * @param decidedGeneration the generation of the decided round
+     */
+    private void cancelRunning(final int decidedGeneration) {
+
+        // Any result still to come from this round can no longer change the outcome.
+        this.generation++;
+
+        /* Java 8
+         *  => collection.stream()
+         *  => stream.filter(Predicate<? super T> predicate)
+         *  => Method Reference
+         */
+        this.asyncConditions.stream()
+                .filter(asyncCondition -> asyncCondition.isRunning(decidedGeneration))
+                .forEach(AsyncCondition::cancel);
+    }
+
+    /**
+     * Returns the {@link MainThreadDispatcher} that delivers the results.
+     * <p>
+     * For testing.
+     *
+     * @return the shared dispatcher
+     */
+    MainThreadDispatcher getDispatcher() {
+        return MainThreadDispatcher.getInstance();
+    }
+
+    /**
+     * This method is called by {@link #evaluateConditions()} to set the {
+     * @link io.launchowl.viewvalidationlibrary.Validator.ValidationResult} of the synchronous
+     * conditions.
+     *
+     * @param result the result of testing the condition
+     */
+    private void setValidationResult(boolean result) {
+        setValidationResult(toValidationResult(result));
+    }
+
+    /**
+     * Combines the result of a condition with the results of the conditions already tested.
+     * <p>
+     * Invalid takes precedence over Unknown, which takes precedence over Valid.
+     *
+     * @param result the result of the condition
+     */
+    private void setValidationResult(Validator.ValidationResult result) {
+
+        // The default value is Valid, and nothing replaces Invalid.
+        if (result == Validator.ValidationResult.Invalid
+                || (result == Validator.ValidationResult.Unknown && this.validationResult == Validator.ValidationResult.Valid)) {
+            this.validationResult = result;
+        }
+    }
+
+    private static Validator.ValidationResult toValidationResult(boolean result) {
+        return result ? Validator.ValidationResult.Valid : Validator.ValidationResult.Invalid;
+    }
+
+    /**
+     * Resets default values.
+     */
+    private void reset() {
+        this.validationResult = Validator.ValidationResult.Valid;
+    }
+}
@@ -0,0 +1,285 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class watches how long each {@link Criteria.Condition} takes on the main UI thread.
+ * <p>
+ * A {@link Criteria.Condition} is evaluated inline, so a slow one delays the frame being drawn.
+ * A condition that takes longer than its share of the 16 ms frame budget overruns the budget.
+ * Once a condition has overrun the budget a number of times, the {@link Criteria} it belongs to
+ * offloads it: from the next evaluation on, the condition is evaluated on a worker thread like
+ * an {@link Criteria.AsyncCondition}.
+ * <p>
+ * A watchdog is added to a {@link Criteria} via {@link Criteria#watchdog(FrameBudgetWatchdog)}
+ * and can be shared by several of them. The conditions that overran the budget are reported via
+ * {@link #getOffenders()} and {@link #getReport()}, and a {@link Listener} is notified on the
+ * main UI thread whenever a condition is offloaded:
+ * <p>
+ * <pre>
+ * {@code
+ *  FrameBudgetWatchdog watchdog = new FrameBudgetWatchdog(0.25, 3)
+ *      .listener(offender -> Log.w(TAG, "Offloaded " + offender));
+ *
+ *  Criteria<EditText> criteria = new Criteria<>(editText)
+ *      .test(expensiveCondition)
+ *      .watchdog(watchdog);
+ * }
+ * </pre>
+ * <p>
+ * Conditions evaluated in parallel (see {@link Criteria#parallel(boolean)}) are not watched,
+ * since they don't run on the main UI thread.
+ * <p>
+ * This class is thread safe.
+ */
+public final class FrameBudgetWatchdog {
+    static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+    static final double DEFAULT_BUDGET_SHARE = 0.25;
+    static final int DEFAULT_MAX_OVERRUNS = 3;
+
+    private final long budgetNanos;
+    private final int maxOverruns;
+    private final Map<Object, Offender> offenders = new LinkedHashMap<>();
+    private volatile Listener listener;
+
+    /**
+     * This interface receives the conditions offloaded because of the watchdog.
+     */
+    public interface Listener {
+
+        /**
+         * Called on the main UI thread when a condition is offloaded to a worker thread.
+         *
+         * @param offender the condition and its overruns
+         */
+        void onOffloaded(Offender offender);
+    }
+
+    /**
+     * The overruns of a single {@link Criteria.Condition}.
+     */
+    public static final class Offender {
+        private final Object condition;
+        private int overrunCount = 0;
+        private long worstNanos = 0;
+        private long totalNanos = 0;
+        private boolean offloaded = false;
+
+        private Offender(Object condition) {
+            this.condition = condition;
+        }
+
+        private Offender(Offender offender) {
+            this.condition = offender.condition;
+            this.overrunCount = offender.overrunCount;
+            this.worstNanos = offender.worstNanos;
+            this.totalNanos = offender.totalNanos;
+            this.offloaded = offender.offloaded;
+        }
+
+        /**
+         * Returns the condition that overran the budget.
+         *
+         * @return the condition
+         */
+        public Object getCondition() {
+            return this.condition;
+        }
+
+        /**
+         * Returns the number of evaluations that overran the budget.
+         *
+         * @return the number of overruns
+         */
+        public int getOverrunCount() {
+            return this.overrunCount;
+        }
+
+        /**
+         * Returns the longest evaluation time recorded.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getWorstNanos() {
+            return this.worstNanos;
+        }
+
+        /**
+         * Returns the average time of the evaluations that overran the budget.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getAverageOverrunNanos() {
+            return this.overrunCount == 0 ? 0 : this.totalNanos / this.overrunCount;
+        }
+
+        /**
+         * Returns whether the condition has been offloaded to a worker thread.
+         *
+         * @return true if the condition is evaluated on a worker thread
+         */
+        public boolean isOffloaded() {
+            return this.offloaded;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d overruns, worst %.1f ms, average %.1f ms%s",
+                    this.condition.getClass().getName(),
+                    this.overrunCount,
+                    this.worstNanos / 1e6,
+                    getAverageOverrunNanos() / 1e6,
+                    this.offloaded ? ", offloaded" : "");
+        }
+    }
+
+    /**
+     * Class constructor that allows each condition a quarter of the frame budget and offloads it
+     * after three overruns.
+     */
+    public FrameBudgetWatchdog() {
+        this(DEFAULT_BUDGET_SHARE, DEFAULT_MAX_OVERRUNS);
+    }
+
+    /**
+     * Class constructor.
+     *
+     * @param budgetShare the share of the 16 ms frame budget a condition may take, greater than
+     *                    0 and at most 1
+     * @param maxOverruns the number of overruns after which a condition is offloaded, at least 1
+     */
+    public FrameBudgetWatchdog(double budgetShare, int maxOverruns) {
+        if (!(budgetShare > 0 && budgetShare <= 1)) {
+            throw new IllegalArgumentException("budgetShare must be greater than 0 and at most 1");
+        }
+        if (maxOverruns < 1) {
+            throw new IllegalArgumentException("maxOverruns must be at least 1");
+        }
+
+        this.budgetNanos = (long) (FRAME_NANOS * budgetShare);
+        this.maxOverruns = maxOverruns;
+    }
+
+    /**
+     * Sets the {@link Listener} notified when a condition is offloaded.
+     *
+     * @param listener the listener, or null to remove it
+     * @return this {@link FrameBudgetWatchdog} instance
+     */
+    public FrameBudgetWatchdog listener(Listener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Records an evaluation on the main UI thread.
+     *
+     * @param condition the condition that was evaluated
+     * @param elapsedNanos the time the evaluation took in nanoseconds
+     * @return true if the condition has just reached the maximum number of overruns and should
+     *         be offloaded, otherwise false
+     */
+    synchronized boolean record(Object condition, long elapsedNanos) {
+        if (elapsedNanos <= this.budgetNanos) {
+            return false;
+        }
+
+        Offender offender = this.offenders.get(condition);
+        if (offender == null) {
+            offender = new Offender(condition);
+            this.offenders.put(condition, offender);
+        }
+
+        offender.overrunCount++;
+        offender.totalNanos += elapsedNanos;
+        offender.worstNanos = Math.max(offender.worstNanos, elapsedNanos);
+
+        return offender.overrunCount == this.maxOverruns;
+    }
+
+    /**
+     * Marks a condition as offloaded and notifies the {@link Listener}. Called on the main UI
+     * thread by the {@link Criteria} that offloaded it.
+     *
+     * @param condition the condition that was offloaded
+     */
+    void offloaded(Object condition) {
+        Offender snapshot;
+
+        synchronized (this) {
+            Offender offender = this.offenders.get(condition);
+            if (offender == null) {
+                return;
+            }
+
+            offender.offloaded = true;
+            snapshot = new Offender(offender);
+        }
+
+        Listener listener = this.listener;
+        if (listener != null) {
+            listener.onOffloaded(snapshot);
+        }
+    }
+
+    /**
+     * Returns the conditions that overran the budget, the slowest first.
+     *
+     * @return a snapshot of the offenders
+     */
+    public List<Offender> getOffenders() {
+        List<Offender> snapshot = new ArrayList<>();
+
+        synchronized (this) {
+            for (Offender offender : this.offenders.values()) {
+                snapshot.add(new Offender(offender));
+            }
+        }
+
+        /* Java 8
+         *  => list.sort(Comparator<? super E> c)
+         *  => Lambda Expression
+         */
+        snapshot.sort((offender1, offender2) -> Long.compare(offender2.worstNanos, offender1.worstNanos));
+
+        return Collections.unmodifiableList(snapshot);
+    }
+
+    /**
+     * Returns a report of the conditions that overran the budget, one per line, the slowest
+     * first.
+     *
+     * @return the report, or an empty string if no condition has overrun the budget
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        for (Offender offender : getOffenders()) {
+            report.append(offender).append('\n');
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Returns the time each condition may take before it overruns the budget.
+     *
+     * @return the budget in nanoseconds
+     */
+    public long getBudgetNanos() {
+        return this.budgetNanos;
+    }
+
+    /**
+     * Returns the number of overruns after which a condition is offloaded.
+     *
+     * @return the maximum number of overruns
+     */
+    public int getMaxOverruns() {
+        return this.maxOverruns;
+    }
+}
@@ -0,0 +1,120 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * This class is a {@link Criteria.AsyncCondition} whose test returns a {@link CompletionStage},
+ * so an existing asynchronous API can be used as a condition without blocking a worker thread.
+ * <p>
+ * The function only starts the operation, so it is called on the thread that starts the
+ * evaluation instead of on a worker thread of the {@link Criteria}. The operation runs wherever
+ * the returned stage runs, for example on an {@link Executor} chosen via
+ * {@link #supplyAsync(Predicate, Executor)}, and its result completes the condition.
+ * <p>
+ * <pre>
+ * {@code
+ *  new Criteria<>(editText)
+ *      .asyncTest(new FutureAsyncCondition<>(view ->
+ *          userRepository.isAvailableAsync(view.getText().toString())));
+ * }
+ * </pre>
+ * <p>
+ * If the stage completes exceptionally, the condition fails. When the evaluation is superseded
+ * or cancelled, the stage is cancelled via {@link CompletableFuture#cancel(boolean)} if it
+ * supports it.
+ *
+ * @param <T> the type of view being validated
+ */
+public class FutureAsyncCondition<T> extends CancellableAsyncCondition<T> {
+    private final Function<? super T, ? extends CompletionStage<Boolean>> evaluation;
+
+    /**
+     * Class constructor specifying the function that starts the asynchronous operation.
+     *
+     * @param evaluation a function that starts the test and returns its eventual result
+     */
+    public FutureAsyncCondition(Function<? super T, ? extends CompletionStage<Boolean>> evaluation) {
+        this.evaluation = evaluation;
+    }
+
+    /**
+     * Returns a condition that runs a blocking test on the supplied {@link Executor}.
+     *
+     * @param test the test, which may block
+     * @param executor the {@link Executor} that runs the test
+     * @param <T> the type of view being validated
+     * @return the condition
+     */
+    public static <T> FutureAsyncCondition<T> supplyAsync(final Predicate<? super T> test, final Executor executor) {
+
+        /* Java 8
+         *  => CompletableFuture.supplyAsync(Supplier<U> supplier, Executor executor)
+         *  => Lambda Expression
+         */
+        return new FutureAsyncCondition<T>(view -> CompletableFuture.supplyAsync(() -> test.test(view), executor));
+    }
+
+    /**
+     * Starts the evaluation on the calling thread, since the function doesn't block. A hedged
+     * duplicate runs on the supplied {@link Executor}, rather than on the thread that times the
+     * hedge.
+     */
+    @Override
+    void start(Attempt attempt, T view, Executor executor) {
+
+        /* Java 8
+         *  => Method Reference
+         */
+        start(attempt, view, Runnable::run, executor);
+    }
+
+    /**
+     * Starts the asynchronous operation and completes this condition with its result. The
+     * operation is cancelled together with the evaluation.
+     *
+     * @param view the view being validated
+     * @param cancellationToken the token of this evaluation
+     */
+    @Override
+    protected final void evaluate(T view, CancellationToken cancellationToken) {
+        final Consumer<Boolean> completion = completion();
+        final CompletableFuture<Boolean> future = this.evaluation.apply(view).toCompletableFuture();
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        cancellationToken.onCancelled(() -> future.cancel(true));
+
+        /* Java 8
+         *  => CompletableFuture.whenComplete(BiConsumer<? super T, ? super Throwable> action)
+         *  => Lambda Expression
+         */
+        future.whenComplete((result, error) -> {
+            if (isCancellation(error)) {
+                return;
+            }
+
+            completion.accept(error == null && Boolean.TRUE.equals(result));
+        });
+    }
+
+    @Override
+    protected void onCancelled() {
+
+    }
+
+    private static boolean isCancellation(Throwable error) {
+        if (error instanceof CompletionException) {
+            error = error.getCause();
+        }
+
+        return error instanceof CancellationException;
+    }
+}
@@ -0,0 +1,166 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class decides when a slow {@link Criteria.AsyncCondition} evaluation should be hedged by
+ * starting a duplicate evaluation.
+ * <p>
+ * The latency of every evaluation is recorded in a rolling {@link LatencyHistogram}. Once enough
+ * samples have been recorded, an evaluation that is still running when it reaches the configured
+ * percentile is duplicated. The first result is used and the other evaluation is cancelled.
+ * <p>
+ * Hedging trades extra load for a shorter tail, so the number of duplicates is limited to a
+ * fraction of the evaluations. For example, hedging at the 95th percentile with a maximum extra
+ * load of 0.05 duplicates at most one evaluation in twenty.
+ * <p>
+ * <pre>
+ * {@code
+ *  new Criteria<>(editText)
+ *      .asyncTest(userNameAvailableCondition.hedge(new HedgingPolicy(0.95, 0.05)));
+ * }
+ * </pre>
+ * <p>
+ * A HedgingPolicy records the latencies of a single condition, so each condition should be
+ * given its own. This class is thread safe.
+ *
+ * @see Criteria.AsyncCondition#hedge(HedgingPolicy)
+ */
+public final class HedgingPolicy {
+    private static final int WINDOW_SIZE = 100;
+    private static final int MIN_SAMPLES = 20;
+
+    private final double percentile;
+    private final double maxExtraLoad;
+    private final int minSamples;
+    private final LatencyHistogram histogram;
+    private long evaluationCount = 0;
+    private long hedgeCount = 0;
+    private long hedgeWinCount = 0;
+
+    /**
+     * Class constructor specifying when to hedge and how much extra load is allowed.
+     *
+     * @param percentile the fraction of evaluations, between 0 and 1, expected to complete before
+     *                   a duplicate is started, for example 0.95
+     * @param maxExtraLoad the maximum number of duplicates as a fraction of the evaluations, for
+     *                     example 0.05
+     */
+    public HedgingPolicy(double percentile, double maxExtraLoad) {
+        this(percentile, maxExtraLoad, WINDOW_SIZE, MIN_SAMPLES);
+    }
+
+    /**
+     * Class constructor that also accepts the histogram window size and the number of samples
+     * required before hedging.
+     * <p>
+     * For testing.
+     */
+    HedgingPolicy(double percentile, double maxExtraLoad, int windowSize, int minSamples) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+
+        this.percentile = percentile;
+        this.maxExtraLoad = maxExtraLoad;
+        this.minSamples = minSamples;
+        this.histogram = new LatencyHistogram(windowSize);
+    }
+
+    /**
+     * Returns how long to wait for an evaluation before starting a duplicate.
+     *
+     * @return the delay in nanoseconds, or -1 if not enough latencies have been recorded
+     */
+    long getHedgeDelayNanos() {
+        if (this.histogram.getCount() < this.minSamples) {
+            return -1;
+        }
+
+        return this.histogram.getPercentileNanos(this.percentile);
+    }
+
+    /**
+     * Called when an evaluation is started.
+     */
+    synchronized void onEvaluationStarted() {
+        this.evaluationCount++;
+    }
+
+    /**
+     * Reserves a duplicate evaluation if the extra load allows it.
+     *
+     * @return true if a duplicate may be started, otherwise false
+     */
+    synchronized boolean tryHedge() {
+        if (this.hedgeCount + 1 > this.maxExtraLoad * this.evaluationCount) {
+            return false;
+        }
+
+        this.hedgeCount++;
+        return true;
+    }
+
+    /**
+     * Records the latency of a completed evaluation.
+     *
+     * @param latencyNanos the time from the start of the evaluation to its result
+     * @param hedgeWon true if the duplicate evaluation produced the result
+     */
+    void record(long latencyNanos, boolean hedgeWon) {
+        this.histogram.record(latencyNanos);
+
+        if (hedgeWon) {
+            synchronized (this) {
+                this.hedgeWinCount++;
+            }
+        }
+    }
+
+    /**
+     * Returns the histogram of recent latencies.
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getHistogram() {
+        return this.histogram;
+    }
+
+    /**
+     * Returns the current hedging delay in milliseconds.
+     *
+     * @return the delay, or -1 if not enough latencies have been recorded
+     */
+    public long getHedgeDelayMillis() {
+        long delayNanos = getHedgeDelayNanos();
+
+        return delayNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(delayNanos);
+    }
+
+    /**
+     * Returns the number of evaluations started.
+     *
+     * @return the number of evaluations
+     */
+    public synchronized long getEvaluationCount() {
+        return this.evaluationCount;
+    }
+
+    /**
+     * Returns the number of duplicate evaluations started.
+     *
+     * @return the number of hedges
+     */
+    public synchronized long getHedgeCount() {
+        return this.hedgeCount;
+    }
+
+    /**
+     * Returns the number of duplicate evaluations that produced the result.
+     *
+     * @return the number of hedges that won
+     */
+    public synchronized long getHedgeWinCount() {
+        return this.hedgeWinCount;
+    }
+}
@@ -0,0 +1,411 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * This class keeps the measurements of the validation engine in memory so they can be exported,
+ * for example to a dashboard.
+ * <p>
+ * Times are recorded in {@link LogLinearHistogram} objects, with each power of two divided into
+ * eight buckets. A percentile is therefore at most 12.5% higher than the actual
+ * value, however large the value, while each histogram has a fixed size. Recording doesn't
+ * lock.
+ * <p>
+ * The measurements of a condition are kept under its name rather than the condition itself,
+ * so a sink that outlives a screen doesn't keep its conditions, or the views they reference,
+ * alive. By default the name is the class name of the condition, so give conditions that
+ * should be told apart their own classes, or supply another naming function:
+ * <p>
+ * <pre>
+ * {@code
+ *  InMemoryValidationMetrics metrics = new InMemoryValidationMetrics(Object::toString);
+ *  validatorSet.metrics(metrics);
+ *  ...
+ *  upload(metrics.snapshot().toJson());
+ * }
+ * </pre>
+ * <p>
+ * This class is thread safe.
+ */
+public final class InMemoryValidationMetrics implements ValidationMetrics {
+    private final Function<Object, String> naming;
+    private final Map<String, ConditionMetrics> conditions = new ConcurrentHashMap<>();
+    private final Histogram queueWait = new Histogram();
+    private final Histogram validationTime = new Histogram();
+
+    /**
+     * The measurements of a single condition.
+     */
+    private static final class ConditionMetrics {
+        final Histogram latency = new Histogram();
+        final LongAdder passed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder cancelled = new LongAdder();
+    }
+
+    /**
+     * Class constructor that names each condition after its class.
+     */
+    public InMemoryValidationMetrics() {
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        this(condition -> condition.getClass().getName());
+    }
+
+    /**
+     * Class constructor specifying how conditions are named.
+     *
+     * @param naming returns the name a condition is reported under
+     */
+    public InMemoryValidationMetrics(Function<Object, String> naming) {
+        this.naming = naming;
+    }
+
+    @Override
+    public void onConditionEvaluated(Object condition, long elapsedNanos, boolean passed) {
+        ConditionMetrics metrics = metricsOf(condition);
+        metrics.latency.record(elapsedNanos);
+        (passed ? metrics.passed : metrics.failed).increment();
+    }
+
+    @Override
+    public void onConditionCancelled(Object asyncCondition) {
+        metricsOf(asyncCondition).cancelled.increment();
+    }
+
+    @Override
+    public void onResultDequeued(long waitNanos) {
+        this.queueWait.record(waitNanos);
+    }
+
+    @Override
+    public void onValidationComplete(Validator<?> validator, long elapsedNanos, Validator.ValidationResult validationResult) {
+        this.validationTime.record(elapsedNanos);
+    }
+
+    /**
+     * Returns a copy of the measurements recorded so far.
+     * <p>
+     * Measurements recorded while the copy is made may or may not be included.
+     *
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        Map<String, ConditionSnapshot> conditions = new TreeMap<>();
+
+        /* Java 8
+         *  => map.forEach(BiConsumer<? super K, ? super V> action)
+         *  => Lambda Expression
+         */
+        this.conditions.forEach((name, metrics) -> conditions.put(name, new ConditionSnapshot(
+                metrics.latency.snapshot(), metrics.passed.sum(), metrics.failed.sum(), metrics.cancelled.sum())));
+
+        return new Snapshot(conditions, this.queueWait.snapshot(), this.validationTime.snapshot());
+    }
+
+    /**
+     * Discards every measurement, for example after a snapshot has been exported.
+     */
+    public void reset() {
+        this.conditions.clear();
+        this.queueWait.reset();
+        this.validationTime.reset();
+    }
+
+    private ConditionMetrics metricsOf(Object condition) {
+        String name = this.naming.apply(condition);
+
+        // Look up first, computeIfAbsent locks even when the name is already there.
+        ConditionMetrics metrics = this.conditions.get(name);
+        if (metrics == null) {
+
+            /* Java 8
+             *  => map.computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction)
+             *  => Lambda Expression
+             */
+            metrics = this.conditions.computeIfAbsent(name, key -> new ConditionMetrics());
+        }
+
+        return metrics;
+    }
+
+    /**
+     * A histogram of times that can be recorded from any thread without locking.
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 3;
+
+        private final LogLinearHistogram counts = new LogLinearHistogram(SUB_BUCKET_BITS, TimeUnit.NANOSECONDS);
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * Records a time.
+         *
+         * @param nanos the time in nanoseconds
+         */
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+
+            this.counts.record(value);
+            this.sum.add(value);
+
+            long max;
+            while (value > (max = this.max.get()) && !this.max.compareAndSet(max, value)) {
+                // Another thread raised the maximum, compare again.
+            }
+        }
+
+        HistogramSnapshot snapshot() {
+            return new HistogramSnapshot(this.counts, this.counts.copyCounts(), this.sum.sum(), this.max.get());
+        }
+
+        void reset() {
+            this.counts.reset();
+            this.sum.reset();
+            this.max.set(0);
+        }
+    }
+
+    /**
+     * A copy of a histogram of times.
+     */
+    public static final class HistogramSnapshot {
+        private final LogLinearHistogram buckets;
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        HistogramSnapshot(LogLinearHistogram buckets, long[] counts, long sum, long max) {
+            long count = 0;
+            for (long bucketCount : counts) {
+                count += bucketCount;
+            }
+
+            this.buckets = buckets;
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Returns the number of times recorded.
+         *
+         * @return the number of times
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Returns the mean of the times recorded.
+         *
+         * @return the mean in nanoseconds, or 0 if nothing was recorded
+         */
+        public long getMeanNanos() {
+            return this.count == 0 ? 0 : this.sum / this.count;
+        }
+
+        /**
+         * Returns the longest time recorded.
+         *
+         * @return the time in nanoseconds, or 0 if nothing was recorded
+         */
+        public long getMaxNanos() {
+            return this.max;
+        }
+
+        /**
+         * Returns an estimate of the time below which the supplied fraction of the times fall.
+         *
+         * @param percentile a fraction between 0 and 1, for example 0.99
+         * @return the time in nanoseconds, or 0 if nothing was recorded
+         */
+        public long getPercentileNanos(double percentile) {
+            if (this.count == 0) {
+                return 0;
+            }
+
+            long target = Math.max(1, (long) Math.ceil(percentile * this.count));
+            long seen = 0;
+
+            for (int bucket = 0; bucket < this.counts.length; bucket++) {
+                seen += this.counts[bucket];
+
+                if (seen >= target) {
+                    return Math.min(this.buckets.upperBoundNanosOf(bucket), this.max);
+                }
+            }
+
+            return this.max;
+        }
+
+        void appendJson(StringBuilder json) {
+            json.append("{\"count\":").append(this.count)
+                    .append(",\"meanNanos\":").append(getMeanNanos())
+                    .append(",\"p50Nanos\":").append(getPercentileNanos(0.5))
+                    .append(",\"p90Nanos\":").append(getPercentileNanos(0.9))
+                    .append(",\"p99Nanos\":").append(getPercentileNanos(0.99))
+                    .append(",\"maxNanos\":").append(this.max)
+                    .append('}');
+        }
+    }
+
+    /**
+     * A copy of the measurements of a single condition.
+     */
+    public static final class ConditionSnapshot {
+        private final HistogramSnapshot latency;
+        private final long passedCount;
+        private final long failedCount;
+        private final long cancelledCount;
+
+        ConditionSnapshot(HistogramSnapshot latency, long passedCount, long failedCount, long cancelledCount) {
+            this.latency = latency;
+            this.passedCount = passedCount;
+            this.failedCount = failedCount;
+            this.cancelledCount = cancelledCount;
+        }
+
+        /**
+         * Returns the evaluation times of the condition.
+         *
+         * @return the histogram of evaluation times
+         */
+        public HistogramSnapshot getLatency() {
+            return this.latency;
+        }
+
+        /**
+         * Returns the number of evaluations that passed.
+         *
+         * @return the number of passes
+         */
+        public long getPassedCount() {
+            return this.passedCount;
+        }
+
+        /**
+         * Returns the number of evaluations that failed.
+         *
+         * @return the number of failures
+         */
+        public long getFailedCount() {
+            return this.failedCount;
+        }
+
+        /**
+         * Returns the number of times the condition was cancelled while it was running.
+         *
+         * @return the number of cancellations
+         */
+        public long getCancelledCount() {
+            return this.cancelledCount;
+        }
+    }
+
+    /**
+     * A copy of every measurement.
+     */
+    public static final class Snapshot {
+        private final Map<String, ConditionSnapshot> conditions;
+        private final HistogramSnapshot queueWait;
+        private final HistogramSnapshot validationTime;
+
+        Snapshot(Map<String, ConditionSnapshot> conditions, HistogramSnapshot queueWait, HistogramSnapshot validationTime) {
+            this.conditions = Collections.unmodifiableMap(conditions);
+            this.queueWait = queueWait;
+            this.validationTime = validationTime;
+        }
+
+        /**
+         * Returns the measurements of each condition, sorted by name.
+         *
+         * @return the measurements keyed by the name of the condition
+         */
+        public Map<String, ConditionSnapshot> getConditions() {
+            return this.conditions;
+        }
+
+        /**
+         * Returns the times results waited to be delivered to the main UI thread.
+         *
+         * @return the histogram of waiting times
+         */
+        public HistogramSnapshot getQueueWait() {
+            return this.queueWait;
+        }
+
+        /**
+         * Returns the times from {@link Validator#validate()} until every {@link Observer} was
+         * notified.
+         *
+         * @return the histogram of validation times
+         */
+        public HistogramSnapshot getValidationTime() {
+            return this.validationTime;
+        }
+
+        /**
+         * Returns the snapshot as a JSON object.
+         *
+         * @return the JSON text
+         */
+        public String toJson() {
+            StringBuilder json = new StringBuilder("{\"conditions\":{");
+
+            boolean first = true;
+            for (Map.Entry<String, ConditionSnapshot> entry : this.conditions.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+
+                ConditionSnapshot condition = entry.getValue();
+                appendString(json, entry.getKey());
+                json.append(":{\"passed\":").append(condition.passedCount)
+                        .append(",\"failed\":").append(condition.failedCount)
+                        .append(",\"cancelled\":").append(condition.cancelledCount)
+                        .append(",\"latency\":");
+                condition.latency.appendJson(json);
+                json.append('}');
+            }
+
+            json.append("},\"queueWait\":");
+            this.queueWait.appendJson(json);
+            json.append(",\"validationTime\":");
+            this.validationTime.appendJson(json);
+
+            return json.append('}').toString();
+        }
+
+        private static void appendString(StringBuilder json, String value) {
+            json.append('"');
+
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+
+            json.append('"');
+        }
+    }
+}
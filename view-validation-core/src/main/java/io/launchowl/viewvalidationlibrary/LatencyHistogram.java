@@ -0,0 +1,98 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class records latencies in logarithmic buckets so percentiles can be estimated without
+ * keeping every sample.
+ * <p>
+ * Latencies are counted in microseconds in a {@link LogLinearHistogram} with each power of two
+ * divided into four buckets, so an estimate is at most 25% higher than the actual value. Only
+ * recent samples are kept: once the current window is full it replaces the previous window, so
+ * the histogram follows changes in latency.
+ * <p>
+ * This class is thread safe.
+ *
+ * @see HedgingPolicy
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private final int windowSize;
+    private LogLinearHistogram current = new LogLinearHistogram(SUB_BUCKET_BITS, TimeUnit.MICROSECONDS);
+    private LogLinearHistogram previous = new LogLinearHistogram(SUB_BUCKET_BITS, TimeUnit.MICROSECONDS);
+    private int currentCount = 0;
+    private int previousCount = 0;
+
+    /**
+     * Class constructor specifying the number of samples in each window.
+     *
+     * @param windowSize the number of samples after which a new window is started
+     */
+    public LatencyHistogram(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be greater than 0");
+        }
+
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param latencyNanos the latency in nanoseconds
+     */
+    public synchronized void record(long latencyNanos) {
+        if (this.currentCount == this.windowSize) {
+            LogLinearHistogram recycled = this.previous;
+            recycled.reset();
+
+            this.previous = this.current;
+            this.previousCount = this.currentCount;
+            this.current = recycled;
+            this.currentCount = 0;
+        }
+
+        this.current.record(latencyNanos);
+        this.currentCount++;
+    }
+
+    /**
+     * Returns an estimate of the latency below which the supplied fraction of the recent
+     * samples fall.
+     *
+     * @param percentile a fraction between 0 and 1, for example 0.95
+     * @return the latency in nanoseconds, or -1 if nothing has been recorded
+     */
+    public synchronized long getPercentileNanos(double percentile) {
+        int count = this.currentCount + this.previousCount;
+
+        if (count == 0) {
+            return -1;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+
+        int buckets = this.current.getBucketCount();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            seen += this.current.getCount(bucket) + this.previous.getCount(bucket);
+
+            if (seen >= target) {
+                return this.current.upperBoundNanosOf(bucket);
+            }
+        }
+
+        return this.current.upperBoundNanosOf(buckets - 1);
+    }
+
+    /**
+     * Returns the number of samples in the current and previous windows.
+     *
+     * @return the number of recent samples
+     */
+    public synchronized int getCount() {
+        return this.currentCount + this.previousCount;
+    }
+
+}
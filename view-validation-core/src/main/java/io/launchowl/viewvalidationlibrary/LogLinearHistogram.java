@@ -0,0 +1,134 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class counts times in logarithmic buckets, like an HDR histogram, so percentiles can be
+ * estimated without keeping every sample.
+ * <p>
+ * Times are counted in a unit, such as microseconds. Each power of two is divided into
+ * {@code 2^subBucketBits} linear sub-buckets, so the upper bound of a bucket is at most
+ * {@code 1 / 2^subBucketBits} higher than any time it holds, however large the time, while the
+ * histogram has a fixed size. Times below {@code 2^subBucketBits} units have a bucket each.
+ * <p>
+ * Recording doesn't lock. This class is thread safe.
+ *
+ * @see LatencyHistogram
+ * @see InMemoryValidationMetrics
+ */
+final class LogLinearHistogram {
+    private final int subBucketBits;
+    private final int subBuckets;
+    private final TimeUnit unit;
+    private final AtomicLongArray counts;
+
+    /**
+     * Class constructor specifying the precision and the unit of the buckets.
+     *
+     * @param subBucketBits the number of bits that divide each power of two
+     * @param unit the unit times are counted in
+     */
+    LogLinearHistogram(int subBucketBits, TimeUnit unit) {
+        this.subBucketBits = subBucketBits;
+        this.subBuckets = 1 << subBucketBits;
+        this.unit = unit;
+        this.counts = new AtomicLongArray((64 - subBucketBits) * this.subBuckets);
+    }
+
+    /**
+     * Counts a time.
+     *
+     * @param nanos the time in nanoseconds
+     */
+    void record(long nanos) {
+        this.counts.incrementAndGet(bucketOf(this.unit.convert(Math.max(0, nanos), TimeUnit.NANOSECONDS)));
+    }
+
+    /**
+     * Returns the number of buckets.
+     *
+     * @return the number of buckets
+     */
+    int getBucketCount() {
+        return this.counts.length();
+    }
+
+    /**
+     * Returns the number of times counted in a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the number of times
+     */
+    long getCount(int bucket) {
+        return this.counts.get(bucket);
+    }
+
+    /**
+     * Returns a copy of the count of every bucket.
+     *
+     * @return the counts, indexed by bucket
+     */
+    long[] copyCounts() {
+        long[] counts = new long[this.counts.length()];
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            counts[bucket] = this.counts.get(bucket);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Clears every bucket.
+     */
+    void reset() {
+        for (int bucket = 0; bucket < this.counts.length(); bucket++) {
+            this.counts.set(bucket, 0);
+        }
+    }
+
+    /**
+     * Returns the highest time held by a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the time in nanoseconds
+     */
+    long upperBoundNanosOf(int bucket) {
+        return this.unit.toNanos(upperBoundOf(bucket));
+    }
+
+    /**
+     * Returns the bucket that holds a value.
+     *
+     * @param value a value of at least 0, in the unit of the histogram
+     * @return the index of the bucket
+     */
+    int bucketOf(long value) {
+        if (value < this.subBuckets) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - this.subBucketBits)) & (this.subBuckets - 1);
+
+        return (exponent - this.subBucketBits + 1) * this.subBuckets + subBucket;
+    }
+
+    /**
+     * Returns the highest value held by a bucket.
+     *
+     * @param bucket the index of the bucket
+     * @return the value, in the unit of the histogram
+     */
+    long upperBoundOf(int bucket) {
+        if (bucket < this.subBuckets) {
+            return bucket;
+        }
+
+        int exponent = bucket / this.subBuckets + this.subBucketBits - 1;
+        int subBucket = bucket % this.subBuckets;
+
+        // The last bucket ends at 2^63, which wraps to Long.MAX_VALUE once 1 is subtracted.
+        return ((this.subBuckets + subBucket + 1L) << (exponent - this.subBucketBits)) - 1;
+    }
+}
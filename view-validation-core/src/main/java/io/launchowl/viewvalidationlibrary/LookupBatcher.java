@@ -0,0 +1,309 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This class combines the lookups of many conditions into one bulk lookup.
+ * <p>
+ * Each {@link BatchingAsyncCondition} that is evaluated adds its key to the current batch. A
+ * batch is sent once its window has passed since the first key was added, or as soon as it
+ * holds the maximum number of distinct keys. The bulk lookup runs on a worker thread and its
+ * response completes every condition that is waiting for one of the keys. Conditions of any
+ * {@link Criteria} can share a batcher, so a form that checks the availability of a username,
+ * an email address and a phone number makes one backend call per validation pass:
+ * <p>
+ * <pre>
+ * {@code
+ *  LookupBatcher<String> availability = new LookupBatcher<>(
+ *      (keys, cancellationToken) -> accountService.findTaken(keys, cancellationToken), 20, 50);
+ *
+ *  new Criteria<>(userNameEditText)
+ *      .asyncTest(new BatchingAsyncCondition<>(view -> "user:" + view.getText(), availability));
+ *  new Criteria<>(emailEditText)
+ *      .asyncTest(new BatchingAsyncCondition<>(view -> "email:" + view.getText(), availability));
+ * }
+ * </pre>
+ * <p>
+ * A key that several conditions wait for is only looked up once. A condition that is cancelled
+ * before its batch is sent is removed from the batch, and the {@link CancellationToken} of a
+ * bulk lookup is cancelled once no condition waits for its response anymore.
+ * <p>
+ * This class is thread safe.
+ *
+ * @param <K> the type of the keys
+ *
+ * @see BatchingAsyncCondition
+ */
+public final class LookupBatcher<K> {
+    private final BulkLookup<K> bulkLookup;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Executor executor;
+    private Batch pending;
+    private long batchCount = 0;
+    private long requestCount = 0;
+
+    /**
+     * A bulk lookup, such as a single call to a backend that checks many keys at once.
+     *
+     * @param <K> the type of the keys
+     */
+    public interface BulkLookup<K> {
+
+        /**
+         * Looks up the results of several keys. Called on a worker thread.
+         * <p>
+         * A key that is missing from the returned map fails. If the lookup throws, every
+         * condition waiting for it fails.
+         *
+         * @param keys the distinct keys of the batch
+         * @param cancellationToken cancelled once no condition waits for the response
+         * @return the result of each key, true if the test passed
+         * @throws Exception if the lookup failed
+         */
+        Map<K, Boolean> lookup(Set<K> keys, CancellationToken cancellationToken) throws Exception;
+    }
+
+    /**
+     * The keys collected during one window and the conditions waiting for them.
+     */
+    private final class Batch {
+        final Map<K, List<Request>> requests = new LinkedHashMap<>();
+        final CancellationToken cancellationToken = new CancellationToken();
+        ScheduledFuture<?> timer;
+        int waiting = 0;
+        boolean sent = false;
+    }
+
+    /**
+     * A condition waiting for the result of a key.
+     */
+    final class Request {
+        final K key;
+        final Consumer<Boolean> completion;
+        final Batch batch;
+
+        // True once the request has been completed or cancelled.
+        boolean finished = false;
+
+        Request(K key, Consumer<Boolean> completion, Batch batch) {
+            this.key = key;
+            this.completion = completion;
+            this.batch = batch;
+        }
+    }
+
+    /**
+     * Class constructor specifying the bulk lookup and when a batch is sent. The lookups run on
+     * {@link ValidationExecutors#getDefaultExecutor()}.
+     *
+     * @param bulkLookup the bulk lookup
+     * @param windowMillis the time a batch collects keys, in milliseconds
+     * @param maxBatchSize the number of distinct keys that sends a batch right away
+     */
+    public LookupBatcher(BulkLookup<K> bulkLookup, long windowMillis, int maxBatchSize) {
+        this(bulkLookup, windowMillis, maxBatchSize, null);
+    }
+
+    /**
+     * Class constructor specifying the bulk lookup, when a batch is sent and where the lookups
+     * run.
+     *
+     * @param bulkLookup the bulk lookup
+     * @param windowMillis the time a batch collects keys, in milliseconds
+     * @param maxBatchSize the number of distinct keys that sends a batch right away
+     * @param executor the {@link Executor} that runs the lookups, or null to use
+     *                 {@link ValidationExecutors#getDefaultExecutor()}
+     */
+    public LookupBatcher(BulkLookup<K> bulkLookup, long windowMillis, int maxBatchSize, Executor executor) {
+        if (windowMillis < 0 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("The window can't be negative and a batch must hold at least one key.");
+        }
+
+        this.bulkLookup = bulkLookup;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+    }
+
+    /**
+     * Adds a key to the current batch.
+     *
+     * @param key the key to look up
+     * @param completion receives the result of the key on a worker thread
+     * @return the request, which can be removed via {@link #cancel(Request)}
+     */
+    Request add(K key, Consumer<Boolean> completion) {
+        Batch full = null;
+        Request request;
+
+        synchronized (this) {
+            Batch batch = this.pending;
+            if (batch == null) {
+                batch = new Batch();
+                this.pending = batch;
+            }
+
+            request = new Request(key, completion, batch);
+
+            /* Java 8
+             *  => map.computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction)
+             *  => Lambda Expression
+             */
+            batch.requests.computeIfAbsent(key, k -> new ArrayList<>()).add(request);
+            batch.waiting++;
+            this.requestCount++;
+
+            if (batch.requests.size() >= this.maxBatchSize) {
+                full = batch;
+                this.pending = null;
+            } else if (batch.timer == null) {
+
+                // A full batch is sent right away, so only a batch that waits is timed.
+                final Batch scheduled = batch;
+
+                /* Java 8
+                 *  => Lambda Expression
+                 */
+                batch.timer = ValidationExecutors.getDeadlineScheduler()
+                        .schedule(() -> send(scheduled), this.windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        if (full != null) {
+            if (full.timer != null) {
+                full.timer.cancel(false);
+            }
+            send(full);
+        }
+
+        return request;
+    }
+
+    /**
+     * Removes a request that is no longer needed. If its batch has been sent and no other
+     * request waits for it, the {@link CancellationToken} of the bulk lookup is cancelled.
+     *
+     * @param request the request to remove
+     */
+    void cancel(Request request) {
+        Batch batch = request.batch;
+
+        synchronized (this) {
+            if (request.finished) {
+                return;
+            }
+            request.finished = true;
+            batch.waiting--;
+
+            // A key nobody waits for anymore isn't looked up.
+            if (!batch.sent) {
+                List<Request> requests = batch.requests.get(request.key);
+                requests.remove(request);
+                if (requests.isEmpty()) {
+                    batch.requests.remove(request.key);
+                }
+                return;
+            }
+
+            if (batch.waiting > 0) {
+                return;
+            }
+        }
+
+        batch.cancellationToken.cancel();
+    }
+
+    /**
+     * Sends a batch, unless it has already been sent or nobody waits for it anymore.
+     */
+    private void send(final Batch batch) {
+        final Set<K> keys;
+
+        synchronized (this) {
+            if (batch.sent) {
+                return;
+            }
+            batch.sent = true;
+
+            if (this.pending == batch) {
+                this.pending = null;
+            }
+            if (batch.requests.isEmpty()) {
+                return;
+            }
+
+            keys = Collections.unmodifiableSet(new LinkedHashSet<>(batch.requests.keySet()));
+            this.batchCount++;
+        }
+
+        Executor executor = this.executor != null ? this.executor : ValidationExecutors.getDefaultExecutor();
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        executor.execute(() -> lookup(batch, keys));
+    }
+
+    /**
+     * Performs the bulk lookup of a batch and completes every request that still waits for it.
+     */
+    private void lookup(Batch batch, Set<K> keys) {
+        Map<K, Boolean> results;
+        try {
+            results = this.bulkLookup.lookup(keys, batch.cancellationToken);
+        } catch (Exception e) {
+            results = Collections.emptyMap();
+        }
+
+        if (batch.cancellationToken.isCancelled()) {
+            return;
+        }
+
+        List<Request> waiting = new ArrayList<>();
+        synchronized (this) {
+            for (List<Request> requests : batch.requests.values()) {
+                for (Request request : requests) {
+                    if (!request.finished) {
+                        request.finished = true;
+                        waiting.add(request);
+                    }
+                }
+            }
+            batch.waiting = 0;
+        }
+
+        for (Request request : waiting) {
+            request.completion.accept(Boolean.TRUE.equals(results.get(request.key)));
+        }
+    }
+
+    /**
+     * Returns the number of bulk lookups that were performed.
+     *
+     * @return the number of bulk lookups
+     */
+    public synchronized long getBatchCount() {
+        return this.batchCount;
+    }
+
+    /**
+     * Returns the number of keys that were added by conditions, including keys that were
+     * shared or cancelled.
+     *
+     * @return the number of requests
+     */
+    public synchronized long getRequestCount() {
+        return this.requestCount;
+    }
+}
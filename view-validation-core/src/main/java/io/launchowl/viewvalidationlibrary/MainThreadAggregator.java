@@ -0,0 +1,53 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * This class combines the results of a round on the main UI thread, see
+ * {@link Criteria.Aggregation#MainThread}.
+ * <p>
+ * This class is not thread safe. Every result is delivered to the main UI thread before it is
+ * added.
+ */
+final class MainThreadAggregator implements RoundAggregator {
+    private int generation;
+    private int expected;
+    private int complete;
+    private Validator.ValidationResult result;
+    private boolean decided = true;
+
+    @Override
+    public void begin(int generation, int expected) {
+        this.generation = generation;
+        this.expected = expected;
+        this.complete = 0;
+        this.result = Validator.ValidationResult.Valid;
+        this.decided = false;
+    }
+
+    @Override
+    public Decision add(int generation, Validator.ValidationResult result, boolean decideEarly) {
+        if (generation != this.generation || this.decided) {
+            return Decision.STALE;
+        }
+
+        this.complete++;
+
+        // Nothing replaces Invalid, and Unknown only replaces Valid.
+        if (result == Validator.ValidationResult.Invalid
+                || (result == Validator.ValidationResult.Unknown && this.result == Validator.ValidationResult.Valid)) {
+            this.result = result;
+        }
+
+        boolean early = this.complete < this.expected;
+        if (early && !(decideEarly && result == Validator.ValidationResult.Invalid)) {
+            return Decision.PENDING;
+        }
+
+        this.decided = true;
+        return new Decision(this.result, early);
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return false;
+    }
+}
@@ -0,0 +1,201 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class delivers the results of {@link Criteria.AsyncCondition} objects to the main UI
+ * thread.
+ * <p>
+ * Results are added to a lock-free queue by the worker threads. The queue is drained on the main
+ * UI thread once per frame, so results that arrive close together are delivered to their
+ * {@link Criteria} in a single pass, in the order they were added.
+ * <p>
+ * A {@link Criteria} that aggregates its results on the worker threads, see
+ * {@link Criteria.Aggregation#Concurrent}, only dispatches its final result.
+ * <p>
+ * A single dispatcher is shared by every {@link Criteria.AsyncCondition}, see
+ * {@link #getInstance()}. Nothing is created on the main UI thread until the first result is
+ * dispatched.
+ * <p>
+ * The thread that receives the results is provided by a {@link FrameScheduler}, which is
+ * looked up via {@link ServiceLoader}. The Android library registers one that drains the queue
+ * at the start of each frame. Without a registered {@link FrameScheduler}, for example in a plain
+ * JVM, the results are delivered on a single daemon thread named "ViewValidation Results", and
+ * validations should be started on that thread too, via {@link #post(Runnable)}.
+ * <p>
+ * To learn about communicating with the UI thread, see "Communicating with the UI Thread":
+ * https://developer.android.com/training/multiple-threads/communicate-ui.html
+ */
+public final class MainThreadDispatcher {
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicLong dispatchedCount = new AtomicLong();
+    private final AtomicLong drainCount = new AtomicLong();
+    private final FrameScheduler frameScheduler;
+
+    /* Java 8
+     *  => Method Reference
+     */
+    private final Runnable drainTask = this::drain;
+
+    /**
+     * Schedules a task to run on the main UI thread.
+     * <p>
+     * Implementations registered as a service in
+     * {@code META-INF/services/io.launchowl.viewvalidationlibrary.MainThreadDispatcher$FrameScheduler}
+     * must have a public no-argument constructor.
+     */
+    public interface FrameScheduler {
+
+        /**
+         * Runs the task on the main UI thread, for example at the start of the next frame.
+         * <p>
+         * May be called from any thread.
+         *
+         * @param task the task to run
+         */
+        void scheduleFrame(Runnable task);
+    }
+
+    /**
+     * Runs tasks on a single daemon thread, which acts as the main UI thread outside Android.
+     */
+    private static class SingleThreadFrameScheduler implements FrameScheduler {
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        private final Executor thread = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ViewValidation Results");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        @Override
+        public void scheduleFrame(Runnable task) {
+            this.thread.execute(task);
+        }
+    }
+
+    /**
+     * Holds the shared dispatcher so it is only created the first time it is needed.
+     */
+    private static class Shared {
+        static final MainThreadDispatcher INSTANCE = new MainThreadDispatcher(loadFrameScheduler());
+
+        /**
+         * Returns the first registered {@link FrameScheduler}, or a single thread if there is
+         * none.
+         */
+        private static FrameScheduler loadFrameScheduler() {
+            Iterator<FrameScheduler> frameSchedulers =
+                    ServiceLoader.load(FrameScheduler.class, MainThreadDispatcher.class.getClassLoader()).iterator();
+
+            return frameSchedulers.hasNext() ? frameSchedulers.next() : new SingleThreadFrameScheduler();
+        }
+    }
+
+    /**
+     * Class constructor specifying how the queue is drained on the main UI thread.
+     * <p>
+     * For testing.
+     */
+    MainThreadDispatcher(FrameScheduler frameScheduler) {
+        this.frameScheduler = frameScheduler;
+    }
+
+    /**
+     * Returns the dispatcher shared by every {@link Criteria.AsyncCondition}.
+     *
+     * @return the shared dispatcher
+     */
+    public static MainThreadDispatcher getInstance() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Adds a result to the queue and makes sure the queue will be drained.
+     * <p>
+     * May be called from any thread.
+     *
+     * @param result the task that delivers the result, for example an
+     *               {@link Criteria.AsyncCondition.Attempt} whose result is ready
+     */
+    void dispatch(Runnable result) {
+        this.pending.offer(result);
+        this.dispatchedCount.incrementAndGet();
+
+        if (this.drainScheduled.compareAndSet(false, true)) {
+            this.frameScheduler.scheduleFrame(this.drainTask);
+        }
+    }
+
+    /**
+     * Runs a task on the main UI thread after the results that are already queued.
+     * <p>
+     * May be called from any thread.
+     *
+     * @param task the task to run
+     */
+    public void post(Runnable task) {
+        dispatch(task);
+    }
+
+    /**
+     * Delivers every queued result to its {@link Criteria}. Called on the main UI thread.
+     */
+    void drain() {
+
+        // Results added from now on schedule another pass rather than waiting for this one.
+        this.drainScheduled.set(false);
+        this.drainCount.incrementAndGet();
+
+        Runnable result;
+        try {
+            while ((result = this.pending.poll()) != null) {
+                result.run();
+            }
+        } finally {
+
+            // If a result threw, the ones behind it are delivered by another pass.
+            if (!this.pending.isEmpty() && this.drainScheduled.compareAndSet(false, true)) {
+                this.frameScheduler.scheduleFrame(this.drainTask);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of results dispatched.
+     *
+     * @return the number of results
+     */
+    public long getDispatchedCount() {
+        return this.dispatchedCount.get();
+    }
+
+    /**
+     * Returns the number of passes made on the main UI thread to deliver the results.
+     *
+     * @return the number of passes
+     */
+    public long getDrainCount() {
+        return this.drainCount.get();
+    }
+
+    /**
+     * Returns the number of results waiting to be delivered.
+     *
+     * @return the number of waiting results
+     */
+    public int getPendingCount() {
+        return this.pending.size();
+    }
+}
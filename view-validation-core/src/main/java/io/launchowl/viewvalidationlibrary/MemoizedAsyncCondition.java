@@ -0,0 +1,133 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.function.Function;
+
+/**
+ * This class remembers the results of a {@link Criteria.AsyncCondition} so the asynchronous
+ * operation isn't repeated for an input it has already seen, for example when a user types,
+ * deletes and retypes the same username.
+ * <p>
+ * The key is read from the view on the main UI thread when the {@link Criteria} is evaluated.
+ * When a result is cached for the key, the condition completes immediately, without using a
+ * worker thread or posting to the main UI thread. Otherwise the wrapped condition is evaluated
+ * and its result is stored under the key it was started with.
+ * <p>
+ * <pre>
+ * {@code
+ *  new Criteria<>(editText)
+ *      .asyncTest(new MemoizedAsyncCondition<>(
+ *          userNameAvailableCondition,
+ *          view -> view.getText().toString(),
+ *          new ResultCache<>(50, 60000, 10000)));
+ * }
+ * </pre>
+ * <p>
+ * Results can also be kept on disk, so they are available after the app restarts, by
+ * supplying a {@link PersistentResultStore} via {@link #persist(PersistentResultStore, String, Function)}.
+ *
+ * @param <T> the type of view being validated
+ * @param <K> the type of the input snapshot used as the cache key
+ *
+ * @see MemoizedCondition
+ */
+public class MemoizedAsyncCondition<T, K> extends CancellableAsyncCondition<T> {
+    private final Criteria.AsyncCondition<T> asyncCondition;
+    private final Function<? super T, ? extends K> key;
+    private final ResultCache<K> cache;
+    private PersistentResultStore store;
+    private String conditionId;
+    private Function<? super K, String> keyCodec;
+
+    /**
+     * Class constructor specifying the asynchronous condition to memoize.
+     *
+     * @param asyncCondition the {@link Criteria.AsyncCondition} to memoize
+     * @param key a function that returns a snapshot of the input from the view
+     * @param cache the {@link ResultCache} that stores the results
+     */
+    public MemoizedAsyncCondition(Criteria.AsyncCondition<T> asyncCondition, Function<? super T, ? extends K> key, ResultCache<K> cache) {
+        this.asyncCondition = asyncCondition;
+        this.key = key;
+        this.cache = cache;
+
+        asyncCondition.wrapWith(this);
+    }
+
+    /**
+     * Evaluates the wrapped condition. Only called when the result isn't cached.
+     *
+     * @param view the view being validated
+     * @param cancellationToken the token of this evaluation
+     */
+    @Override
+    protected void evaluate(T view, CancellationToken cancellationToken) {
+        this.asyncCondition.evaluateCancellable(view, cancellationToken);
+    }
+
+    @Override
+    protected void onCancelled() {
+        this.asyncCondition.onCancelled();
+    }
+
+    /**
+     * Keeps the results in a {@link PersistentResultStore} as well as in the {@link ResultCache}.
+     * <p>
+     * Results found in the store are copied into the cache. The store hashes the key as a
+     * string, so the key codec must return the same string for equal keys in every process;
+     * an identity {@code toString()} doesn't. The strings themselves aren't stored: a result is
+     * matched by two independent hashes, so a different key only reuses it if both collide.
+     *
+     * @param store the store that keeps the results on disk
+     * @param conditionId an id that is unique to this condition within the store and doesn't
+     *                    change between app launches
+     * @param keyCodec a function that converts a cache key into the string it is stored under
+     * @return this {@link MemoizedAsyncCondition} instance
+     */
+    public MemoizedAsyncCondition<T, K> persist(PersistentResultStore store, String conditionId, Function<? super K, String> keyCodec) {
+        this.store = store;
+        this.conditionId = conditionId;
+        this.keyCodec = keyCodec;
+        return this;
+    }
+
+    /**
+     * Returns the {@link ResultCache} that stores the results.
+     *
+     * @return the cache
+     */
+    public ResultCache<K> getCache() {
+        return this.cache;
+    }
+
+    @Override
+    Object snapshot(T view) {
+        return this.key.apply(view);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    Boolean lookup(Object snapshot) {
+        Boolean result = this.cache.get((K) snapshot);
+
+        // The store never reads from disk here; it only answers once it has been loaded.
+        if (result == null && this.store != null) {
+            result = this.store.get(this.conditionId, this.keyCodec.apply((K) snapshot));
+
+            if (result != null) {
+                this.cache.put((K) snapshot, result);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void onResult(Object snapshot, boolean result) {
+        this.cache.put((K) snapshot, result);
+
+        if (this.store != null) {
+            this.store.put(this.conditionId, this.keyCodec.apply((K) snapshot), result);
+        }
+    }
+}
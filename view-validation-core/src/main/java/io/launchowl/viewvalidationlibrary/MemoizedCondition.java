@@ -0,0 +1,73 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.function.Function;
+
+/**
+ * This class remembers the results of a {@link Criteria.Condition} so it isn't evaluated again
+ * for an input it has already seen.
+ * <p>
+ * <pre>
+ * {@code
+ *  new Criteria<>(editText)
+ *      .test(new MemoizedCondition<>(
+ *          view -> Pattern.matches("^[a-zA-Z0-9]*$", view.getText().toString()),
+ *          view -> view.getText().toString(),
+ *          new ResultCache<>(50, 60000, 60000)));
+ * }
+ * </pre>
+ * <p>
+ * Only conditions whose result depends solely on the key should be memoized.
+ *
+ * @param <T> the type of view being validated
+ * @param <K> the type of the input snapshot used as the cache key
+ *
+ * @see MemoizedAsyncCondition
+ */
+public class MemoizedCondition<T, K> implements Criteria.Condition<T> {
+    private final Criteria.Condition<T> condition;
+    private final Function<? super T, ? extends K> key;
+    private final ResultCache<K> cache;
+
+    /**
+     * Class constructor specifying the condition to memoize.
+     *
+     * @param condition the {@link Criteria.Condition} to memoize
+     * @param key a function that returns a snapshot of the input from the view
+     * @param cache the {@link ResultCache} that stores the results
+     */
+    public MemoizedCondition(Criteria.Condition<T> condition, Function<? super T, ? extends K> key, ResultCache<K> cache) {
+        this.condition = condition;
+        this.key = key;
+        this.cache = cache;
+    }
+
+    /**
+     * Returns the cached result for the view's input or evaluates the wrapped condition.
+     *
+     * @param view the view being validated
+     * @return true or false depending on whether the test passed
+     */
+    @Override
+    public boolean evaluate(T view) {
+        K snapshot = this.key.apply(view);
+        Boolean cachedResult = this.cache.get(snapshot);
+
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+
+        boolean result = this.condition.evaluate(view);
+        this.cache.put(snapshot, result);
+
+        return result;
+    }
+
+    /**
+     * Returns the {@link ResultCache} that stores the results.
+     *
+     * @return the cache
+     */
+    public ResultCache<K> getCache() {
+        return this.cache;
+    }
+}
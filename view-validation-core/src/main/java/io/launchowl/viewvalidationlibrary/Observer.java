@@ -1,29 +1,27 @@
 package io.launchowl.viewvalidationlibrary;
 
-import android.view.View;
-
 /**
- * This abstract class is used to observe if a {@link View} is valid.
+ * This abstract class is used to observe if a view is valid.
  * <p>
  * Observers are added to {@link Validator} instances and are notified after
  * all conditions of a {@link Criteria} object are tested via the {@link Validator#validate()}
  * method.
  *
- * @param <T> the type of {@link View} that needs to respond to the state of the observed view
+ * @param <T> the type of view that needs to respond to the state of the observed view
  *
  * @see Validator
  * @see Criteria
  * @see io.launchowl.viewvalidationlibrary.Criteria.AsyncCondition
  * @see io.launchowl.viewvalidationlibrary.Criteria.Condition
  */
-public abstract class Observer<T extends View> {
+public abstract class Observer<T> {
     private final T observerView;
 
     /**
      * Class constructor that is supplied with the view that will be udpated based on the
      * validity of the observed view.
      *
-     * @param observerView the {@link View} that will be updated based on the observed view
+     * @param observerView the view that will be updated based on the observed view
      */
     public Observer(T observerView) {
         this.observerView = observerView;
@@ -32,7 +30,7 @@ public abstract class Observer<T extends View> {
     /**
      * Notifies the observer of the observee view's validity.
      * <p>
-     * This method calls {@link #onValidationComplete(View, Validator.ValidationResult)}.
+     * This method calls {@link #onValidationComplete(Object, Validator.ValidationResult)}.
      *
      * @param validationResult the state of the view being validated
      */
@@ -41,9 +39,9 @@ public abstract class Observer<T extends View> {
     }
 
     /**
-     * Returns the {@link View} supplied to the {@link #Observer(View)} constructor.
+     * Returns the view supplied to the {@link #Observer(Object)} constructor.
      *
-     * @return the {@link View} supplied to the {@link #Observer(View)} constructor
+     * @return the view supplied to the {@link #Observer(Object)} constructor
      */
     T getView() {
         return this.observerView;
@@ -54,7 +52,7 @@ public abstract class Observer<T extends View> {
      * of the view being observed.
      * <p>
      * <pre>
-     * // Assuming the <i>view</i> is a {@link android.widget.Button}
+     * // Assuming the <i>view</i> is a {@code Button}
      * {@code
      *
      *  protected void onValidationComplete(Button view, Validator.ValidationResult validationResult) {
@@ -63,7 +61,7 @@ public abstract class Observer<T extends View> {
      * }
      * </pre>
      *
-     * @param view the {@link View} supplied to the {@link #Observer(View)} constructor
+     * @param view the view supplied to the {@link #Observer(Object)} constructor
      * @param validationResult the state of the view being validated
      */
     protected abstract void onValidationComplete(T view, Validator.ValidationResult validationResult);
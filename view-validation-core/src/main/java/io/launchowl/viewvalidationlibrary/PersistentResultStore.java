@@ -0,0 +1,384 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * This class keeps the results of asynchronous conditions on disk so they survive the
+ * {@code Activity} or the process being restarted.
+ * <p>
+ * Results are keyed by a condition id and a hash of the input, and expire after a
+ * time-to-live (separate for passing and failing results). The input is a string, so the hash
+ * is the same in every process; the store is attached to a {@link MemoizedAsyncCondition} via
+ * {@link MemoizedAsyncCondition#persist(PersistentResultStore, String, java.util.function.Function)},
+ * which converts its cache keys into strings.
+ * <p>
+ * The inputs themselves aren't stored. Each result is found by a 64-bit hash and verified by a
+ * second, independent 32-bit hash; a result whose second hash doesn't match is a miss. Another
+ * input's result is only returned if both hashes collide, which is about one chance in 2^96.
+ * <p>
+ * The file is an append-only log of fixed-size records. It is read in the background the first
+ * time the store is used (or when {@link #preload()} is called); until then lookups simply
+ * miss, so the main UI thread never waits for disk I/O. Writes are also performed in the
+ * background, on {@link ValidationExecutors#getIoExecutor()}; results put while a write is
+ * pending are appended together. When most of the records in the file have been superseded or
+ * have expired, the file is compacted.
+ * <p>
+ * This class is thread safe.
+ */
+public class PersistentResultStore {
+    private static final int MAGIC = 0x56564331;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 21;
+    private static final int COMPACT_MIN_RECORDS = 256;
+
+    private static final int NOT_LOADED = 0;
+    private static final int LOADING = 1;
+    private static final int LOADED = 2;
+
+    private final File file;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Executor ioExecutor;
+    private final LongSupplier clock;
+    private final Map<Long, Record> index = new ConcurrentHashMap<>();
+    private final AtomicInteger state = new AtomicInteger(NOT_LOADED);
+    private final ConcurrentLinkedQueue<Record> pendingWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object fileLock = new Object();
+    private int recordsInFile = 0;
+
+    /**
+     * A stored result, the hashes it is stored under and the time it expires.
+     */
+    private static class Record {
+        final long key;
+        final int check;
+        final boolean result;
+        final long expiresAt;
+
+        Record(long key, int check, boolean result, long expiresAt) {
+            this.key = key;
+            this.check = check;
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Class constructor specifying the file and the time-to-live of the results.
+     *
+     * @param file the file that stores the results, for example inside
+     *             {@code Context.getCacheDir()}
+     * @param ttlMillis how long, in milliseconds, a passing result is kept
+     * @param negativeTtlMillis how long, in milliseconds, a failing result is kept
+     */
+    public PersistentResultStore(File file, long ttlMillis, long negativeTtlMillis) {
+        this(file, ttlMillis, negativeTtlMillis, ValidationExecutors.getIoExecutor(), System::currentTimeMillis);
+    }
+
+    /**
+     * Class constructor that accepts the executor used for I/O and a clock returning the current
+     * time in milliseconds.
+     * <p>
+     * For testing.
+     */
+    PersistentResultStore(File file, long ttlMillis, long negativeTtlMillis, Executor ioExecutor, LongSupplier clock) {
+        this.file = file;
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.ioExecutor = ioExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts reading the file in the background, if it hasn't been read already.
+     */
+    public void preload() {
+        if (this.state.compareAndSet(NOT_LOADED, LOADING)) {
+            this.ioExecutor.execute(this::ensureLoaded);
+        }
+    }
+
+    /**
+     * Returns whether the file has been read.
+     *
+     * @return true once the stored results are available, otherwise false
+     */
+    public boolean isLoaded() {
+        return this.state.get() == LOADED;
+    }
+
+    /**
+     * Returns the stored result for the input. This method never performs I/O.
+     *
+     * @param conditionId the id of the condition
+     * @param input a snapshot of the input
+     * @return the result, or null if it isn't stored, has expired or the file hasn't been read yet
+     */
+    public Boolean get(String conditionId, String input) {
+        preload();
+
+        long key = hash(conditionId, input);
+        Record record = this.index.get(key);
+
+        // A different input whose hash collides with this one.
+        if (record == null || record.check != check(conditionId, input)) {
+            return null;
+        }
+
+        if (record.expiresAt <= this.clock.getAsLong()) {
+            this.index.remove(key, record);
+            return null;
+        }
+
+        return record.result;
+    }
+
+    /**
+     * Stores the result for the input. The result is written to the file in the background,
+     * together with any other results put before the write starts.
+     *
+     * @param conditionId the id of the condition
+     * @param input a snapshot of the input
+     * @param result the result of the condition
+     */
+    public void put(String conditionId, String input, boolean result) {
+        preload();
+
+        long key = hash(conditionId, input);
+        Record record = new Record(key, check(conditionId, input), result,
+                this.clock.getAsLong() + (result ? this.ttlMillis : this.negativeTtlMillis));
+        this.index.put(key, record);
+        this.pendingWrites.add(record);
+
+        if (this.flushScheduled.compareAndSet(false, true)) {
+
+            /* Java 8
+             *  => Method Reference
+             */
+            this.ioExecutor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Returns the number of results held in memory.
+     *
+     * @return the number of results
+     */
+    public int size() {
+        return this.index.size();
+    }
+
+    /**
+     * Returns the number of records in the file, including superseded and expired records.
+     *
+     * @return the number of records in the file
+     */
+    int getRecordsInFile() {
+        synchronized (this.fileLock) {
+            return this.recordsInFile;
+        }
+    }
+
+    /**
+     * Reads the file into memory if it hasn't been read yet. Records later in the file replace
+     * earlier ones; results put while the file was being read are kept.
+     */
+    private void ensureLoaded() {
+        synchronized (this.fileLock) {
+            if (this.state.get() == LOADED) {
+                return;
+            }
+
+            Map<Long, Record> loaded = new HashMap<>();
+            long now = this.clock.getAsLong();
+            int records = 0;
+
+            if (this.file.exists()) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)))) {
+                    if (in.readInt() == MAGIC && in.readInt() == VERSION) {
+                        while (true) {
+                            long key = in.readLong();
+                            int check = in.readInt();
+                            long expiresAt = in.readLong();
+                            boolean result = in.readBoolean();
+                            records++;
+
+                            if (expiresAt > now) {
+                                loaded.put(key, new Record(key, check, result, expiresAt));
+                            } else {
+                                loaded.remove(key);
+                            }
+                        }
+                    }
+                } catch (EOFException e) {
+                    // End of the file, or a record that was only partly written.
+                } catch (IOException e) {
+                    loaded.clear();
+                    records = 0;
+                }
+            }
+
+            try {
+                // Start over if the file is missing or unreadable, and drop any partial record.
+                if (records == 0) {
+                    writeHeader();
+                } else {
+                    truncate(HEADER_SIZE + (long) records * RECORD_SIZE);
+                }
+            } catch (IOException e) {
+                // The results are still available in memory.
+            }
+
+            this.recordsInFile = records;
+
+            /* Java 8
+             *  => map.forEach(BiConsumer<? super K, ? super V> action)
+             *  => Method Reference
+             */
+            loaded.forEach(this.index::putIfAbsent);
+            this.state.set(LOADED);
+        }
+    }
+
+    /**
+     * Appends the pending records to the file in one write and compacts the file if needed.
+     */
+    private void flush() {
+
+        // A record put from now on schedules another flush, in case it misses this one.
+        this.flushScheduled.set(false);
+
+        synchronized (this.fileLock) {
+
+            // The file must be read (and its header written) before anything is appended.
+            ensureLoaded();
+
+            if (this.pendingWrites.isEmpty()) {
+                return;
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.file, true)))) {
+                Record record;
+                while ((record = this.pendingWrites.poll()) != null) {
+                    writeRecord(out, record);
+                    this.recordsInFile++;
+                }
+            } catch (IOException e) {
+                return;
+            }
+
+            if (this.recordsInFile >= COMPACT_MIN_RECORDS && this.recordsInFile > this.index.size() * 2) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Rewrites the file with only the results that haven't expired.
+     */
+    private void compact() {
+        long now = this.clock.getAsLong();
+        File compacted = new File(this.file.getPath() + ".compact");
+        int records = 0;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(compacted)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            for (Map.Entry<Long, Record> entry : this.index.entrySet()) {
+                if (entry.getValue().expiresAt > now) {
+                    writeRecord(out, entry.getValue());
+                    records++;
+                } else {
+                    this.index.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (IOException e) {
+            compacted.delete();
+            return;
+        }
+
+        if (compacted.renameTo(this.file)) {
+            this.recordsInFile = records;
+        } else {
+            compacted.delete();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(this.file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+    }
+
+    private void truncate(long length) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(this.file, "rw")) {
+            if (randomAccessFile.length() > length) {
+                randomAccessFile.setLength(length);
+            }
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, Record record) throws IOException {
+        out.writeLong(record.key);
+        out.writeInt(record.check);
+        out.writeLong(record.expiresAt);
+        out.writeBoolean(record.result);
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a hash of the condition id and the input.
+     */
+    static long hash(String conditionId, String input) {
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte b : conditionId.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+
+        // Separate the id from the input so "ab" + "c" and "a" + "bc" differ.
+        hash = hash * 0x100000001b3L;
+
+        for (byte b : input.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns a 32-bit polynomial hash of the condition id and the input, which is independent
+     * of {@link #hash(String, String)}, so a result stored for another input whose 64-bit hash
+     * collides can be told apart.
+     */
+    static int check(String conditionId, String input) {
+        int check = conditionId.hashCode() * 31 + conditionId.length();
+
+        for (int i = 0; i < input.length(); i++) {
+            check = check * 31 + input.charAt(i);
+        }
+
+        return check;
+    }
+}
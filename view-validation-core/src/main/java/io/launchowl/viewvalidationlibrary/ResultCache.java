@@ -0,0 +1,169 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * This class stores the results of conditions, keyed by a snapshot of the input they were
+ * evaluated with.
+ * <p>
+ * The cache holds at most a fixed number of entries and evicts the least recently used entry
+ * when it is full. Passing results (true) and failing results (false) expire after separate
+ * time-to-live periods, so a negative answer such as "username taken" can be re-checked sooner
+ * than a positive one.
+ * <p>
+ * A ResultCache is used by {@link MemoizedCondition} and {@link MemoizedAsyncCondition}. Each
+ * memoized condition should be given its own cache. This class is thread safe.
+ *
+ * @param <K> the type of the input snapshot
+ */
+public class ResultCache<K> {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, CachedResult> entries;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * A cached result and the time it expires.
+     */
+    private static class CachedResult {
+        final boolean result;
+        final long expiresAt;
+
+        CachedResult(boolean result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Class constructor specifying the size and the time-to-live of the entries.
+     *
+     * @param maxSize the maximum number of results to keep
+     * @param ttlMillis how long, in milliseconds, a passing result is kept
+     * @param negativeTtlMillis how long, in milliseconds, a failing result is kept
+     */
+    public ResultCache(int maxSize, long ttlMillis, long negativeTtlMillis) {
+        this(maxSize, ttlMillis, negativeTtlMillis, System::nanoTime);
+    }
+
+    /**
+     * Class constructor that accepts a clock returning the current time in nanoseconds.
+     * <p>
+     * For testing.
+     */
+    ResultCache(int maxSize, long ttlMillis, long negativeTtlMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0");
+        }
+
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.clock = clock;
+
+        // Access order makes the eldest entry the least recently used one.
+        this.entries = new LinkedHashMap<K, CachedResult>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedResult> eldest) {
+                if (size() > ResultCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the input.
+     *
+     * @param key a snapshot of the input
+     * @return the result, or null if it isn't cached or has expired
+     */
+    public synchronized Boolean get(K key) {
+        CachedResult entry = this.entries.get(key);
+
+        if (entry != null && entry.expiresAt - this.clock.getAsLong() <= 0) {
+            this.entries.remove(key);
+            entry = null;
+        }
+
+        if (entry == null) {
+            this.misses++;
+            return null;
+        }
+
+        this.hits++;
+        return entry.result;
+    }
+
+    /**
+     * Stores the result for the input.
+     *
+     * @param key a snapshot of the input
+     * @param result the result of the condition
+     */
+    public synchronized void put(K key, boolean result) {
+        long ttl = result ? this.ttlNanos : this.negativeTtlNanos;
+
+        if (ttl <= 0) {
+            this.entries.remove(key);
+            return;
+        }
+
+        this.entries.put(key, new CachedResult(result, this.clock.getAsLong() + ttl));
+    }
+
+    /**
+     * Removes every cached result. The hit, miss and eviction counts are kept.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * Returns the number of cached results, including any that have expired but haven't
+     * been looked up since.
+     *
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns the number of lookups that found a result.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHitCount() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of lookups that didn't find a result.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMissCount() {
+        return this.misses;
+    }
+
+    /**
+     * Returns the number of results removed to make room for newer ones.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return this.evictions;
+    }
+}
@@ -0,0 +1,65 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * This interface combines the results of one round of a {@link Criteria} and decides when the
+ * round is over.
+ * <p>
+ * A round expects one result per {@link Criteria.AsyncCondition} that is started, plus one for
+ * the {@link Criteria.Condition} objects together. Invalid takes precedence over Unknown, which
+ * takes precedence over Valid. Exactly one call to {@link #add(int, Validator.ValidationResult, boolean)}
+ * decides each round.
+ *
+ * @see Criteria.Aggregation
+ * @see MainThreadAggregator
+ * @see ConcurrentAggregator
+ */
+interface RoundAggregator {
+
+    /**
+     * Starts a new round. Results of earlier rounds are discarded from now on.
+     *
+     * @param generation the generation of the round
+     * @param expected the number of results the round waits for
+     */
+    void begin(int generation, int expected);
+
+    /**
+     * Adds a result to the round it belongs to.
+     *
+     * @param generation the generation of the round the result belongs to
+     * @param result the result to add
+     * @param decideEarly true if a failure decides the round before every result is in
+     * @return the decision if this call decided the round, {@link Decision#PENDING} if more
+     * results are expected, or {@link Decision#STALE} if the round is no longer current or was
+     * already decided
+     */
+    Decision add(int generation, Validator.ValidationResult result, boolean decideEarly);
+
+    /**
+     * Returns whether results can be added on any thread.
+     *
+     * @return true if results can be added on the worker threads that produce them, false if
+     * they must be added on the main UI thread
+     */
+    boolean isConcurrent();
+
+    /**
+     * The outcome of adding a result to a round.
+     */
+    final class Decision {
+        static final Decision PENDING = new Decision(null, false);
+        static final Decision STALE = new Decision(null, false);
+
+        final Validator.ValidationResult result;
+        final boolean early;
+
+        /**
+         * @param result the final result of the round
+         * @param early true if a failure decided the round before every result was in
+         */
+        Decision(Validator.ValidationResult result, boolean early) {
+            this.result = result;
+            this.early = early;
+        }
+    }
+}
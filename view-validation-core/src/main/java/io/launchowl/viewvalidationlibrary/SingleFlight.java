@@ -0,0 +1,219 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * This class shares asynchronous evaluations between conditions that check the same input.
+ * <p>
+ * Evaluations are keyed by a condition id and a snapshot of the input. While an evaluation is in
+ * flight, any {@link SingleFlightAsyncCondition} that is started with the same key joins it
+ * instead of starting its own, and every condition that joined receives the result. This is
+ * useful when several {@link Validator} objects, or several screens, check the same username.
+ * <p>
+ * An evaluation is only cancelled when every condition that joined it has been cancelled or
+ * has moved on to a newer round.
+ * <p>
+ * This class is thread safe.
+ *
+ * @see SingleFlightAsyncCondition
+ */
+public final class SingleFlight {
+    private static final SingleFlight DEFAULT = new SingleFlight();
+
+    private final Map<Key, Call> calls = new HashMap<>();
+    private long callCount = 0;
+    private long sharedCount = 0;
+
+    /**
+     * An evaluation in flight and the attempts waiting for its result.
+     */
+    static final class Call {
+        final Key key;
+        final List<Criteria.AsyncCondition.Attempt> attempts = new ArrayList<>();
+        FutureTask<Void> task;
+        boolean done = false;
+
+        Call(Key key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * The condition id and input an evaluation is keyed by.
+     */
+    static final class Key {
+        final String conditionId;
+        final Object input;
+
+        Key(String conditionId, Object input) {
+            this.conditionId = conditionId;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return this.conditionId.equals(key.conditionId) && Objects.equals(this.input, key.input);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.conditionId.hashCode() + Objects.hashCode(this.input);
+        }
+    }
+
+    /**
+     * Returns the group shared by every {@link SingleFlightAsyncCondition} that isn't given
+     * its own.
+     *
+     * @return the default group
+     */
+    public static SingleFlight getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Joins the evaluation in flight for the key, or creates a new one which is started by
+     * {@link #execute(Call, Supplier, Executor)}.
+     *
+     * @param conditionId the id of the condition
+     * @param input a snapshot of the input
+     * @param attempt the attempt waiting for the result
+     * @return the evaluation that was joined or created
+     */
+    synchronized Call join(String conditionId, Object input, Criteria.AsyncCondition.Attempt attempt) {
+        Key key = new Key(conditionId, input);
+        Call call = this.calls.get(key);
+
+        if (call != null) {
+            call.attempts.add(attempt);
+            this.sharedCount++;
+            return call;
+        }
+
+        call = new Call(key);
+        call.attempts.add(attempt);
+        this.calls.put(key, call);
+        this.callCount++;
+
+        return call;
+    }
+
+    /**
+     * Starts an evaluation unless it has already been started or is no longer needed.
+     *
+     * @param call the evaluation
+     * @param task creates the task that performs the evaluation
+     * @param executor the {@link Executor} that runs the task
+     * @return the task if it was started by this call, otherwise null
+     */
+    FutureTask<Void> execute(Call call, Supplier<FutureTask<Void>> task, Executor executor) {
+        FutureTask<Void> started;
+
+        synchronized (this) {
+            if (call.task != null || call.done) {
+                return null;
+            }
+
+            started = task.get();
+            call.task = started;
+        }
+
+        executor.execute(started);
+        return started;
+    }
+
+    /**
+     * Removes an attempt from an evaluation, cancelling the evaluation if no other attempt
+     * is waiting for it.
+     *
+     * @param call the evaluation
+     * @param attempt the attempt that no longer needs the result
+     */
+    void leave(Call call, Criteria.AsyncCondition.Attempt attempt) {
+        FutureTask<Void> abandoned = null;
+
+        synchronized (this) {
+            if (!call.attempts.remove(attempt) || !call.attempts.isEmpty() || call.done) {
+                return;
+            }
+
+            call.done = true;
+            this.calls.remove(call.key, call);
+            abandoned = call.task;
+        }
+
+        if (abandoned != null) {
+            abandoned.cancel(true);
+        }
+    }
+
+    /**
+     * Delivers the result of an evaluation to every attempt waiting for it, except the attempt
+     * that produced it. Later calls for the same evaluation are ignored.
+     *
+     * @param call the evaluation
+     * @param snapshot the snapshot of the attempt that produced the result
+     * @param result the result of the evaluation
+     */
+    void finish(Call call, Object snapshot, boolean result) {
+        List<Criteria.AsyncCondition.Attempt> waiting;
+
+        synchronized (this) {
+            if (call.done) {
+                return;
+            }
+
+            call.done = true;
+            this.calls.remove(call.key, call);
+            waiting = new ArrayList<>(call.attempts);
+        }
+
+        for (Criteria.AsyncCondition.Attempt attempt : waiting) {
+            if (attempt.snapshot != snapshot) {
+                attempt.asyncCondition.complete(attempt, result);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of evaluations that were started.
+     *
+     * @return the number of evaluations
+     */
+    public synchronized long getCallCount() {
+        return this.callCount;
+    }
+
+    /**
+     * Returns the number of times an evaluation in flight was joined instead of starting
+     * a new one.
+     *
+     * @return the number of de-duplicated evaluations
+     */
+    public synchronized long getSharedCount() {
+        return this.sharedCount;
+    }
+
+    /**
+     * Returns the number of evaluations in flight.
+     *
+     * @return the number of evaluations in flight
+     */
+    public synchronized int getInFlightCount() {
+        return this.calls.size();
+    }
+}
@@ -0,0 +1,171 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+/**
+ * This class shares the evaluation of a {@link Criteria.AsyncCondition} with other conditions
+ * that are checking the same input at the same time.
+ * <p>
+ * The key is read from the view on the main UI thread when the {@link Criteria} is evaluated. If
+ * an evaluation with the same condition id and key is already in flight in the
+ * {@link SingleFlight} group, this condition waits for its result instead of starting another
+ * one. Otherwise the wrapped condition is evaluated and its result is delivered to every
+ * condition that joined.
+ * <p>
+ * <pre>
+ * {@code
+ *  new Criteria<>(editText)
+ *      .asyncTest(new SingleFlightAsyncCondition<>(
+ *          userNameAvailableCondition,
+ *          view -> view.getText().toString(),
+ *          "username-available"));
+ * }
+ * </pre>
+ * <p>
+ * A {@link MemoizedAsyncCondition} can be wrapped, in which case cached results are used
+ * without joining an evaluation. The wrapped condition should call
+ * {@link Criteria.AsyncCondition#complete(boolean)} on the worker thread that ran
+ * {@link Criteria.AsyncCondition#evaluate(Object)}.
+ *
+ * @param <T> the type of view being validated
+ * @param <K> the type of the input snapshot used as the key
+ *
+ * @see SingleFlight
+ */
+public class SingleFlightAsyncCondition<T, K> extends CancellableAsyncCondition<T> {
+    private final Criteria.AsyncCondition<T> asyncCondition;
+    private final Function<? super T, ? extends K> key;
+    private final String conditionId;
+    private final SingleFlight group;
+    private volatile SingleFlight.Call call;
+    private volatile Attempt joined;
+
+    /**
+     * The key of an attempt, the snapshot taken by the wrapped condition and the evaluation the
+     * attempt joined.
+     */
+    private static final class Snapshot {
+        final Object key;
+        final Object inner;
+        volatile SingleFlight.Call call;
+
+        Snapshot(Object key, Object inner) {
+            this.key = key;
+            this.inner = inner;
+        }
+    }
+
+    /**
+     * Class constructor specifying the asynchronous condition to share. Evaluations are shared
+     * through {@link SingleFlight#getDefault()}.
+     *
+     * @param asyncCondition the {@link Criteria.AsyncCondition} to share
+     * @param key a function that returns a snapshot of the input from the view
+     * @param conditionId an id that is the same for every condition performing this test
+     */
+    public SingleFlightAsyncCondition(Criteria.AsyncCondition<T> asyncCondition, Function<? super T, ? extends K> key, String conditionId) {
+        this(asyncCondition, key, conditionId, SingleFlight.getDefault());
+    }
+
+    /**
+     * Class constructor specifying the asynchronous condition to share and the group that
+     * shares the evaluations.
+     *
+     * @param asyncCondition the {@link Criteria.AsyncCondition} to share
+     * @param key a function that returns a snapshot of the input from the view
+     * @param conditionId an id that is the same for every condition performing this test
+     * @param group the {@link SingleFlight} group
+     */
+    public SingleFlightAsyncCondition(Criteria.AsyncCondition<T> asyncCondition, Function<? super T, ? extends K> key, String conditionId, SingleFlight group) {
+        this.asyncCondition = asyncCondition;
+        this.key = key;
+        this.conditionId = conditionId;
+        this.group = group;
+
+        asyncCondition.wrapWith(this);
+    }
+
+    /**
+     * Evaluates the wrapped condition. Only called for the attempt that started an evaluation.
+     * <p>
+     * The token is only cancelled once every condition that joined the evaluation no longer
+     * needs it.
+     *
+     * @param view the view being validated
+     * @param cancellationToken the token of this evaluation
+     */
+    @Override
+    protected void evaluate(T view, CancellationToken cancellationToken) {
+        this.asyncCondition.evaluateCancellable(view, cancellationToken);
+    }
+
+    @Override
+    protected void onCancelled() {
+        this.asyncCondition.onCancelled();
+    }
+
+    /**
+     * Returns the {@link SingleFlight} group that shares the evaluations.
+     *
+     * @return the group
+     */
+    public SingleFlight getGroup() {
+        return this.group;
+    }
+
+    @Override
+    Object snapshot(T view) {
+        return new Snapshot(this.key.apply(view), this.asyncCondition.snapshot(view));
+    }
+
+    @Override
+    Boolean lookup(Object snapshot) {
+        return this.asyncCondition.lookup(((Snapshot) snapshot).inner);
+    }
+
+    @Override
+    void onResult(Object snapshot, boolean result) {
+        Snapshot flightSnapshot = (Snapshot) snapshot;
+        this.asyncCondition.onResult(flightSnapshot.inner, result);
+
+        SingleFlight.Call call = flightSnapshot.call;
+        if (call != null) {
+            this.group.finish(call, snapshot, result);
+        }
+    }
+
+    @Override
+    void start(final Attempt attempt, final T view, Executor executor) {
+        Snapshot snapshot = (Snapshot) attempt.snapshot;
+
+        // The evaluation must be known before it can complete, so it is joined before it starts.
+        SingleFlight.Call call = this.group.join(this.conditionId, snapshot.key, attempt);
+        snapshot.call = call;
+        this.joined = attempt;
+        this.call = call;
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        FutureTask<Void> task = this.group.execute(call, () -> newTask(attempt, view), executor);
+
+        // Only the condition that started the evaluation hedges it.
+        if (task != null) {
+            attempt.primary = task;
+            scheduleHedge(attempt, view, executor);
+        }
+    }
+
+    @Override
+    void interruptEvaluation() {
+        SingleFlight.Call call = this.call;
+        Attempt joined = this.joined;
+
+        if (call != null) {
+            this.call = null;
+            this.group.leave(call, joined);
+        }
+    }
+}
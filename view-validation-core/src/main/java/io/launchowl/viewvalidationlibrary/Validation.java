@@ -0,0 +1,27 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * An interface for any class that needs to respond to a validation request.
+ */
+public interface Validation {
+    /**
+     * Perform the validation.
+     */
+    void validate();
+
+    /**
+     * Returns the average time it takes for a validation to complete.
+     * <p>
+     * Used by {@code DebouncedValidation} to adapt its window. Implementations that don't
+     * track their latency return 0.
+     *
+     * @return the average latency in milliseconds, or 0 if unknown
+     */
+    default long getAverageLatencyMillis() {
+
+        /* Java 8
+         *  => Default Method
+         */
+        return 0;
+    }
+}
@@ -0,0 +1,299 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class supplies the {@link Executor} used to run {@link Criteria.AsyncCondition} objects.
+ * <p>
+ * Unless an executor is supplied to a {@link Criteria} via {@link Criteria#executor(Executor)},
+ * to a {@link Validator} via {@link Validator#setExecutor(Executor)} or globally via
+ * {@link #setDefaultExecutor(Executor)}, all asynchronous conditions share a single, bounded
+ * pool of worker threads. Idle workers are released after a short keep-alive period, so the
+ * pool does not hold on to threads while a form is not being edited.
+ * <p>
+ * The statistics methods ({@link #getQueueDepth()}, {@link #getActiveThreadCount()},
+ * {@link #getPoolSize()} and {@link #getCompletedTaskCount()}) describe the shared pool only.
+ * <p>
+ * Deadlines set via {@link Criteria#asyncTest(Criteria.AsyncCondition, long, Validator.ValidationResult)}
+ * are timed by a single shared scheduler thread, see {@link #getDeadlineScheduler()}.
+ * <p>
+ * {@link Criteria.Condition} objects evaluated in parallel, see {@link Criteria#parallel(boolean)},
+ * run on a separate work-stealing pool, see {@link #getComputePool()}.
+ * <p>
+ * Disk I/O, such as writing the results kept by a {@link PersistentResultStore}, is performed
+ * by a single shared thread, see {@link #getIoExecutor()}, so it never occupies a worker.
+ */
+public final class ValidationExecutors {
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int POOL_SIZE = Math.max(2, Math.min(CPU_COUNT - 1, 4));
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile Executor defaultExecutor;
+    private static volatile ScheduledExecutorService deadlineScheduler;
+    private static volatile ForkJoinPool computePool;
+    private static volatile Executor ioExecutor;
+
+    private ValidationExecutors() {
+    }
+
+    /**
+     * Holds the shared pool so it is only created the first time it is needed.
+     */
+    private static class SharedPool {
+        static final ThreadPoolExecutor POOL = createPool();
+
+        private static ThreadPoolExecutor createPool() {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    POOL_SIZE,
+                    POOL_SIZE,
+                    KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new WorkerThreadFactory());
+
+            // Let the core threads time out so an idle form doesn't keep threads alive.
+            pool.allowCoreThreadTimeOut(true);
+
+            return pool;
+        }
+    }
+
+    /**
+     * Holds the shared deadline scheduler so it is only created the first time it is needed.
+     */
+    private static class SharedScheduler {
+        static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+        private static ScheduledThreadPoolExecutor createScheduler() {
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "ViewValidation Deadlines");
+                thread.setDaemon(true);
+
+                return thread;
+            });
+
+            // Most deadlines are cancelled because the condition completed in time.
+            scheduler.setRemoveOnCancelPolicy(true);
+
+            return scheduler;
+        }
+    }
+
+    /**
+     * Holds the shared compute pool so it is only created the first time it is needed.
+     */
+    private static class SharedComputePool {
+        static final ForkJoinPool POOL = createPool();
+
+        private static ForkJoinPool createPool() {
+            final AtomicInteger count = new AtomicInteger(1);
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            return new ForkJoinPool(Math.max(1, CPU_COUNT - 1), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("ViewValidation Compute #" + count.getAndIncrement());
+
+                return thread;
+            }, null, false);
+        }
+    }
+
+    /**
+     * Holds the shared I/O thread so it is only created the first time it is needed.
+     */
+    private static class SharedIoExecutor {
+        static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+        private static ThreadPoolExecutor createExecutor() {
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    1,
+                    1,
+                    KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "ViewValidation I/O");
+                        thread.setDaemon(true);
+
+                        return thread;
+                    });
+
+            // Release the thread while nothing is being read or written.
+            executor.allowCoreThreadTimeOut(true);
+
+            return executor;
+        }
+    }
+
+    /**
+     * Creates named daemon threads for the shared pool.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ViewValidation #" + count.getAndIncrement());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+
+    /**
+     * Returns the {@link Executor} used when neither the {@link Criteria} nor the
+     * {@link Validator} supply one.
+     *
+     * @return the executor set via {@link #setDefaultExecutor(Executor)}, otherwise the shared pool
+     */
+    public static Executor getDefaultExecutor() {
+        Executor executor = defaultExecutor;
+
+        return executor != null ? executor : SharedPool.POOL;
+    }
+
+    /**
+     * Replaces the global default {@link Executor}.
+     *
+     * @param executor the executor to use, or null to restore the shared pool
+     */
+    public static void setDefaultExecutor(Executor executor) {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Returns the scheduler that times the deadlines of {@link Criteria.AsyncCondition} objects.
+     * <p>
+     * The scheduled tasks only queue a result for the main UI thread, so a single thread is
+     * shared by every {@link Criteria}.
+     *
+     * @return the scheduler set via {@link #setDeadlineScheduler(ScheduledExecutorService)},
+     * otherwise the shared scheduler
+     */
+    public static ScheduledExecutorService getDeadlineScheduler() {
+        ScheduledExecutorService scheduler = deadlineScheduler;
+
+        return scheduler != null ? scheduler : SharedScheduler.SCHEDULER;
+    }
+
+    /**
+     * Replaces the scheduler that times the deadlines.
+     *
+     * @param scheduler the scheduler to use, or null to restore the shared scheduler
+     */
+    public static void setDeadlineScheduler(ScheduledExecutorService scheduler) {
+        deadlineScheduler = scheduler;
+    }
+
+    /**
+     * Returns the work-stealing pool that evaluates {@link Criteria.Condition} objects in
+     * parallel.
+     * <p>
+     * The shared pool uses one thread less than there are processors, so the main UI thread
+     * keeps a core to itself.
+     *
+     * @return the pool set via {@link #setComputePool(ForkJoinPool)}, otherwise the shared pool
+     */
+    public static ForkJoinPool getComputePool() {
+        ForkJoinPool pool = computePool;
+
+        return pool != null ? pool : SharedComputePool.POOL;
+    }
+
+    /**
+     * Replaces the pool that evaluates {@link Criteria.Condition} objects in parallel.
+     *
+     * @param pool the pool to use, or null to restore the shared pool
+     */
+    public static void setComputePool(ForkJoinPool pool) {
+        computePool = pool;
+    }
+
+    /**
+     * Returns the {@link Executor} that performs disk I/O.
+     * <p>
+     * The shared executor runs one task at a time on its own thread, so reads and writes of a
+     * file never run concurrently and never wait behind {@link Criteria.AsyncCondition} objects.
+     *
+     * @return the executor set via {@link #setIoExecutor(Executor)}, otherwise the shared I/O
+     * thread
+     */
+    public static Executor getIoExecutor() {
+        Executor executor = ioExecutor;
+
+        return executor != null ? executor : SharedIoExecutor.EXECUTOR;
+    }
+
+    /**
+     * Replaces the {@link Executor} that performs disk I/O.
+     *
+     * @param executor the executor to use, or null to restore the shared I/O thread
+     */
+    public static void setIoExecutor(Executor executor) {
+        ioExecutor = executor;
+    }
+
+    /**
+     * Returns the number of tasks waiting in the shared pool's queue.
+     *
+     * @return the number of queued tasks
+     */
+    public static int getQueueDepth() {
+        return SharedPool.POOL.getQueue().size();
+    }
+
+    /**
+     * Returns the approximate number of shared pool threads running a task.
+     *
+     * @return the number of active threads
+     */
+    public static int getActiveThreadCount() {
+        return SharedPool.POOL.getActiveCount();
+    }
+
+    /**
+     * Returns the number of threads currently in the shared pool.
+     *
+     * @return the current pool size
+     */
+    public static int getPoolSize() {
+        return SharedPool.POOL.getPoolSize();
+    }
+
+    /**
+     * Returns the maximum number of threads the shared pool will create.
+     *
+     * @return the maximum pool size
+     */
+    public static int getMaximumPoolSize() {
+        return SharedPool.POOL.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns the approximate number of tasks the shared pool has completed.
+     *
+     * @return the number of completed tasks
+     */
+    public static long getCompletedTaskCount() {
+        return SharedPool.POOL.getCompletedTaskCount();
+    }
+}
@@ -0,0 +1,91 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * Interfaces for streams of validation results with flow control, in the shape of
+ * {@code java.util.concurrent.Flow}.
+ * <p>
+ * {@code java.util.concurrent.Flow} isn't available on every supported version of Android, so the
+ * same contract is declared here: a {@link Subscriber} receives nothing until it requests items
+ * via {@link Subscription#request(long)}, so a slow subscriber controls how fast it is fed.
+ *
+ * @see ValidationPublisher
+ */
+public final class ValidationFlow {
+
+    private ValidationFlow() {
+
+    }
+
+    /**
+     * A producer of items that are received by {@link Subscriber} objects.
+     *
+     * @param <T> the type of item published
+     */
+    public interface Publisher<T> {
+
+        /**
+         * Adds a subscriber. {@link Subscriber#onSubscribe(Subscription)} is called before
+         * any other method of the subscriber.
+         *
+         * @param subscriber the subscriber
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items.
+     * <p>
+     * The methods of a subscriber are never called concurrently.
+     *
+     * @param <T> the type of item received
+     */
+    public interface Subscriber<T> {
+
+        /**
+         * Called before any other method with the subscription used to request items.
+         *
+         * @param subscription the subscription
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * Called with the next item. Only called after items have been requested.
+         *
+         * @param item the item
+         */
+        void onNext(T item);
+
+        /**
+         * Called when the subscription fails. No other method is called afterwards.
+         *
+         * @param throwable the failure
+         */
+        void onError(Throwable throwable);
+
+        /**
+         * Called when no more items will be published. No other method is called afterwards.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Links a {@link Publisher} and a {@link Subscriber}.
+     */
+    public interface Subscription {
+
+        /**
+         * Requests up to the supplied number of additional items. May be called from any thread,
+         * including from {@link Subscriber#onNext(Object)}.
+         *
+         * @param n the number of items, greater than 0. {@link Long#MAX_VALUE} requests every
+         *          item
+         */
+        void request(long n);
+
+        /**
+         * Stops the subscriber from receiving items. Items may still be received for a short
+         * time.
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,330 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * This class revalidates only the {@link Validator} objects affected by a change.
+ * <p>
+ * Each {@link Validator} reads the view of its {@link Criteria} and may declare further sources
+ * it reads, such as other views or any value used as a key. A {@link Validator} can also depend
+ * on other validators, for example a password confirmation on the password. Together these
+ * declarations form a directed acyclic graph.
+ * <p>
+ * When a source changes, {@link #invalidate(Object)} marks the validators that read it, and every
+ * validator that depends on them, as dirty. {@link #validate()} then validates only the dirty
+ * validators, in topological order, so a validator is always started after the validators it
+ * depends on. The cost of a change depends on how many validators it affects, not on the size
+ * of the form.
+ * <p>
+ * <pre>
+ * {@code
+ *  ValidationGraph graph = new ValidationGraph()
+ *      .add(passwordValidator)
+ *      .add(confirmationValidator, passwordEditText)
+ *      .dependsOn(confirmationValidator, passwordValidator);
+ *
+ *  // Inside TextWatcher.afterTextChanged(Editable s) of the password
+ *  graph.invalidate(passwordEditText);
+ *  debouncedGraphValidation.validate();
+ * }
+ * </pre>
+ * <p>
+ * Because a ValidationGraph is a {@link Validation}, it can be wrapped in a
+ * {@code DebouncedValidation} so changes made in a burst are validated together.
+ * <p>
+ * This class is not thread safe; it should be used from the main UI thread.
+ *
+ * @see ValidatorSet
+ */
+public class ValidationGraph implements Validation {
+    private final Map<Validator<?>, Node> nodes = new LinkedHashMap<>();
+    private final Map<Object, List<Node>> readers = new HashMap<>();
+    private final List<Node> dirty = new ArrayList<>();
+    private int validatedCount = 0;
+
+    /**
+     * A validator and the validators that depend on it.
+     */
+    private static final class Node {
+        final Validator<?> validator;
+        final int index;
+        final List<Node> dependents = new ArrayList<>();
+        int dependencyCount = 0;
+        int order;
+        boolean dirty = false;
+
+        Node(Validator<?> validator, int index) {
+            this.validator = validator;
+            this.index = index;
+            this.order = index;
+        }
+    }
+
+    /**
+     * Adds a {@link Validator} that reads the view of its {@link Criteria} and, optionally, other
+     * sources.
+     * <p>
+     * A validator that is added again keeps its existing sources and gains the new ones.
+     *
+     * @param validator the {@link Validator} to add
+     * @param sources the other views or values the validator reads
+     * @return this {@link ValidationGraph} instance
+     */
+    public ValidationGraph add(Validator<?> validator, Object... sources) {
+        Node node = this.nodes.get(validator);
+        if (node == null) {
+            node = new Node(validator, this.nodes.size());
+            this.nodes.put(validator, node);
+            addReader(validator.criteria.getValidatedView(), node);
+        }
+
+        for (Object source : sources) {
+            addReader(source, node);
+        }
+
+        return this;
+    }
+
+    /**
+     * Declares that a {@link Validator} must be revalidated after another one.
+     * <p>
+     * Both validators are added to the graph if they haven't been.
+     *
+     * @param dependent the {@link Validator} that depends on the other one
+     * @param dependency the {@link Validator} it depends on
+     * @return this {@link ValidationGraph} instance
+     * @throws IllegalArgumentException if the dependency would create a cycle
+     */
+    public ValidationGraph dependsOn(Validator<?> dependent, Validator<?> dependency) {
+        add(dependent);
+        add(dependency);
+
+        Node dependentNode = this.nodes.get(dependent);
+        Node dependencyNode = this.nodes.get(dependency);
+        if (dependencyNode.dependents.contains(dependentNode)) {
+            return this;
+        }
+
+        dependencyNode.dependents.add(dependentNode);
+        dependentNode.dependencyCount++;
+
+        if (!sort()) {
+            dependencyNode.dependents.remove(dependentNode);
+            dependentNode.dependencyCount--;
+            throw new IllegalArgumentException("The dependency creates a cycle");
+        }
+
+        return this;
+    }
+
+    /**
+     * Marks the validators that read a source, and the validators that depend on them, as
+     * dirty.
+     *
+     * @param source a view or value passed to {@link #add(Validator, Object...)}, or the view of a
+     *               {@link Criteria}
+     * @return this {@link ValidationGraph} instance
+     */
+    public ValidationGraph invalidate(Object source) {
+        List<Node> sourceReaders = this.readers.get(source);
+        if (sourceReaders != null) {
+            markDirty(sourceReaders);
+        }
+
+        return this;
+    }
+
+    /**
+     * Marks a {@link Validator}, and the validators that depend on it, as dirty.
+     *
+     * @param validator a {@link Validator} added to this instance
+     * @return this {@link ValidationGraph} instance
+     */
+    public ValidationGraph invalidate(Validator<?> validator) {
+        Node node = this.nodes.get(validator);
+        if (node != null) {
+            markDirty(Collections.singletonList(node));
+        }
+
+        return this;
+    }
+
+    /**
+     * Validates the dirty validators in topological order.
+     */
+    @Override
+    public void validate() {
+        if (this.dirty.isEmpty()) {
+            return;
+        }
+
+        List<Node> batch = new ArrayList<>(this.dirty);
+        this.dirty.clear();
+
+        /* Java 8
+         *  => list.sort(Comparator<? super E> c)
+         *  => Lambda Expression
+         */
+        batch.sort((node1, node2) -> Integer.compare(node1.order, node2.order));
+
+        for (Node node : batch) {
+            node.dirty = false;
+            node.validator.validate();
+            this.validatedCount++;
+        }
+    }
+
+    /**
+     * Validates every validator in topological order.
+     */
+    public void validateAll() {
+        for (Node node : this.nodes.values()) {
+            if (!node.dirty) {
+                node.dirty = true;
+                this.dirty.add(node);
+            }
+        }
+
+        validate();
+    }
+
+    /**
+     * Returns the highest average latency of the validators in the graph.
+     *
+     * @return the average latency in milliseconds, or 0 if unknown
+     */
+    @Override
+    public long getAverageLatencyMillis() {
+        long latency = 0;
+        for (Validator<?> validator : this.nodes.keySet()) {
+            latency = Math.max(latency, validator.getAverageLatencyMillis());
+        }
+
+        return latency;
+    }
+
+    /**
+     * Returns the validators in the order they are validated.
+     *
+     * @return the validators in topological order
+     */
+    public List<Validator<?>> getOrder() {
+        Validator<?>[] order = new Validator<?>[this.nodes.size()];
+        for (Node node : this.nodes.values()) {
+            order[node.order] = node.validator;
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(order));
+    }
+
+    /**
+     * Returns the number of validators waiting to be validated.
+     *
+     * @return the number of dirty validators
+     */
+    public int getDirtyCount() {
+        return this.dirty.size();
+    }
+
+    /**
+     * Returns the number of times a validator has been validated by this instance.
+     *
+     * @return the number of validations
+     */
+    public int getValidatedCount() {
+        return this.validatedCount;
+    }
+
+    private void addReader(Object source, Node node) {
+        List<Node> sourceReaders = this.readers.get(source);
+        if (sourceReaders == null) {
+            sourceReaders = new ArrayList<>();
+            this.readers.put(source, sourceReaders);
+        }
+
+        if (!sourceReaders.contains(node)) {
+            sourceReaders.add(node);
+        }
+    }
+
+    /**
+     * Marks the supplied nodes and every node that depends on them as dirty. Only the part of
+     * the graph below the supplied nodes is visited.
+     */
+    private void markDirty(List<Node> changed) {
+        Deque<Node> pending = new ArrayDeque<>();
+        for (Node node : changed) {
+            markDirty(node, pending);
+        }
+
+        while (!pending.isEmpty()) {
+            for (Node dependent : pending.poll().dependents) {
+                markDirty(dependent, pending);
+            }
+        }
+    }
+
+    private void markDirty(Node node, Deque<Node> pending) {
+        if (!node.dirty) {
+            node.dirty = true;
+            this.dirty.add(node);
+            pending.add(node);
+        }
+    }
+
+    /**
+     * Numbers the nodes in topological order using Kahn's algorithm. Of the validators that are
+     * ready, the one added first is numbered first, so ties keep the order in which the
+     * validators were added.
+     *
+     * @return false if the graph contains a cycle
+     */
+    private boolean sort() {
+        Map<Node, Integer> remaining = new HashMap<>();
+
+        /* Java 8
+         *  => Lambda Expression
+         */
+        PriorityQueue<Node> ready = new PriorityQueue<>(Math.max(1, this.nodes.size()),
+                (node1, node2) -> Integer.compare(node1.index, node2.index));
+        for (Node node : this.nodes.values()) {
+            remaining.put(node, node.dependencyCount);
+            if (node.dependencyCount == 0) {
+                ready.add(node);
+            }
+        }
+
+        List<Node> sorted = new ArrayList<>(this.nodes.size());
+        while (!ready.isEmpty()) {
+            Node node = ready.poll();
+            sorted.add(node);
+
+            for (Node dependent : node.dependents) {
+                int count = remaining.get(dependent) - 1;
+                remaining.put(dependent, count);
+                if (count == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (sorted.size() < this.nodes.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < sorted.size(); i++) {
+            sorted.get(i).order = i;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package io.launchowl.viewvalidationlibrary;
+
+/**
+ * An interface for receiving measurements from the validation engine, for example to export
+ * them to a dashboard.
+ * <p>
+ * A sink is added via {@link Criteria#metrics(ValidationMetrics)},
+ * {@link Validator#setMetrics(ValidationMetrics)} or {@link ValidatorSet#metrics(ValidationMetrics)}.
+ * Nothing is measured for a {@link Criteria} without a sink, apart from what it needs itself.
+ * <p>
+ * Every method does nothing by default, so a sink only overrides the measurements it is
+ * interested in. Methods may be called on the main UI thread, worker threads and the threads of
+ * the compute pool, so implementations must be thread safe and should return quickly.
+ *
+ * @see InMemoryValidationMetrics
+ */
+public interface ValidationMetrics {
+
+    /**
+     * Called when a {@link Criteria.Condition} or {@link Criteria.AsyncCondition} has been
+     * evaluated.
+     * <p>
+     * The time of an {@link Criteria.AsyncCondition} runs from the moment it was started until
+     * it completed. A condition that missed its deadline isn't reported.
+     *
+     * @param condition the condition
+     * @param elapsedNanos the time the evaluation took in nanoseconds
+     * @param passed the result of the evaluation
+     */
+    default void onConditionEvaluated(Object condition, long elapsedNanos, boolean passed) {
+
+        /* Java 8
+         *  => Default Method
+         */
+    }
+
+    /**
+     * Called when an {@link Criteria.AsyncCondition} is cancelled while it is running, because
+     * the validation was cancelled or the result was decided without it.
+     *
+     * @param asyncCondition the cancelled condition
+     */
+    default void onConditionCancelled(Object asyncCondition) {
+
+        /* Java 8
+         *  => Default Method
+         */
+    }
+
+    /**
+     * Called on the main UI thread when a result that was queued by a worker thread is
+     * delivered.
+     *
+     * @param waitNanos the time the result waited in the queue of the
+     *                  {@link MainThreadDispatcher} in nanoseconds
+     */
+    default void onResultDequeued(long waitNanos) {
+
+        /* Java 8
+         *  => Default Method
+         */
+    }
+
+    /**
+     * Called on the main UI thread after the {@link Observer} objects of a {@link Validator} have
+     * been notified.
+     *
+     * @param validator the validator
+     * @param elapsedNanos the time from {@link Validator#validate()} until every
+     *                     {@link Observer} was notified, in nanoseconds
+     * @param validationResult the result of the validation
+     */
+    default void onValidationComplete(Validator<?> validator, long elapsedNanos, Validator.ValidationResult validationResult) {
+
+        /* Java 8
+         *  => Default Method
+         */
+    }
+}
@@ -0,0 +1,275 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class publishes the results of a {@link Validator} as a stream, as an alternative to
+ * {@link Observer} objects.
+ * <p>
+ * Each subscriber has its own bounded buffer. Results are delivered on the thread that publishes
+ * them, the main UI thread, while the subscriber has requested more items. Otherwise they wait in
+ * the buffer and are delivered on the thread that calls {@link ValidationFlow.Subscription#request(long)}.
+ * When the buffer of a slow subscriber is full, its oldest result is dropped, since a newer
+ * result supersedes it. Memory use therefore doesn't grow however slow a subscriber is.
+ * <p>
+ * The buffering of new subscribers is configured by the publisher they subscribe to:
+ * <p>
+ * <pre>
+ * {@code
+ *  validator.results()
+ *      .latestOnly()
+ *      .distinctUntilChanged()
+ *      .subscribe(subscriber);
+ * }
+ * </pre>
+ *
+ * @see Validator#results()
+ */
+public final class ValidationPublisher implements ValidationFlow.Publisher<Validator.ValidationResult> {
+    static final int DEFAULT_CAPACITY = 16;
+
+    private final Subscriptions subscriptions;
+    private final int capacity;
+    private final boolean distinct;
+
+    /**
+     * The subscriptions shared by a publisher and the publishers derived from it.
+     */
+    private static final class Subscriptions {
+        final List<BufferedSubscription> list = new CopyOnWriteArrayList<>();
+        final AtomicLong publishedCount = new AtomicLong();
+        final AtomicLong droppedCount = new AtomicLong();
+    }
+
+    /**
+     * Class constructor.
+     */
+    ValidationPublisher() {
+        this(new Subscriptions(), DEFAULT_CAPACITY, false);
+    }
+
+    private ValidationPublisher(Subscriptions subscriptions, int capacity, boolean distinct) {
+        this.subscriptions = subscriptions;
+        this.capacity = capacity;
+        this.distinct = distinct;
+    }
+
+    /**
+     * Returns a publisher of the same results whose subscribers buffer up to the supplied number
+     * of results.
+     *
+     * @param capacity the maximum number of results waiting for a subscriber
+     * @return the publisher
+     */
+    public ValidationPublisher buffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+
+        return new ValidationPublisher(this.subscriptions, capacity, this.distinct);
+    }
+
+    /**
+     * Returns a publisher of the same results whose subscribers only keep the latest result
+     * while they aren't requesting.
+     *
+     * @return the publisher
+     */
+    public ValidationPublisher latestOnly() {
+        return buffer(1);
+    }
+
+    /**
+     * Returns a publisher of the same results whose subscribers don't receive a result that is
+     * the same as the one they received before.
+     *
+     * @return the publisher
+     */
+    public ValidationPublisher distinctUntilChanged() {
+        return new ValidationPublisher(this.subscriptions, this.capacity, true);
+    }
+
+    @Override
+    public void subscribe(ValidationFlow.Subscriber<? super Validator.ValidationResult> subscriber) {
+        BufferedSubscription subscription = new BufferedSubscription(this.subscriptions, subscriber, this.capacity, this.distinct);
+        this.subscriptions.list.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Publishes a result to every subscriber.
+     *
+     * @param validationResult the result
+     */
+    void publish(Validator.ValidationResult validationResult) {
+        this.subscriptions.publishedCount.incrementAndGet();
+
+        for (BufferedSubscription subscription : this.subscriptions.list) {
+            subscription.offer(validationResult);
+        }
+    }
+
+    /**
+     * Returns the number of subscribers.
+     *
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount() {
+        return this.subscriptions.list.size();
+    }
+
+    /**
+     * Returns the number of results published.
+     *
+     * @return the number of results
+     */
+    public long getPublishedCount() {
+        return this.subscriptions.publishedCount.get();
+    }
+
+    /**
+     * Returns the number of results dropped because a subscriber's buffer was full.
+     *
+     * @return the number of dropped results
+     */
+    public long getDroppedCount() {
+        return this.subscriptions.droppedCount.get();
+    }
+
+    /**
+     * The subscription of a single subscriber and its buffer.
+     */
+    private static final class BufferedSubscription implements ValidationFlow.Subscription {
+        private final Subscriptions subscriptions;
+        private final ValidationFlow.Subscriber<? super Validator.ValidationResult> subscriber;
+        private final int capacity;
+        private final boolean distinct;
+        private final ArrayDeque<Validator.ValidationResult> buffer;
+        private final AtomicInteger drainCount = new AtomicInteger();
+        private Validator.ValidationResult lastDelivered;
+        private long requested = 0;
+        private boolean cancelled = false;
+        private Throwable error;
+
+        BufferedSubscription(Subscriptions subscriptions, ValidationFlow.Subscriber<? super Validator.ValidationResult> subscriber, int capacity, boolean distinct) {
+            this.subscriptions = subscriptions;
+            this.subscriber = subscriber;
+            this.capacity = capacity;
+            this.distinct = distinct;
+            this.buffer = new ArrayDeque<>(capacity);
+        }
+
+        /**
+         * Adds a result to the buffer and delivers it if the subscriber has requested it.
+         */
+        void offer(Validator.ValidationResult validationResult) {
+            synchronized (this) {
+                if (this.cancelled) {
+                    return;
+                }
+
+                Validator.ValidationResult previous = this.buffer.isEmpty() ? this.lastDelivered : this.buffer.peekLast();
+                if (this.distinct && validationResult == previous) {
+                    return;
+                }
+
+                if (this.buffer.size() == this.capacity) {
+                    this.buffer.pollFirst();
+                    this.subscriptions.droppedCount.incrementAndGet();
+                }
+                this.buffer.offerLast(validationResult);
+            }
+
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (this.cancelled) {
+                    return;
+                }
+
+                if (n <= 0) {
+                    this.error = new IllegalArgumentException("n must be greater than 0");
+                } else {
+
+                    // Saturate rather than overflow, Long.MAX_VALUE means unbounded.
+                    this.requested = this.requested + n < 0 ? Long.MAX_VALUE : this.requested + n;
+                }
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                this.cancelled = true;
+                this.buffer.clear();
+            }
+
+            this.subscriptions.list.remove(this);
+        }
+
+        /**
+         * Delivers the requested results. Only one thread delivers at a time, so the subscriber
+         * is never called concurrently. A thread that finds another one delivering leaves the
+         * work to it.
+         */
+        private void drain() {
+            if (this.drainCount.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+            do {
+                while (true) {
+                    Validator.ValidationResult next;
+                    Throwable error;
+
+                    synchronized (this) {
+                        error = this.error;
+                        if (error != null) {
+                            this.error = null;
+                            this.cancelled = true;
+                            this.buffer.clear();
+                        }
+
+                        if (error != null || this.cancelled || this.requested == 0 || this.buffer.isEmpty()) {
+                            next = null;
+                        } else {
+                            next = this.buffer.pollFirst();
+
+                            // The buffer may have been conflated to the result delivered last.
+                            if (this.distinct && next == this.lastDelivered) {
+                                continue;
+                            }
+
+                            this.lastDelivered = next;
+                            if (this.requested != Long.MAX_VALUE) {
+                                this.requested--;
+                            }
+                        }
+                    }
+
+                    if (error != null) {
+                        this.subscriptions.list.remove(this);
+                        this.subscriber.onError(error);
+                    }
+                    if (next == null) {
+                        break;
+                    }
+
+                    this.subscriber.onNext(next);
+                }
+
+                missed = this.drainCount.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
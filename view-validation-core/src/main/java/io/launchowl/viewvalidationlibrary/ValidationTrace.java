@@ -0,0 +1,533 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class records what the validation engine did as a timeline of events, so a validation
+ * that got stuck can be reconstructed afterwards.
+ * <p>
+ * Events are written to a ring buffer with a fixed capacity. Once it is full, the oldest events
+ * are overwritten. Recording an event doesn't lock or allocate: it claims a slot with a single
+ * atomic increment and stores a few numbers in it. A recorded condition is identified by its
+ * class and identity hash code, so the trace never keeps a condition, or the view it
+ * references, alive. This makes a trace cheap enough to leave on in production.
+ * <p>
+ * A trace is added via {@link Criteria#trace(ValidationTrace)},
+ * {@link Validator#setTrace(ValidationTrace)} or {@link ValidatorSet#trace(ValidationTrace)}
+ * and can be shared by all of them. It is dumped on demand, either to a compact binary file
+ * that can be read back with {@link #readBinary(InputStream)}, or to a JSON file in the Chrome
+ * trace event format, which can be opened in {@code chrome://tracing} or Perfetto:
+ * <p>
+ * <pre>
+ * {@code
+ *  ValidationTrace trace = new ValidationTrace();
+ *  validatorSet.trace(trace);
+ *  ...
+ *  try (Writer writer = new FileWriter(file)) {
+ *      trace.writeChromeTrace(writer);
+ *  }
+ * }
+ * </pre>
+ * <p>
+ * This class is thread safe.
+ */
+public final class ValidationTrace {
+
+    /**
+     * The capacity used by {@link #ValidationTrace()}.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // Identifies the binary format written by writeBinary(OutputStream).
+    private static final int MAGIC = 0x56565431;
+
+    private static final EventType[] TYPES = EventType.values();
+    private static final Validator.ValidationResult[] RESULTS = Validator.ValidationResult.values();
+
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+
+    // The index of the event in each slot, or -1 while it is being written.
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray timestamps;
+    private final AtomicLongArray threads;
+
+    // | type (8 bits) | result (8 bits) | generation (32 bits) |
+    private final AtomicLongArray details;
+    private final AtomicIntegerArray subjectIds;
+    private final AtomicReferenceArray<Class<?>> subjectTypes;
+
+    /**
+     * The kinds of event that are recorded.
+     */
+    public enum EventType {
+
+        /**
+         * A {@link Criteria} started a new round.
+         */
+        EvaluateStarted,
+
+        /**
+         * A {@link Criteria.Condition} or {@link Criteria.AsyncCondition} started its
+         * evaluation.
+         */
+        ConditionStarted,
+
+        /**
+         * A {@link Criteria.Condition} or {@link Criteria.AsyncCondition} completed, or an
+         * {@link Criteria.AsyncCondition} missed its deadline.
+         */
+        ConditionEnded,
+
+        /**
+         * An {@link Criteria.AsyncCondition} was cancelled while it was running.
+         */
+        ConditionCancelled,
+
+        /**
+         * A result was dropped because it belonged to an earlier round, or its round was
+         * already decided.
+         */
+        StaleResultDropped,
+
+        /**
+         * The {@link Observer} objects of a {@link Validator} were notified of the result.
+         */
+        ObserversNotified
+    }
+
+    /**
+     * A single recorded event.
+     */
+    public static final class Event {
+        private final long timestampNanos;
+        private final EventType type;
+        private final int generation;
+        private final Validator.ValidationResult result;
+        private final long threadId;
+        private final int subjectId;
+        private final String subjectName;
+
+        Event(long timestampNanos, EventType type, int generation, Validator.ValidationResult result,
+              long threadId, int subjectId, String subjectName) {
+            this.timestampNanos = timestampNanos;
+            this.type = type;
+            this.generation = generation;
+            this.result = result;
+            this.threadId = threadId;
+            this.subjectId = subjectId;
+            this.subjectName = subjectName;
+        }
+
+        /**
+         * Returns the time of the event, as returned by {@link System#nanoTime()}.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getTimestampNanos() {
+            return this.timestampNanos;
+        }
+
+        /**
+         * Returns the kind of event.
+         *
+         * @return the type
+         */
+        public EventType getType() {
+            return this.type;
+        }
+
+        /**
+         * Returns the round of the {@link Criteria} the event belongs to.
+         *
+         * @return the generation of the round
+         */
+        public int getGeneration() {
+            return this.generation;
+        }
+
+        /**
+         * Returns the result of a condition or validation.
+         *
+         * @return the result, or null if the event doesn't have one
+         */
+        public Validator.ValidationResult getResult() {
+            return this.result;
+        }
+
+        /**
+         * Returns the id of the thread that recorded the event.
+         *
+         * @return the thread id
+         */
+        public long getThreadId() {
+            return this.threadId;
+        }
+
+        /**
+         * Returns the identity hash code of the object the event is about, which tells apart
+         * objects of the same class.
+         *
+         * @return the identity hash code
+         */
+        public int getSubjectId() {
+            return this.subjectId;
+        }
+
+        /**
+         * Returns the class name of the object the event is about: a {@link Criteria}, a
+         * condition or a {@link Validator}.
+         *
+         * @return the class name
+         */
+        public String getSubjectName() {
+            return this.subjectName;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d %s %s@%08x generation=%d result=%s thread=%d",
+                    this.timestampNanos, this.type, this.subjectName, this.subjectId,
+                    this.generation, this.result, this.threadId);
+        }
+    }
+
+    /**
+     * Class constructor that keeps the last {@link #DEFAULT_CAPACITY} events.
+     */
+    public ValidationTrace() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Class constructor specifying how many events are kept.
+     *
+     * @param capacity the number of events kept, rounded up to a power of two
+     */
+    public ValidationTrace(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30.");
+        }
+
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.timestamps = new AtomicLongArray(size);
+        this.threads = new AtomicLongArray(size);
+        this.details = new AtomicLongArray(size);
+        this.subjectIds = new AtomicIntegerArray(size);
+        this.subjectTypes = new AtomicReferenceArray<>(size);
+
+        for (int slot = 0; slot < size; slot++) {
+            this.sequences.set(slot, -1);
+        }
+    }
+
+    /**
+     * Records an event. May be called from any thread.
+     *
+     * @param type the kind of event
+     * @param subject the object the event is about
+     * @param generation the round the event belongs to
+     * @param result the result of the condition or validation, or null
+     * @param timestampNanos the time of the event, as returned by {@link System#nanoTime()}
+     */
+    void record(EventType type, Object subject, int generation, Validator.ValidationResult result, long timestampNanos) {
+        long index = this.next.getAndIncrement();
+        int slot = (int) (index & this.mask);
+
+        // Readers skip the slot until the event is complete. The stores below are ordered after
+        // this one, so a reader never mistakes a half overwritten slot for the previous event.
+        this.sequences.set(slot, -1);
+        this.timestamps.lazySet(slot, timestampNanos);
+        this.threads.lazySet(slot, Thread.currentThread().getId());
+        this.details.lazySet(slot, ((long) type.ordinal() << 40)
+                | ((long) (result == null ? 0 : result.ordinal() + 1) << 32)
+                | (generation & 0xFFFFFFFFL));
+        this.subjectIds.lazySet(slot, System.identityHashCode(subject));
+        this.subjectTypes.lazySet(slot, subject.getClass());
+        this.sequences.lazySet(slot, index);
+    }
+
+    /**
+     * Returns the number of events kept before the oldest are overwritten.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Returns the number of events recorded since this trace was created, including those that
+     * have been overwritten.
+     *
+     * @return the number of events
+     */
+    public long getRecordedCount() {
+        return this.next.get();
+    }
+
+    /**
+     * Returns the events currently in the ring buffer, oldest first.
+     * <p>
+     * Events that are overwritten or still being written while the snapshot is taken are
+     * left out.
+     *
+     * @return the events
+     */
+    public List<Event> snapshot() {
+        long end = this.next.get();
+        long start = Math.max(0, end - getCapacity());
+        List<Event> events = new ArrayList<>((int) (end - start));
+
+        for (long index = start; index < end; index++) {
+            int slot = (int) (index & this.mask);
+
+            if (this.sequences.get(slot) != index) {
+                continue;
+            }
+
+            long timestampNanos = this.timestamps.get(slot);
+            long threadId = this.threads.get(slot);
+            long detail = this.details.get(slot);
+            int subjectId = this.subjectIds.get(slot);
+            Class<?> subjectType = this.subjectTypes.get(slot);
+
+            // The slot was overwritten while it was read.
+            if (this.sequences.get(slot) != index) {
+                continue;
+            }
+
+            int result = (int) (detail >>> 32) & 0xFF;
+            events.add(new Event(timestampNanos, TYPES[(int) (detail >>> 40)], (int) detail,
+                    result == 0 ? null : RESULTS[result - 1], threadId, subjectId, subjectType.getName()));
+        }
+
+        return Collections.unmodifiableList(events);
+    }
+
+    /**
+     * Writes the events currently in the ring buffer in a compact binary format.
+     *
+     * @param outputStream the stream to write to, which isn't closed
+     * @throws IOException if the events can't be written
+     *
+     * @see #readBinary(InputStream)
+     */
+    public void writeBinary(OutputStream outputStream) throws IOException {
+        List<Event> events = snapshot();
+        DataOutputStream output = new DataOutputStream(outputStream);
+
+        // Each class name is written once.
+        Map<String, Integer> names = new HashMap<>();
+        List<String> nameTable = new ArrayList<>();
+        for (Event event : events) {
+            if (!names.containsKey(event.subjectName)) {
+                names.put(event.subjectName, nameTable.size());
+                nameTable.add(event.subjectName);
+            }
+        }
+
+        output.writeInt(MAGIC);
+        output.writeInt(nameTable.size());
+        for (String name : nameTable) {
+            output.writeUTF(name);
+        }
+
+        output.writeInt(events.size());
+        for (Event event : events) {
+            output.writeLong(event.timestampNanos);
+            output.writeByte(event.type.ordinal());
+            output.writeByte(event.result == null ? 0 : event.result.ordinal() + 1);
+            output.writeInt(event.generation);
+            output.writeLong(event.threadId);
+            output.writeInt(event.subjectId);
+            output.writeInt(names.get(event.subjectName));
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Reads events written by {@link #writeBinary(OutputStream)}.
+     *
+     * @param inputStream the stream to read from, which isn't closed
+     * @return the events, oldest first
+     * @throws IOException if the events can't be read or the stream isn't a trace
+     */
+    public static List<Event> readBinary(InputStream inputStream) throws IOException {
+        DataInputStream input = new DataInputStream(inputStream);
+
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a validation trace.");
+        }
+
+        String[] names = new String[input.readInt()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = input.readUTF();
+        }
+
+        int count = input.readInt();
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long timestampNanos = input.readLong();
+            EventType type = TYPES[input.readUnsignedByte()];
+            int result = input.readUnsignedByte();
+            int generation = input.readInt();
+            long threadId = input.readLong();
+            int subjectId = input.readInt();
+            String subjectName = names[input.readInt()];
+
+            events.add(new Event(timestampNanos, type, generation,
+                    result == 0 ? null : RESULTS[result - 1], threadId, subjectId, subjectName));
+        }
+
+        return Collections.unmodifiableList(events);
+    }
+
+    /**
+     * Writes the events currently in the ring buffer as JSON in the Chrome trace event format.
+     *
+     * @param writer the writer to write to, which isn't closed
+     * @throws IOException if the events can't be written
+     *
+     * @see #writeChromeTrace(List, Writer)
+     */
+    public void writeChromeTrace(Writer writer) throws IOException {
+        writeChromeTrace(snapshot(), writer);
+    }
+
+    /**
+     * Writes events as JSON in the Chrome trace event format, for example to convert a binary
+     * trace.
+     * <p>
+     * The evaluation of each condition is shown as a span from {@link EventType#ConditionStarted}
+     * to {@link EventType#ConditionEnded} or {@link EventType#ConditionCancelled}, so an
+     * evaluation that started on one thread and
+     * completed on another stays together. The other events are shown as instants on the thread
+     * that recorded them. Times are in microseconds since the earliest event.
+     *
+     * @param events the events, oldest first
+     * @param writer the writer to write to, which isn't closed
+     * @throws IOException if the events can't be written
+     */
+    public static void writeChromeTrace(List<Event> events, Writer writer) throws IOException {
+        long origin = Long.MAX_VALUE;
+        for (Event event : events) {
+            origin = Math.min(origin, event.timestampNanos);
+        }
+
+        StringBuilder json = new StringBuilder("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            if (i > 0) {
+                json.append(',');
+            }
+
+            switch (event.type) {
+                case ConditionStarted:
+                    appendSpan(json, event, 'b', origin);
+                    break;
+                case ConditionEnded:
+                    appendSpan(json, event, 'e', origin);
+                    break;
+                case ConditionCancelled:
+
+                    // A cancelled evaluation never ends, so its span is closed here.
+                    appendInstant(json, event, origin);
+                    json.append(',');
+                    appendSpan(json, event, 'e', origin);
+                    break;
+                default:
+                    appendInstant(json, event, origin);
+            }
+
+            // Keep the buffer small when there are many events.
+            if (json.length() > 8192) {
+                writer.write(json.toString());
+                json.setLength(0);
+            }
+        }
+
+        writer.write(json.append("\n]}\n").toString());
+        writer.flush();
+    }
+
+    /**
+     * Appends one end of the span of a condition's evaluation, identified by the condition and
+     * its round.
+     */
+    private static void appendSpan(StringBuilder json, Event event, char phase, long origin) {
+        json.append("\n{\"name\":");
+        appendString(json, event.subjectName);
+        json.append(",\"cat\":\"condition\",\"ph\":\"").append(phase)
+                .append("\",\"id\":\"").append(Integer.toHexString(event.subjectId))
+                .append(':').append(event.generation).append('"');
+        appendCommon(json, event, origin);
+    }
+
+    /**
+     * Appends an event that happened at a single point in time on the thread that recorded it.
+     */
+    private static void appendInstant(StringBuilder json, Event event, long origin) {
+        json.append("\n{\"name\":\"").append(event.type)
+                .append("\",\"cat\":\"validation\",\"ph\":\"i\",\"s\":\"t\"");
+        appendCommon(json, event, origin);
+    }
+
+    private static void appendCommon(StringBuilder json, Event event, long origin) {
+
+        // Microseconds with three decimals, written by hand so the locale doesn't matter.
+        long nanos = event.timestampNanos - origin;
+        json.append(",\"ts\":").append(nanos / 1000).append('.')
+                .append((char) ('0' + nanos % 1000 / 100))
+                .append((char) ('0' + nanos % 100 / 10))
+                .append((char) ('0' + nanos % 10))
+                .append(",\"pid\":1,\"tid\":").append(event.threadId)
+                .append(",\"args\":{\"subject\":");
+        appendString(json, event.subjectName + '@' + Integer.toHexString(event.subjectId));
+        json.append(",\"generation\":").append(event.generation);
+        if (event.result != null) {
+            json.append(",\"result\":\"").append(event.result).append('"');
+        }
+        json.append("}}");
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+
+        json.append('"');
+    }
+}
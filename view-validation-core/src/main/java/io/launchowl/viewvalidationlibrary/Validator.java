@@ -0,0 +1,298 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is responsible for evaluating whether a view is valid.
+ * <p>
+ * The validator acts as a mediator between the <i>view</i> being evaluated
+ * and the <i>views</i> that need to be updated. This separation of responsibility
+ * alleviates the {@code Activity} from changing state of multiple views
+ * and hands it off the {@link Observer} objects.
+ * <p>
+ * A {@link Criteria} object supplied to a validator object contains all the conditions that must
+ * be tested in order to determine if a view is valid.
+ * <p>
+ * The state of the view under test is communicated to all {@link Observer} instances listening
+ * as a {@link ValidationResult} value. It is also published as a stream with flow control, see
+ * {@link #results()}.
+ *
+ * @param <T> the view being evaluated for a valid state
+ */
+public class Validator<T> implements Validation {
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    Set<Observer> observers;
+    Criteria<T> criteria;
+    Executor executor;
+    final ValidationPublisher publisher;
+    final Set<Listener> listeners;
+    private long validationStart;
+    private boolean validating = false;
+    private volatile long averageLatencyMillis = 0;
+    private ValidationMetrics metrics;
+    private ValidationTrace trace;
+    public enum ValidationResult {
+        Valid,
+        Invalid,
+
+        /**
+         * The result couldn't be determined, for example because an
+         * {@link Criteria.AsyncCondition} missed its deadline.
+         */
+        Unknown
+    }
+
+    /**
+     * Class constructor that is supplied a {@link Criteria} object.
+     *
+     * @param criteria a {@link Criteria} object that contains all conditions to be tested
+     */
+    public Validator(Criteria<T> criteria) {
+        this.observers = new HashSet<>();
+        this.criteria = criteria;
+        this.publisher = new ValidationPublisher();
+        this.listeners = new CopyOnWriteArraySet<>();
+    }
+
+    /**
+     * Receives the progress of each validation, so a {@link ValidatorSet} can keep count of its
+     * members without observing them. Called on the main UI thread.
+     */
+    interface Listener {
+
+        /**
+         * Called when a validation starts, unless it completed immediately.
+         */
+        void onValidationStarted();
+
+        /**
+         * Called after the {@link Observer} objects have been notified of the result.
+         *
+         * @param validationResult the result of the validation
+         */
+        void onValidationComplete(ValidationResult validationResult);
+
+        /**
+         * Called when the validation is cancelled before it completes.
+         */
+        void onValidationCancelled();
+    }
+
+    /**
+     * Add an {@link Observer}.
+     * <p>
+     * Multiple observers can be supplied as a comma-delimited list.
+     *
+     * @param observers one or more {@link Observer} objects
+     */
+    public void observe(Observer... observers) {
+        Collections.addAll(this.observers, observers);
+    }
+
+    /**
+     * Returns the stream of validation results.
+     * <p>
+     * Every result delivered to the {@link Observer} objects is also published to the
+     * subscribers of the returned publisher, for example:
+     * <p>
+     * <pre>
+     * {@code
+     *  validator.results().latestOnly().distinctUntilChanged().subscribe(subscriber);
+     * }
+     * </pre>
+     *
+     * @return the publisher of the results
+     */
+    public ValidationPublisher results() {
+        return this.publisher;
+    }
+
+    /**
+     * Sets the {@link Executor} used to run the asynchronous conditions of the {@link Criteria}.
+     * <p>
+     * An executor set on the {@link Criteria} via {@link Criteria#executor(Executor)} takes
+     * precedence over this one.
+     *
+     * @param executor the executor to use, or null to use the global default
+     *
+     * @see ValidationExecutors
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the {@link ValidationMetrics} sink that receives the measurements of this validator
+     * and its {@link Criteria}, including the time from {@link #validate()} until every
+     * {@link Observer} has been notified.
+     *
+     * @param metrics the sink, or null to stop reporting
+     *
+     * @see Criteria#metrics(ValidationMetrics)
+     */
+    public void setMetrics(ValidationMetrics metrics) {
+        this.metrics = metrics;
+        this.criteria.metrics(metrics);
+    }
+
+    /**
+     * Sets the {@link ValidationTrace} that records the events of this validator and its
+     * {@link Criteria}, including when the {@link Observer} objects are notified.
+     *
+     * @param trace the trace, or null to stop recording
+     *
+     * @see Criteria#trace(ValidationTrace)
+     */
+    public void setTrace(ValidationTrace trace) {
+        this.trace = trace;
+        this.criteria.trace(trace);
+    }
+
+    /**
+     * Evaluate all conditions that belong to the {@link Criteria} object.
+     */
+    @Override
+    public void validate() {
+        this.validationStart = System.nanoTime();
+        this.validating = true;
+
+        /* Java 8
+         *  => Method Reference
+         */
+        this.criteria.evaluate(this::onValidated, this.executor);
+        notifyStarted();
+    }
+
+    /**
+     * Evaluate all conditions that belong to the {@link Criteria} object and return a future
+     * that completes with the result.
+     * <p>
+     * Must be called on the main UI thread. The {@link Observer} objects are notified first, then
+     * the future completes on the main UI thread. If the validation is superseded by a newer one
+     * or cancelled, the future is cancelled.
+     *
+     * @return a future that completes with the result of the validation
+     */
+    public CompletableFuture<ValidationResult> validateAsync() {
+        this.validationStart = System.nanoTime();
+        this.validating = true;
+
+        /* Java 8
+         *  => Method Reference
+         */
+        CompletableFuture<ValidationResult> future = this.criteria.evaluateAsync(this::onValidated, this.executor);
+        notifyStarted();
+
+        return future;
+    }
+
+    /**
+     * Notifies the listeners that a validation has started, if it is still running.
+     */
+    private void notifyStarted() {
+        if (this.validating) {
+
+            /* Java 8
+             *  => collection.forEach(Consumer<? super T> action)
+             *  => Method Reference
+             */
+            this.listeners.forEach(Listener::onValidationStarted);
+        }
+    }
+
+    /**
+     * Records the latency of a completed validation and notifies the observers.
+     *
+     * @param validationResult the result of the validation
+     */
+    private void onValidated(ValidationResult validationResult) {
+        this.validating = false;
+        recordLatency(System.nanoTime() - this.validationStart);
+        Notifier.notify(observers, validationResult);
+
+        ValidationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.onValidationComplete(this, System.nanoTime() - this.validationStart, validationResult);
+        }
+
+        ValidationTrace trace = this.trace;
+        if (trace != null) {
+            trace.record(ValidationTrace.EventType.ObserversNotified, this, this.criteria.getGeneration(),
+                    validationResult, System.nanoTime());
+        }
+
+        this.publisher.publish(validationResult);
+
+        /* Java 8
+         *  => collection.forEach(Consumer<? super T> action)
+         *  => Lambda Expression
+         */
+        this.listeners.forEach(listener -> listener.onValidationComplete(validationResult));
+    }
+
+    /**
+     * Returns the smoothed time between {@link #validate()} and the observers being notified.
+     *
+     * @return the average latency in milliseconds, or 0 if no validation has completed
+     */
+    @Override
+    public long getAverageLatencyMillis() {
+        return this.averageLatencyMillis;
+    }
+
+    /**
+     * Folds the latency of a completed validation into the average.
+     *
+     * @param latencyNanos the latency of the completed validation in nanoseconds
+     */
+    private void recordLatency(long latencyNanos) {
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+
+        this.averageLatencyMillis = this.averageLatencyMillis == 0
+                ? latencyMillis
+                : (long) (LATENCY_SMOOTHING * latencyMillis + (1 - LATENCY_SMOOTHING) * this.averageLatencyMillis);
+    }
+
+    public void cancelValidation() {
+        this.criteria.cancelValidation();
+        this.validating = false;
+        this.listeners.forEach(Listener::onValidationCancelled);
+    }
+
+    /**
+     * Returns a collection of {@link Observer} objects that have been added via {@link #observe(Observer[])}.
+     * <p>
+     * For testing.
+     * @return a collection of {@link Observer} objects
+     */
+    Set<Observer> getObservers() {
+        return this.observers;
+    }
+
+    /**
+     * A class that notifies a collection of {@link Observer} objects.
+     */
+    private static class Notifier {
+        /**
+         * Notifies a collection of {@link Observer} objects with the state of the
+         * view that's being evaluated.
+         *
+         * @param observers a collection of {@link Observer} objects
+         * @param validationResult the state of the view being evaluated
+         */
+         static void notify(Set<Observer> observers, ValidationResult validationResult) {
+
+             /* Java 8
+              *  => collection.forEach(Consumer<? super T> action)
+              */
+             observers.forEach(observer -> observer.update(validationResult));
+        }
+    }
+}
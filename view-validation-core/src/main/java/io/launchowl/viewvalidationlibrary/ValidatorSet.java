@@ -0,0 +1,506 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class can be used to evaluate multiple {@link Validator} objects.
+ * <p>
+ * The best case scenario to use a ValidatorSet is when there are multiple
+ * views or validations that need to be evaluated before continuing.
+ * <p>
+ * For example,
+ * a registration {@code Activity} might contain multiple views for
+ * capturing information about an individual. Instead of evaluating each
+ * view after text is changed, all views could be evaluated when a
+ * <i>continue</i> button is pressed.
+ * <p>
+ * The combined result of all {@link Validator} objects can be awaited via
+ * {@link #validateAsync()}, for example to submit the form once every view is valid.
+ * <p>
+ * A ValidatorSet also keeps count of how many of its {@link Validator} objects are valid,
+ * invalid, unknown or still pending, whether they were validated through the set or on their
+ * own. The counts are updated in constant time as each {@link Validator} starts and completes,
+ * so the form-level result stays cheap for forms with thousands of views. The {@link Observer}
+ * objects added via {@link #observe(Observer[])} are only notified when the form-level result
+ * changes, for example to enable a submit button:
+ * <p>
+ * <pre>
+ * {@code
+ *  validatorSet.observe(new Observer<Button>(submitButton) {
+ *      protected void onValidationComplete(Button view, Validator.ValidationResult validationResult) {
+ *          view.setEnabled(validationResult == Validator.ValidationResult.Valid);
+ *      }
+ *  });
+ * }
+ * </pre>
+ * <p>
+ * The counts are kept on the main UI thread, where the {@link Validator} objects are validated.
+ * <p>
+ * The {@link Criteria.Condition} objects of every {@link Validator} can be evaluated in parallel
+ * via {@link #parallel(boolean)}, so the conditions of all views share the work-stealing pool.
+ * <p>
+ * A {@link ValidationMetrics} sink can be added to every {@link Validator} via
+ * {@link #metrics(ValidationMetrics)}, and a {@link ValidationTrace} via
+ * {@link #trace(ValidationTrace)}.
+ */
+public class ValidatorSet implements Validation {
+    private static final int VALID = 0;
+    private static final int INVALID = 1;
+    private static final int UNKNOWN = 2;
+    private static final int PENDING = 3;
+
+    private final Map<Validator, Member> members;
+    private final Set<Observer> observers;
+    private final int[] counts = new int[4];
+    private Validator.ValidationResult publishedResult;
+    private int batchDepth = 0;
+    private Boolean parallel;
+    private ValidationMetrics metrics;
+    private ValidationTrace trace;
+
+    /**
+     * Tracks the state of a single {@link Validator} in the set.
+     */
+    private final class Member implements Validator.Listener {
+        private int state = PENDING;
+        private Validator.ValidationResult lastResult;
+
+        @Override
+        public void onValidationStarted() {
+            moveTo(PENDING);
+        }
+
+        @Override
+        public void onValidationComplete(Validator.ValidationResult validationResult) {
+            this.lastResult = validationResult;
+            moveTo(stateOf(validationResult));
+        }
+
+        @Override
+        public void onValidationCancelled() {
+            moveTo(this.lastResult == null ? PENDING : stateOf(this.lastResult));
+        }
+
+        private void moveTo(int state) {
+            if (state == this.state) {
+                return;
+            }
+
+            counts[this.state]--;
+            counts[state]++;
+            this.state = state;
+            publish();
+        }
+    }
+
+    /**
+     * Class constructor.
+     */
+    public ValidatorSet() {
+        this.members = new LinkedHashMap<>();
+        this.observers = new HashSet<>();
+    }
+
+    /**
+     * Class constructor that accepts a {@link Validator} object.
+     * <p>
+     * Multiple {@link Validator} objects can be supplied as a comma-delimited list.
+     *
+     * @param validators one or more {@link Validator} objects
+     */
+    public ValidatorSet(Validator ...validators) {
+        this();
+        add(validators);
+    }
+
+    /**
+     * Adds a {@link Validator}.
+     *
+     * @param validator a {@link Validator}
+     *
+     * @return true if the {@link Validator} was added, otherwise false
+     */
+    @SuppressWarnings("unchecked")
+    public boolean add(Validator validator) {
+        if (this.members.containsKey(validator)) {
+            return false;
+        }
+
+        if (this.parallel != null) {
+            validator.criteria.parallel(this.parallel);
+        }
+        if (this.metrics != null) {
+            validator.setMetrics(this.metrics);
+        }
+        if (this.trace != null) {
+            validator.setTrace(this.trace);
+        }
+
+        Member member = new Member();
+        this.members.put(validator, member);
+        this.counts[member.state]++;
+        validator.listeners.add(member);
+        publish();
+
+        return true;
+    }
+
+    /**
+     * Adds multiple {@link Validator} objects.
+     * <p>
+     * Multiple {@link Validator} objects can be supplied as a comma-delimited list.
+     *
+     * @param validators one or more {@link Validator} objects
+     *
+     * @return true if all the {@link Validator} was added, otherwise false
+     */
+    public boolean add(Validator ...validators) {
+        boolean added = false;
+
+        this.batchDepth++;
+        try {
+            for (Validator validator : validators) {
+                added |= add(validator);
+            }
+        } finally {
+            this.batchDepth--;
+        }
+
+        publish();
+        return added;
+    }
+
+    /**
+     * Removes a {@link Validator} object.
+     *
+     * @param validator the {@link Validator} to be removed
+     *
+     * @return true if the {@link Validator} was found and removed, otherwise false
+     */
+    public boolean remove(Validator validator) {
+        Member member = this.members.remove(validator);
+        if (member == null) {
+            return false;
+        }
+
+        validator.listeners.remove(member);
+        this.counts[member.state]--;
+        publish();
+
+        return true;
+    }
+
+    /**
+     * Sets whether the {@link Criteria.Condition} objects of every {@link Validator} in this set,
+     * including those added later, are evaluated in parallel.
+     *
+     * @param parallel true to evaluate the conditions in parallel
+     * @return this {@link ValidatorSet} instance
+     *
+     * @see Criteria#parallel(boolean)
+     */
+    public ValidatorSet parallel(boolean parallel) {
+        this.parallel = parallel;
+
+        for (Validator validator : this.members.keySet()) {
+            validator.criteria.parallel(parallel);
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets the {@link ValidationMetrics} sink of every {@link Validator} in this set, including
+     * those added later.
+     *
+     * @param metrics the sink, or null to stop reporting
+     * @return this {@link ValidatorSet} instance
+     *
+     * @see Validator#setMetrics(ValidationMetrics)
+     */
+    public ValidatorSet metrics(ValidationMetrics metrics) {
+        this.metrics = metrics;
+
+        for (Validator validator : this.members.keySet()) {
+            validator.setMetrics(metrics);
+        }
+
+        return this;
+    }
+
+    /**
+     * Sets the {@link ValidationTrace} of every {@link Validator} in this set, including those
+     * added later.
+     *
+     * @param trace the trace, or null to stop recording
+     * @return this {@link ValidatorSet} instance
+     *
+     * @see Validator#setTrace(ValidationTrace)
+     */
+    public ValidatorSet trace(ValidationTrace trace) {
+        this.trace = trace;
+
+        for (Validator validator : this.members.keySet()) {
+            validator.setTrace(trace);
+        }
+
+        return this;
+    }
+
+    /**
+     * Add an {@link Observer} that is notified when the form-level result changes.
+     * <p>
+     * Multiple observers can be supplied as a comma-delimited list.
+     *
+     * @param observers one or more {@link Observer} objects
+     *
+     * @see #getResult()
+     */
+    public void observe(Observer... observers) {
+        Collections.addAll(this.observers, observers);
+    }
+
+    /**
+     * Returns a collection of {@link Validator} objects associated with this instance.
+     * <p>
+     * For testing.
+     *
+     * @return a collection of {@link Validator} objects associated with this instance
+     */
+    Set<Validator> getValidators() {
+        return Collections.unmodifiableSet(this.members.keySet());
+    }
+
+    /**
+     * Requests each {@link Validator} associated with this instance to validate istelf
+     * by calling the {@link Validator#validate()} method.
+     */
+    @Override
+    public void validate() {
+        this.batchDepth++;
+        try {
+
+            /* Java 8
+             *  => collection.forEach(Consumer<? super T> action)
+             *  => Method Reference
+             */
+            this.members.keySet().forEach(Validator::validate);
+        } finally {
+            this.batchDepth--;
+        }
+
+        // Validators that completed immediately don't flicker the form-level result.
+        publish();
+    }
+
+    /**
+     * Requests each {@link Validator} associated with this instance to validate itself and
+     * returns a future that completes once all of them have.
+     * <p>
+     * Must be called on the main UI thread. The result is
+     * {@link Validator.ValidationResult#Invalid} if any {@link Validator} is invalid, otherwise
+     * {@link Validator.ValidationResult#Unknown} if any result is unknown, otherwise
+     * {@link Validator.ValidationResult#Valid}. The future completes on the main UI thread when
+     * the last {@link Validator} completes, and is cancelled if any of them is superseded or
+     * cancelled.
+     *
+     * @return a future that completes with the combined result
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Validator.ValidationResult> validateAsync() {
+        final List<CompletableFuture<Validator.ValidationResult>> futures = new ArrayList<>();
+
+        this.batchDepth++;
+        try {
+            for (Validator validator : this.members.keySet()) {
+                futures.add(validator.validateAsync());
+            }
+        } finally {
+            this.batchDepth--;
+        }
+
+        publish();
+
+        final CompletableFuture<Validator.ValidationResult> result = new CompletableFuture<>();
+
+        // Cancelled as soon as a member is. A dependent stage of the members would only complete
+        // exceptionally, and not before every member is done.
+        for (CompletableFuture<Validator.ValidationResult> future : futures) {
+
+            /* Java 8
+             *  => future.whenComplete(BiConsumer<? super T, ? super Throwable> action)
+             *  => Lambda Expression
+             */
+            future.whenComplete((validationResult, throwable) -> {
+                if (throwable instanceof CancellationException) {
+                    result.cancel(false);
+                } else if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                }
+            });
+        }
+
+        /* Java 8
+         *  => CompletableFuture.allOf(CompletableFuture<?>... cfs)
+         *  => Lambda Expression
+         */
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+                .thenAccept(ignored -> result.complete(combine(futures)));
+
+        return result;
+    }
+
+    /**
+     * Combines the results of completed futures. Invalid takes precedence over Unknown, which
+     * takes precedence over Valid.
+     *
+     * @param futures the completed futures
+     * @return the combined result
+     */
+    private static Validator.ValidationResult combine(List<CompletableFuture<Validator.ValidationResult>> futures) {
+        Validator.ValidationResult result = Validator.ValidationResult.Valid;
+
+        for (CompletableFuture<Validator.ValidationResult> future : futures) {
+            Validator.ValidationResult validationResult = future.join();
+
+            if (validationResult == Validator.ValidationResult.Invalid) {
+                return validationResult;
+            }
+            if (validationResult == Validator.ValidationResult.Unknown) {
+                result = validationResult;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the form-level result.
+     * <p>
+     * The result is {@link Validator.ValidationResult#Invalid} if any {@link Validator} is
+     * invalid, otherwise {@link Validator.ValidationResult#Unknown} if any is unknown or still
+     * pending, otherwise {@link Validator.ValidationResult#Valid}.
+     *
+     * @return the form-level result
+     */
+    public Validator.ValidationResult getResult() {
+        if (this.counts[INVALID] > 0) {
+            return Validator.ValidationResult.Invalid;
+        }
+        if (this.counts[UNKNOWN] > 0 || this.counts[PENDING] > 0) {
+            return Validator.ValidationResult.Unknown;
+        }
+
+        return Validator.ValidationResult.Valid;
+    }
+
+    /**
+     * Returns the number of {@link Validator} objects whose latest result is valid.
+     *
+     * @return the number of valid validators
+     */
+    public int getValidCount() {
+        return this.counts[VALID];
+    }
+
+    /**
+     * Returns the number of {@link Validator} objects whose latest result is invalid.
+     *
+     * @return the number of invalid validators
+     */
+    public int getInvalidCount() {
+        return this.counts[INVALID];
+    }
+
+    /**
+     * Returns the number of {@link Validator} objects whose latest result is unknown.
+     *
+     * @return the number of unknown validators
+     */
+    public int getUnknownCount() {
+        return this.counts[UNKNOWN];
+    }
+
+    /**
+     * Returns the number of {@link Validator} objects that are being validated or have never
+     * been validated.
+     *
+     * @return the number of pending validators
+     */
+    public int getPendingCount() {
+        return this.counts[PENDING];
+    }
+
+    /**
+     * Notifies the observers if the form-level result has changed since they were last
+     * notified.
+     */
+    @SuppressWarnings("unchecked")
+    private void publish() {
+        if (this.batchDepth > 0) {
+            return;
+        }
+
+        final Validator.ValidationResult result = getResult();
+        if (result == this.publishedResult) {
+            return;
+        }
+
+        this.publishedResult = result;
+
+        /* Java 8
+         *  => collection.forEach(Consumer<? super T> action)
+         *  => Lambda Expression
+         */
+        this.observers.forEach(observer -> observer.update(result));
+    }
+
+    private static int stateOf(Validator.ValidationResult validationResult) {
+        if (validationResult == Validator.ValidationResult.Valid) {
+            return VALID;
+        }
+
+        return validationResult == Validator.ValidationResult.Invalid ? INVALID : UNKNOWN;
+    }
+
+    /**
+     * Returns the highest average latency of the {@link Validator} objects associated with
+     * this instance, since the set is only complete once its slowest member is.
+     *
+     * @return the average latency in milliseconds, or 0 if unknown
+     */
+    @Override
+    public long getAverageLatencyMillis() {
+
+        /* Java 8
+         *  => collection.stream()
+         *  => stream.mapToLong(ToLongFunction<? super T> mapper)
+         *  => LongStream.max()
+         */
+        return this.members.keySet().stream().mapToLong(Validator::getAverageLatencyMillis).max().orElse(0);
+    }
+
+    public void cancelValidation() {
+        this.batchDepth++;
+        try {
+
+            /* Java 8
+             *  => collection.forEach(Consumer<? super T> action)
+             *  => Method Reference
+             */
+            this.members.keySet().forEach(Validator::cancelValidation);
+        } finally {
+            this.batchDepth--;
+        }
+
+        publish();
+    }
+}
@@ -0,0 +1,209 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BatchingAsyncConditionTest {
+    private final ManualFrameScheduler frames = new ManualFrameScheduler();
+    private final List<Set<String>> lookups = new ArrayList<>();
+    private final Map<String, Validator.ValidationResult> results = new HashMap<>();
+    private Executor directExecutor;
+
+    @Before
+    public void setUp() throws Exception {
+        directExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+    }
+
+    private LookupBatcher<String> newBatcher(long windowMillis, int maxBatchSize) {
+        return new LookupBatcher<>(new LookupBatcher.BulkLookup<String>() {
+            @Override
+            public Map<String, Boolean> lookup(Set<String> keys, CancellationToken cancellationToken) {
+                synchronized (lookups) {
+                    lookups.add(keys);
+                }
+
+                // Only "realkiwi" is taken.
+                Map<String, Boolean> available = new HashMap<>();
+                for (String key : keys) {
+                    available.put(key, !key.equals("realkiwi"));
+                }
+                return available;
+            }
+        }, windowMillis, maxBatchSize, directExecutor);
+    }
+
+    private Criteria<String> newCriteria(String userName, LookupBatcher<String> batcher) {
+        return frames.newCriteria(userName).asyncTest(new BatchingAsyncCondition<String, String>(new Function<String, String>() {
+            @Override
+            public String apply(String view) {
+                return view;
+            }
+        }, batcher) {
+            @Override
+            MainThreadDispatcher getDispatcher() {
+                return frames.getDispatcher();
+            }
+        });
+    }
+
+    private void evaluate(final String userName, Criteria<String> criteria) {
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.put(userName, validationResult);
+            }
+        });
+    }
+
+    @Test
+    public void evaluate_OneBulkLookup_BatchFull() throws Exception {
+        LookupBatcher<String> batcher = newBatcher(TimeUnit.MINUTES.toMillis(1), 3);
+
+        for (String userName : Arrays.asList("realkiwi", "happyowl", "bluekiwi")) {
+            evaluate(userName, newCriteria(userName, batcher));
+        }
+        frames.runFrames();
+
+        assertEquals(1, lookups.size());
+        assertEquals(new LinkedHashSet<>(Arrays.asList("realkiwi", "happyowl", "bluekiwi")), lookups.get(0));
+        assertEquals(Validator.ValidationResult.Invalid, results.get("realkiwi"));
+        assertEquals(Validator.ValidationResult.Valid, results.get("happyowl"));
+        assertEquals(Validator.ValidationResult.Valid, results.get("bluekiwi"));
+        assertEquals(1, batcher.getBatchCount());
+    }
+
+    @Test
+    public void evaluate_SharesKey_SameKeyTwice() throws Exception {
+        final CountDownLatch looked = new CountDownLatch(1);
+        LookupBatcher<String> batcher = new LookupBatcher<>(new LookupBatcher.BulkLookup<String>() {
+            @Override
+            public Map<String, Boolean> lookup(Set<String> keys, CancellationToken cancellationToken) {
+                lookups.add(keys);
+                looked.countDown();
+
+                Map<String, Boolean> available = new HashMap<>();
+                available.put("happyowl", true);
+                return available;
+            }
+        }, 10, 10, directExecutor);
+
+        Criteria<String> first = newCriteria("happyowl", batcher);
+        Criteria<String> second = newCriteria("happyowl", batcher);
+        first.evaluate(null);
+        second.evaluate(null);
+
+        // The window sends the batch.
+        assertTrue(looked.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, lookups.size());
+        assertEquals(1, lookups.get(0).size());
+        assertEquals(2, batcher.getRequestCount());
+    }
+
+    @Test
+    public void evaluate_KeyRemoved_CancelledBeforeBatchSent() throws Exception {
+        LookupBatcher<String> batcher = newBatcher(TimeUnit.MINUTES.toMillis(1), 2);
+
+        Criteria<String> cancelled = newCriteria("realkiwi", batcher);
+        evaluate("realkiwi", cancelled);
+        cancelled.cancelValidation();
+
+        evaluate("happyowl", newCriteria("happyowl", batcher));
+        evaluate("bluekiwi", newCriteria("bluekiwi", batcher));
+        frames.runFrames();
+
+        assertEquals(new LinkedHashSet<>(Arrays.asList("happyowl", "bluekiwi")), lookups.get(0));
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void lookup_TokenCancelled_NoConditionWaiting() throws Exception {
+        final List<CancellationToken> tokens = new ArrayList<>();
+        LookupBatcher<String> batcher = new LookupBatcher<>(new LookupBatcher.BulkLookup<String>() {
+            @Override
+            public Map<String, Boolean> lookup(Set<String> keys, CancellationToken cancellationToken) {
+                tokens.add(cancellationToken);
+                return new HashMap<>();
+            }
+        }, 0, 1, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                // The lookup is only started by the test.
+                frames.scheduleFrame(command);
+            }
+        });
+
+        Criteria<String> criteria = newCriteria("happyowl", batcher);
+        evaluate("happyowl", criteria);
+        criteria.cancelValidation();
+        frames.runFrames();
+
+        assertEquals(1, tokens.size());
+        assertTrue(tokens.get(0).isCancelled());
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void evaluate_HedgeRunsOnExecutor_SlowBatch() throws Exception {
+        final CountDownLatch hedged = new CountDownLatch(1);
+        final AtomicInteger executions = new AtomicInteger();
+        LookupBatcher<String> batcher = newBatcher(TimeUnit.MINUTES.toMillis(1), 10);
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(0.9, 1, 100, 5);
+        for (int i = 0; i < 5; i++) {
+            hedgingPolicy.record(TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+
+        Criteria<String> criteria = frames.newCriteria("happyowl")
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        executions.incrementAndGet();
+                        command.run();
+                        hedged.countDown();
+                    }
+                })
+                .asyncTest(new BatchingAsyncCondition<String, String>(new Function<String, String>() {
+                    @Override
+                    public String apply(String view) {
+                        return view;
+                    }
+                }, batcher) {
+                    @Override
+                    MainThreadDispatcher getDispatcher() {
+                        return frames.getDispatcher();
+                    }
+                }.hedge(hedgingPolicy));
+
+        criteria.evaluate(null);
+
+        // The batch is still collecting keys, so the evaluation is hedged.
+        assertTrue(hedged.await(5, TimeUnit.SECONDS));
+
+        assertEquals(1, executions.get());
+        assertEquals(1, hedgingPolicy.getHedgeCount());
+        assertEquals(2, batcher.getRequestCount());
+        criteria.cancelValidation();
+    }
+}
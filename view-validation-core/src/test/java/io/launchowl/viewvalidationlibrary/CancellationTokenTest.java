@@ -0,0 +1,182 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CancellationTokenTest {
+
+    @Test
+    public void cancel_CallsRegisteredCallbacksOnce_CancelledTwice() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        CancellationToken cancellationToken = new CancellationToken();
+
+        cancellationToken.onCancelled(new Runnable() {
+            @Override
+            public void run() {
+                calls.incrementAndGet();
+            }
+        });
+        CancellationToken.Registration registration = cancellationToken.onCancelled(new Runnable() {
+            @Override
+            public void run() {
+                calls.addAndGet(100);
+            }
+        });
+        registration.unregister();
+
+        assertTrue(cancellationToken.cancel());
+        assertFalse(cancellationToken.cancel());
+        assertTrue(cancellationToken.isCancelled());
+        assertEquals(1, calls.get());
+
+        // A callback registered afterwards runs right away.
+        cancellationToken.onCancelled(new Runnable() {
+            @Override
+            public void run() {
+                calls.incrementAndGet();
+            }
+        });
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void newChild_CancelledWithParent_ParentCancelled() throws Exception {
+        CancellationToken parent = new CancellationToken();
+        CancellationToken child = parent.newChild();
+        CancellationToken cancelledChild = parent.newChild();
+
+        cancelledChild.cancel();
+
+        assertFalse(parent.isCancelled());
+        assertFalse(child.isCancelled());
+
+        parent.cancel();
+
+        assertTrue(child.isCancelled());
+    }
+
+    @Test
+    public void evaluate_TokenCancelled_InterruptSwallowed() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch stopped = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Criteria<String> criteria = new ManualFrameScheduler().newCriteria("launchowl")
+                .executor(executor)
+                .asyncTest(new CancellableAsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view, CancellationToken cancellationToken) {
+                        started.countDown();
+
+                        // Keeps going after being interrupted, but not after being cancelled.
+                        while (!cancellationToken.isCancelled()) {
+                            try {
+                                Thread.sleep(10);
+                            } catch (InterruptedException e) {
+                                // Ignored
+                            }
+                        }
+
+                        stopped.countDown();
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+                });
+
+        criteria.evaluate(null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        criteria.cancelValidation();
+
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    public void evaluate_PreviousTokenCancelled_NewRoundStarted() throws Exception {
+        final List<CancellationToken> tokens = new ArrayList<>();
+
+        Criteria<String> criteria = new Criteria<String>("launchowl")
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                })
+                .asyncTest(new CancellableAsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view, CancellationToken cancellationToken) {
+                        tokens.add(cancellationToken);
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+                });
+
+        criteria.evaluate(null);
+        criteria.evaluate(null);
+
+        assertEquals(2, tokens.size());
+        assertTrue(tokens.get(0).isCancelled());
+        assertFalse(tokens.get(1).isCancelled());
+    }
+
+    @Test
+    public void cancelValidation_EvaluationInterrupted_CallbackThrows() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        Criteria<String> criteria = new ManualFrameScheduler().newCriteria("launchowl")
+                .executor(executor)
+                .asyncTest(new CancellableAsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view, CancellationToken cancellationToken) {
+                        cancellationToken.onCancelled(new Runnable() {
+                            @Override
+                            public void run() {
+                                throw new IllegalStateException();
+                            }
+                        });
+                        started.countDown();
+
+                        try {
+                            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                        }
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+                });
+
+        criteria.evaluate(null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        criteria.cancelValidation();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,107 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrameBudgetWatchdogTest {
+    private final ManualFrameScheduler frames = new ManualFrameScheduler();
+    private final List<Validator.ValidationResult> results = new ArrayList<>();
+    private final List<FrameBudgetWatchdog.Offender> offloaded = new ArrayList<>();
+    private int slowEvaluations = 0;
+
+    @Test
+    public void evaluate_OffloadsCondition_RepeatedOverruns() throws Exception {
+        FrameBudgetWatchdog watchdog = new FrameBudgetWatchdog(0.05, 2)
+                .listener(new FrameBudgetWatchdog.Listener() {
+                    @Override
+                    public void onOffloaded(FrameBudgetWatchdog.Offender offender) {
+                        offloaded.add(offender);
+                    }
+                });
+
+        Criteria.Condition<String> slowCondition = new Criteria.Condition<String>() {
+            @Override
+            public boolean evaluate(String view) {
+                slowEvaluations++;
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return slowEvaluations < 3;
+            }
+        };
+
+        Criteria<String> criteria = frames.newCriteria("launchowl")
+                .test(slowCondition)
+                .watchdog(watchdog)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                });
+
+        Criteria.EvalCompleteListener listener = new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        };
+
+        criteria.evaluate(listener);
+        criteria.evaluate(listener);
+
+        assertEquals(2, results.size());
+        assertTrue(criteria.getConditions().contains(slowCondition));
+
+        criteria.evaluate(listener);
+
+        assertEquals(2, results.size());
+        assertFalse(criteria.getConditions().contains(slowCondition));
+        assertEquals(1, criteria.getAsyncConditions().size());
+        assertEquals(1, offloaded.size());
+        assertEquals(2, offloaded.get(0).getOverrunCount());
+        assertTrue(offloaded.get(0).isOffloaded());
+
+        frames.runFrames();
+
+        assertEquals(Validator.ValidationResult.Invalid, results.get(2));
+        assertEquals(3, slowEvaluations);
+        assertEquals(3, criteria.getConditionStats(slowCondition).getEvaluationCount());
+    }
+
+    @Test
+    public void getReport_ListsOffendersSlowestFirst_BudgetOverrun() throws Exception {
+        FrameBudgetWatchdog watchdog = new FrameBudgetWatchdog(0.5, 2);
+        Object fastCondition = new Object();
+        Object slowCondition = new Object();
+
+        assertFalse(watchdog.record(fastCondition, watchdog.getBudgetNanos()));
+        assertFalse(watchdog.record(fastCondition, watchdog.getBudgetNanos() + 1));
+        assertFalse(watchdog.record(slowCondition, FrameBudgetWatchdog.FRAME_NANOS * 2));
+        assertTrue(watchdog.record(slowCondition, FrameBudgetWatchdog.FRAME_NANOS));
+        assertFalse(watchdog.record(slowCondition, FrameBudgetWatchdog.FRAME_NANOS));
+
+        List<FrameBudgetWatchdog.Offender> offenders = watchdog.getOffenders();
+
+        assertEquals(2, offenders.size());
+        assertEquals(slowCondition, offenders.get(0).getCondition());
+        assertEquals(3, offenders.get(0).getOverrunCount());
+        assertEquals(FrameBudgetWatchdog.FRAME_NANOS * 2, offenders.get(0).getWorstNanos());
+        assertEquals(1, offenders.get(1).getOverrunCount());
+        assertEquals(2, watchdog.getReport().split("\n").length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_Throws_NoBudget() throws Exception {
+        new FrameBudgetWatchdog(0, 3);
+    }
+}
@@ -0,0 +1,63 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+
+public class HeadlessValidationTest {
+    private final CompletableFuture<Validator.ValidationResult> result = new CompletableFuture<>();
+    private final AtomicReference<String> resultThread = new AtomicReference<>();
+
+    private Validator<String> newValidator(String userName) {
+        return new Validator<String>(new Criteria<String>(userName)
+                .test(new Criteria.Condition<String>() {
+                    @Override
+                    public boolean evaluate(String view) {
+                        return view.length() >= 3;
+                    }
+                })
+                .asyncTest(new Criteria.AsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view) {
+                        complete(!view.contains(" "));
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+                })
+        );
+    }
+
+    private void validateOnResultsThread(final Validator<String> validator) {
+        MainThreadDispatcher.getInstance().post(new Runnable() {
+            @Override
+            public void run() {
+                validator.validateAsync().whenComplete((validationResult, throwable) -> {
+                    resultThread.set(Thread.currentThread().getName());
+                    result.complete(validationResult);
+                });
+            }
+        });
+    }
+
+    @Test
+    public void validateAsync_DeliversOnResultsThread_NoAndroidRuntime() throws Exception {
+        validateOnResultsThread(newValidator("launchowl"));
+
+        assertEquals(Validator.ValidationResult.Valid, result.get(5, TimeUnit.SECONDS));
+        assertEquals("ViewValidation Results", resultThread.get());
+    }
+
+    @Test
+    public void validateAsync_Invalid_AsyncConditionFailed() throws Exception {
+        validateOnResultsThread(newValidator("launch owl"));
+
+        assertEquals(Validator.ValidationResult.Invalid, result.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,83 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HedgingPolicyTest {
+
+    @Test
+    public void bucketOf_ValueWithinBucketBounds_AnyLatency() throws Exception {
+        LogLinearHistogram histogram = new LogLinearHistogram(2, TimeUnit.MICROSECONDS);
+
+        for (long micros = 0; micros < 100000; micros += 7) {
+            int bucket = histogram.bucketOf(micros);
+
+            assertTrue(micros <= histogram.upperBoundOf(bucket));
+            assertTrue(bucket == 0 || micros > histogram.upperBoundOf(bucket - 1));
+        }
+    }
+
+    @Test
+    public void getPercentileNanos_WithinOneBucket_SlowTail() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(1000);
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(i <= 95 ? 300 : 1500));
+        }
+
+        long p50 = TimeUnit.NANOSECONDS.toMillis(histogram.getPercentileNanos(0.5));
+        long p99 = TimeUnit.NANOSECONDS.toMillis(histogram.getPercentileNanos(0.99));
+
+        assertTrue(p50 >= 300 && p50 < 375);
+        assertTrue(p99 >= 1500 && p99 < 1875);
+    }
+
+    @Test
+    public void getPercentileNanos_OldSamplesForgotten_TwoWindowsRecorded() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(10);
+
+        for (int i = 0; i < 10; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(1000));
+        }
+        for (int i = 0; i < 20; i++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+
+        assertEquals(20, histogram.getCount());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(histogram.getPercentileNanos(0.99)) < 13);
+    }
+
+    @Test
+    public void getHedgeDelayMillis_Unknown_NotEnoughSamples() throws Exception {
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(0.9, 0.1, 100, 5);
+
+        for (int i = 0; i < 4; i++) {
+            hedgingPolicy.record(TimeUnit.MILLISECONDS.toNanos(100), false);
+        }
+
+        assertEquals(-1, hedgingPolicy.getHedgeDelayMillis());
+
+        hedgingPolicy.record(TimeUnit.MILLISECONDS.toNanos(100), false);
+
+        assertTrue(hedgingPolicy.getHedgeDelayMillis() >= 100);
+    }
+
+    @Test
+    public void tryHedge_Refused_ExtraLoadExhausted() throws Exception {
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(0.9, 0.1);
+
+        for (int i = 0; i < 20; i++) {
+            hedgingPolicy.onEvaluationStarted();
+        }
+
+        assertTrue(hedgingPolicy.tryHedge());
+        assertTrue(hedgingPolicy.tryHedge());
+        assertFalse(hedgingPolicy.tryHedge());
+        assertEquals(2, hedgingPolicy.getHedgeCount());
+    }
+}
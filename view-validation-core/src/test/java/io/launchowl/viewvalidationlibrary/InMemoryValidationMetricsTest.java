@@ -0,0 +1,138 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InMemoryValidationMetricsTest {
+    private final ManualFrameScheduler frames = new ManualFrameScheduler();
+    private InMemoryValidationMetrics metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        metrics = new InMemoryValidationMetrics(condition -> condition instanceof Criteria.AsyncCondition ? "available" : "length");
+    }
+
+    private Criteria.Condition<String> lengthCondition() {
+        return new Criteria.Condition<String>() {
+            @Override
+            public boolean evaluate(String view) {
+                return view.length() >= 3;
+            }
+        };
+    }
+
+    @Test
+    public void snapshot_CountsAndTimes_ValidatedWithSink() throws Exception {
+        final Criteria<String> criteria = frames.newCriteria("launchowl")
+                .test(lengthCondition())
+                .asyncTest(new Criteria.AsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view) {
+                        complete(true);
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+
+                    @Override
+                    MainThreadDispatcher getDispatcher() {
+                        return frames.getDispatcher();
+                    }
+                })
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                });
+
+        Validator<String> validator = new Validator<String>(criteria);
+        validator.setMetrics(metrics);
+
+        validator.validate();
+        frames.runFrames();
+        validator.validate();
+        frames.runFrames();
+
+        InMemoryValidationMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertEquals(2, snapshot.getConditions().get("length").getPassedCount());
+        assertEquals(2, snapshot.getConditions().get("length").getLatency().getCount());
+        assertEquals(2, snapshot.getConditions().get("available").getPassedCount());
+        assertEquals(2, snapshot.getQueueWait().getCount());
+        assertEquals(2, snapshot.getValidationTime().getCount());
+        assertTrue(snapshot.toJson().startsWith("{\"conditions\":{\"available\":{\"passed\":2,\"failed\":0,\"cancelled\":0,"));
+    }
+
+    @Test
+    public void snapshot_CountsCancellation_RunningConditionCancelled() throws Exception {
+        Criteria<String> criteria = frames.newCriteria("launchowl")
+                .metrics(metrics)
+                .test(lengthCondition())
+                .asyncTest(new Criteria.AsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view) {
+                        // Never completes.
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+                })
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                });
+
+        criteria.evaluate(null);
+        criteria.cancelValidation();
+        criteria.cancelValidation();
+
+        InMemoryValidationMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertEquals(1, snapshot.getConditions().get("available").getCancelledCount());
+        assertEquals(0, snapshot.getConditions().get("available").getLatency().getCount());
+    }
+
+    @Test
+    public void getPercentileNanos_WithinAnEighth_TimesRecorded() throws Exception {
+        InMemoryValidationMetrics.Histogram histogram = new InMemoryValidationMetrics.Histogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        InMemoryValidationMetrics.HistogramSnapshot snapshot = histogram.snapshot();
+        long p50 = snapshot.getPercentileNanos(0.5);
+        long p99 = snapshot.getPercentileNanos(0.99);
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), snapshot.getMaxNanos());
+        assertTrue(p50 >= 500000 && p50 <= 500000 * 1.125);
+        assertTrue(p99 >= 990000 && p99 <= 1000000);
+    }
+
+    @Test
+    public void upperBoundOf_ContainsEveryValue_BucketOf() throws Exception {
+        LogLinearHistogram histogram = new LogLinearHistogram(3, TimeUnit.NANOSECONDS);
+        long[] values = { 0, 7, 8, 9, 100, 1000000007, Long.MAX_VALUE };
+
+        for (long value : values) {
+            int bucket = histogram.bucketOf(value);
+
+            assertTrue(histogram.upperBoundOf(bucket) >= value);
+            assertTrue(bucket == 0 || histogram.upperBoundOf(bucket - 1) < value);
+        }
+        assertEquals(Long.MAX_VALUE, histogram.upperBoundOf(histogram.getBucketCount() - 1));
+    }
+}
@@ -0,0 +1,53 @@
+package io.launchowl.viewvalidationlibrary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link MainThreadDispatcher.FrameScheduler} whose frames are run by the test, as the main
+ * thread would.
+ */
+class ManualFrameScheduler implements MainThreadDispatcher.FrameScheduler {
+    private final List<Runnable> frames = new ArrayList<>();
+    private final MainThreadDispatcher dispatcher = new MainThreadDispatcher(this);
+
+    @Override
+    public synchronized void scheduleFrame(Runnable task) {
+        this.frames.add(task);
+    }
+
+    /**
+     * Returns the dispatcher whose frames are scheduled here.
+     */
+    MainThreadDispatcher getDispatcher() {
+        return this.dispatcher;
+    }
+
+    /**
+     * Returns a {@link Criteria} that delivers its results through {@link #getDispatcher()}.
+     */
+    <T> Criteria<T> newCriteria(T view) {
+        return new Criteria<T>(view) {
+            @Override
+            MainThreadDispatcher getDispatcher() {
+                return dispatcher;
+            }
+        };
+    }
+
+    /**
+     * Runs the scheduled frames, including the frames scheduled while they run.
+     */
+    void runFrames() {
+        while (true) {
+            Runnable frame;
+            synchronized (this) {
+                if (this.frames.isEmpty()) {
+                    return;
+                }
+                frame = this.frames.remove(0);
+            }
+            frame.run();
+        }
+    }
+}
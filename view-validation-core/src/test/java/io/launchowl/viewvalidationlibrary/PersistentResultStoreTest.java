@@ -0,0 +1,157 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PersistentResultStoreTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File file;
+    private long now = 1000;
+    private Executor directExecutor = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(temporaryFolder.getRoot(), "results");
+    }
+
+    @Test
+    public void get_ReturnsResult_StoreReopened() throws Exception {
+        PersistentResultStore store = new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now);
+        store.put("available", "realkiwi", false);
+        store.put("available", "bigkiwi", true);
+
+        PersistentResultStore reopened = new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now);
+
+        assertEquals(Boolean.FALSE, reopened.get("available", "realkiwi"));
+        assertEquals(Boolean.TRUE, reopened.get("available", "bigkiwi"));
+        assertNull(reopened.get("complies", "bigkiwi"));
+    }
+
+    @Test
+    public void get_ReturnsNull_ResultExpired() throws Exception {
+        PersistentResultStore store = new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now);
+        store.put("available", "realkiwi", false);
+        store.put("available", "bigkiwi", true);
+
+        now += 30000;
+        PersistentResultStore reopened = new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now);
+
+        assertNull(reopened.get("available", "realkiwi"));
+        assertEquals(Boolean.TRUE, reopened.get("available", "bigkiwi"));
+    }
+
+    @Test
+    public void get_MissesWithoutIo_NotLoaded() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now).put("available", "realkiwi", false);
+
+        PersistentResultStore reopened = new PersistentResultStore(file, 60000, 10000, new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                tasks.add(runnable);
+            }
+        }, () -> now);
+
+        assertNull(reopened.get("available", "realkiwi"));
+        assertFalse(reopened.isLoaded());
+
+        tasks.get(0).run();
+
+        assertTrue(reopened.isLoaded());
+        assertEquals(Boolean.FALSE, reopened.get("available", "realkiwi"));
+    }
+
+    @Test
+    public void put_FileCompacted_ManySupersededRecords() throws Exception {
+        PersistentResultStore store = new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now);
+
+        for (int i = 0; i < 300; i++) {
+            store.put("available", "realkiwi", i % 2 == 0);
+        }
+
+        assertTrue(store.getRecordsInFile() < 256);
+        assertEquals(8 + 21 * store.getRecordsInFile(), file.length());
+
+        PersistentResultStore reopened = new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now);
+
+        assertEquals(Boolean.FALSE, reopened.get("available", "realkiwi"));
+    }
+
+    @Test
+    public void put_WritesOnce_PutWhileWritePending() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        PersistentResultStore store = new PersistentResultStore(file, 60000, 10000, new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                tasks.add(runnable);
+            }
+        }, () -> now);
+
+        store.put("available", "realkiwi", false);
+        store.put("available", "bigkiwi", true);
+        store.put("available", "bluekiwi", true);
+
+        // One task loads the file, the other appends all three records.
+        assertEquals(2, tasks.size());
+
+        for (Runnable task : tasks) {
+            task.run();
+        }
+
+        assertEquals(3, store.getRecordsInFile());
+        assertEquals(8 + 21 * 3, file.length());
+    }
+
+    @Test
+    public void get_ReturnsNull_HashCollidesWithOtherInput() throws Exception {
+
+        // A record stored under the same 64-bit hash, but for another input.
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(0x56564331);
+            out.writeInt(2);
+            out.writeLong(PersistentResultStore.hash("available", "realkiwi"));
+            out.writeInt(PersistentResultStore.check("available", "realkiwi") + 1);
+            out.writeLong(now + 60000);
+            out.writeBoolean(true);
+        }
+
+        PersistentResultStore store = new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now);
+
+        assertNull(store.get("available", "realkiwi"));
+    }
+
+    @Test
+    public void get_PartialRecordIgnored_FileTruncated() throws Exception {
+        new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now).put("available", "realkiwi", false);
+
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(new byte[] { 1, 2, 3 });
+        }
+
+        PersistentResultStore reopened = new PersistentResultStore(file, 60000, 10000, directExecutor, () -> now);
+
+        assertEquals(Boolean.FALSE, reopened.get("available", "realkiwi"));
+        assertEquals(8 + 21, file.length());
+    }
+}
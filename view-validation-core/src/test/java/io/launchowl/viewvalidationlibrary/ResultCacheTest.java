@@ -0,0 +1,77 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ResultCacheTest {
+    private long now = 0;
+
+    @Test
+    public void get_ReturnsResult_ResultCached() throws Exception {
+        ResultCache<String> cache = new ResultCache<>(10, 1000, 1000, () -> now);
+        cache.put("kiwi", true);
+        cache.put("apple", false);
+
+        assertEquals(Boolean.TRUE, cache.get("kiwi"));
+        assertEquals(Boolean.FALSE, cache.get("apple"));
+        assertNull(cache.get("orange"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void get_LeastRecentlyUsedEvicted_CacheFull() throws Exception {
+        ResultCache<String> cache = new ResultCache<>(2, 1000, 1000, () -> now);
+        cache.put("kiwi", true);
+        cache.put("apple", true);
+
+        // Use "kiwi" so "apple" becomes the least recently used entry.
+        cache.get("kiwi");
+        cache.put("orange", true);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.get("apple"));
+        assertEquals(Boolean.TRUE, cache.get("kiwi"));
+    }
+
+    @Test
+    public void get_NegativeResultExpiresFirst_SeparateTtls() throws Exception {
+        ResultCache<String> cache = new ResultCache<>(10, 1000, 100, () -> now);
+        cache.put("kiwi", true);
+        cache.put("apple", false);
+
+        now += TimeUnit.MILLISECONDS.toNanos(500);
+
+        assertEquals(Boolean.TRUE, cache.get("kiwi"));
+        assertNull(cache.get("apple"));
+
+        now += TimeUnit.MILLISECONDS.toNanos(500);
+
+        assertNull(cache.get("kiwi"));
+        assertEquals(0, cache.size());
+    }
+
+    int evaluations = 0;
+    @Test
+    public void evaluate_EvaluatedOncePerInput_MemoizedCondition() throws Exception {
+        MemoizedCondition<String, String> condition = new MemoizedCondition<>(new Criteria.Condition<String>() {
+            @Override
+            public boolean evaluate(String view) {
+                evaluations++;
+                return view.length() > 3;
+            }
+        }, view -> view, new ResultCache<>(10, 1000, 1000, () -> now));
+
+        assertEquals(true, condition.evaluate("kiwi"));
+        assertEquals(true, condition.evaluate("kiwi"));
+        assertEquals(false, condition.evaluate("fig"));
+
+        assertEquals(2, evaluations);
+        assertEquals(1, condition.getCache().getHitCount());
+    }
+}
@@ -0,0 +1,69 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RoundAggregatorTest {
+    private final List<RoundAggregator> aggregators = Arrays.<RoundAggregator>asList(
+            new MainThreadAggregator(), new ConcurrentAggregator());
+
+    @Test
+    public void add_DecidesOnLastResult_AllResultsIn() {
+        for (RoundAggregator aggregator : this.aggregators) {
+            aggregator.begin(1, 3);
+
+            assertSame(RoundAggregator.Decision.PENDING, aggregator.add(1, Validator.ValidationResult.Valid, true));
+            assertSame(RoundAggregator.Decision.PENDING, aggregator.add(1, Validator.ValidationResult.Unknown, true));
+            RoundAggregator.Decision decision = aggregator.add(1, Validator.ValidationResult.Valid, true);
+
+            assertEquals(Validator.ValidationResult.Unknown, decision.result);
+            assertFalse(decision.early);
+        }
+    }
+
+    @Test
+    public void add_DecidesEarly_ResultInvalid() {
+        for (RoundAggregator aggregator : this.aggregators) {
+            aggregator.begin(1, 3);
+
+            RoundAggregator.Decision decision = aggregator.add(1, Validator.ValidationResult.Invalid, true);
+
+            assertEquals(Validator.ValidationResult.Invalid, decision.result);
+            assertTrue(decision.early);
+            assertSame(RoundAggregator.Decision.STALE, aggregator.add(1, Validator.ValidationResult.Valid, true));
+        }
+    }
+
+    @Test
+    public void add_WaitsForEveryResult_InvalidNotDecidingEarly() {
+        for (RoundAggregator aggregator : this.aggregators) {
+            aggregator.begin(1, 2);
+
+            assertSame(RoundAggregator.Decision.PENDING, aggregator.add(1, Validator.ValidationResult.Invalid, false));
+            RoundAggregator.Decision decision = aggregator.add(1, Validator.ValidationResult.Valid, true);
+
+            assertEquals(Validator.ValidationResult.Invalid, decision.result);
+            assertFalse(decision.early);
+        }
+    }
+
+    @Test
+    public void add_Stale_ResultOfEarlierRound() {
+        for (RoundAggregator aggregator : this.aggregators) {
+            assertSame(RoundAggregator.Decision.STALE, aggregator.add(0, Validator.ValidationResult.Valid, true));
+
+            aggregator.begin(1, 1);
+            aggregator.begin(2, 1);
+
+            assertSame(RoundAggregator.Decision.STALE, aggregator.add(1, Validator.ValidationResult.Valid, true));
+            assertEquals(Validator.ValidationResult.Valid, aggregator.add(2, Validator.ValidationResult.Valid, true).result);
+        }
+    }
+}
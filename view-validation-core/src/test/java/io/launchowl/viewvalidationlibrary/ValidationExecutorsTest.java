@@ -0,0 +1,63 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ValidationExecutorsTest {
+
+    @After
+    public void tearDown() throws Exception {
+        ValidationExecutors.setDefaultExecutor(null);
+    }
+
+    @Test
+    public void getDefaultExecutor_SameInstance_SharedPool() throws Exception {
+        assertSame(ValidationExecutors.getDefaultExecutor(), ValidationExecutors.getDefaultExecutor());
+    }
+
+    @Test
+    public void getDefaultExecutor_ReturnsCustomExecutor_DefaultExecutorSet() throws Exception {
+        Executor executor = Runnable::run;
+        Executor sharedPool = ValidationExecutors.getDefaultExecutor();
+
+        ValidationExecutors.setDefaultExecutor(executor);
+        assertSame(executor, ValidationExecutors.getDefaultExecutor());
+
+        ValidationExecutors.setDefaultExecutor(null);
+        assertSame(sharedPool, ValidationExecutors.getDefaultExecutor());
+    }
+
+    @Test
+    public void getQueueDepth_TasksQueued_AllWorkersBusy() throws Exception {
+        int workers = ValidationExecutors.getMaximumPoolSize();
+        final CountDownLatch started = new CountDownLatch(workers);
+        final CountDownLatch release = new CountDownLatch(1);
+        Executor executor = ValidationExecutors.getDefaultExecutor();
+
+        for (int i = 0; i < workers + 2; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(workers, ValidationExecutors.getActiveThreadCount());
+        assertEquals(2, ValidationExecutors.getQueueDepth());
+        assertTrue(ValidationExecutors.getPoolSize() <= workers);
+
+        release.countDown();
+    }
+}
@@ -0,0 +1,162 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ValidationTraceTest {
+    private final ManualFrameScheduler frames = new ManualFrameScheduler();
+    private ValidationTrace trace;
+
+    @Before
+    public void setUp() throws Exception {
+        trace = new ValidationTrace(64);
+    }
+
+    private static List<ValidationTrace.EventType> typesOf(List<ValidationTrace.Event> events) {
+        List<ValidationTrace.EventType> types = new ArrayList<>();
+        for (ValidationTrace.Event event : events) {
+            types.add(event.getType());
+        }
+
+        return types;
+    }
+
+    @Test
+    public void snapshot_RecordsRoundInOrder_ValidatedWithTrace() throws Exception {
+        Criteria<String> criteria = frames.newCriteria("launchowl")
+                .test(new Criteria.Condition<String>() {
+                    @Override
+                    public boolean evaluate(String view) {
+                        return view.length() >= 3;
+                    }
+                })
+                .asyncTest(new Criteria.AsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view) {
+                        complete(false);
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+
+                    @Override
+                    MainThreadDispatcher getDispatcher() {
+                        return frames.getDispatcher();
+                    }
+                })
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                });
+
+        Validator<String> validator = new Validator<String>(criteria);
+        validator.setTrace(trace);
+
+        validator.validate();
+        frames.runFrames();
+
+        List<ValidationTrace.Event> events = trace.snapshot();
+
+        assertEquals(Arrays.asList(
+                ValidationTrace.EventType.EvaluateStarted,
+                ValidationTrace.EventType.ConditionStarted,
+                ValidationTrace.EventType.ConditionEnded,
+                ValidationTrace.EventType.ConditionStarted,
+                ValidationTrace.EventType.ConditionEnded,
+                ValidationTrace.EventType.ObserversNotified), typesOf(events));
+        assertEquals(Validator.ValidationResult.Invalid, events.get(5).getResult());
+        for (ValidationTrace.Event event : events) {
+            assertEquals(criteria.getGeneration(), event.getGeneration());
+        }
+    }
+
+    @Test
+    public void snapshot_RecordsCancellationAndStaleResult_ResultArrivesAfterCancel() throws Exception {
+        final List<Criteria.AsyncCondition<String>> running = new ArrayList<>();
+
+        Criteria<String> criteria = frames.newCriteria("launchowl")
+                .trace(trace)
+                .asyncTest(new Criteria.AsyncCondition<String>() {
+                    @Override
+                    protected void evaluate(String view) {
+                        running.add(this);
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+                })
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                });
+
+        criteria.evaluate(null);
+        criteria.cancelValidation();
+        running.get(0).complete(true);
+
+        assertEquals(Arrays.asList(
+                ValidationTrace.EventType.EvaluateStarted,
+                ValidationTrace.EventType.ConditionStarted,
+                ValidationTrace.EventType.ConditionCancelled,
+                ValidationTrace.EventType.StaleResultDropped), typesOf(trace.snapshot()));
+        assertEquals(1, criteria.getStaleCompletionCount());
+    }
+
+    @Test
+    public void snapshot_KeepsNewestEvents_CapacityExceeded() throws Exception {
+        ValidationTrace trace = new ValidationTrace(3);
+        Object subject = new Object();
+
+        for (int generation = 1; generation <= 10; generation++) {
+            trace.record(ValidationTrace.EventType.EvaluateStarted, subject, generation, null, generation);
+        }
+
+        List<ValidationTrace.Event> events = trace.snapshot();
+
+        assertEquals(4, trace.getCapacity());
+        assertEquals(10, trace.getRecordedCount());
+        assertEquals(4, events.size());
+        assertEquals(7, events.get(0).getGeneration());
+        assertEquals(10, events.get(3).getGeneration());
+    }
+
+    @Test
+    public void readBinary_ReturnsSameEvents_WrittenByWriteBinary() throws Exception {
+        Object subject = new Object();
+        trace.record(ValidationTrace.EventType.ConditionStarted, subject, 5, null, 1000);
+        trace.record(ValidationTrace.EventType.ConditionEnded, subject, 5, Validator.ValidationResult.Valid, 3500);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        trace.writeBinary(output);
+        List<ValidationTrace.Event> events = ValidationTrace.readBinary(new ByteArrayInputStream(output.toByteArray()));
+
+        assertEquals(trace.snapshot().toString(), events.toString());
+
+        StringWriter json = new StringWriter();
+        ValidationTrace.writeChromeTrace(events, json);
+        String id = Integer.toHexString(System.identityHashCode(subject)) + ":5";
+
+        assertTrue(json.toString().contains("\"ph\":\"b\",\"id\":\"" + id + "\",\"ts\":0.000"));
+        assertTrue(json.toString().contains("\"ph\":\"e\",\"id\":\"" + id + "\",\"ts\":2.500"));
+        assertTrue(json.toString().contains("\"result\":\"Valid\""));
+    }
+}
@@ -0,0 +1,53 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * This class runs the tasks of the {@link MainThreadDispatcher} at the start of the next frame
+ * via the main thread's {@link Choreographer}.
+ * <p>
+ * It is registered as a {@link MainThreadDispatcher.FrameScheduler} service, so results are
+ * delivered to the main UI thread whenever the library runs on Android.
+ */
+public final class ChoreographerFrameScheduler implements MainThreadDispatcher.FrameScheduler {
+    private Handler handler;
+    private volatile Choreographer choreographer;
+
+    /**
+     * Class constructor, called by {@link java.util.ServiceLoader}.
+     */
+    public ChoreographerFrameScheduler() {
+
+    }
+
+    @Override
+    public void scheduleFrame(final Runnable task) {
+        Choreographer choreographer = this.choreographer;
+
+        // The main thread's Choreographer accepts callbacks from any thread once it exists.
+        if (choreographer != null) {
+
+            /* Java 8
+             *  => Lambda Expression
+             */
+            choreographer.postFrameCallback(frameTimeNanos -> task.run());
+            return;
+        }
+
+        // Choreographer.getInstance() returns the Choreographer of the calling thread.
+        getHandler().post(() -> {
+            this.choreographer = Choreographer.getInstance();
+            this.choreographer.postFrameCallback(frameTimeNanos -> task.run());
+        });
+    }
+
+    private synchronized Handler getHandler() {
+        if (this.handler == null) {
+            this.handler = new Handler(Looper.getMainLooper());
+        }
+
+        return this.handler;
+    }
+}
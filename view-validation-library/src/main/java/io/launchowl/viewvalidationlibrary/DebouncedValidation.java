@@ -0,0 +1,320 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * This class collapses bursts of validation requests into a single evaluation.
+ * <p>
+ * A DebouncedValidation wraps a {@link Validator}, a {@link ValidatorSet} or any other
+ * {@link Validation}. Each call to {@link #validate()} restarts a quiet period (the window); the
+ * wrapped validation is only performed after no further calls have been received for the
+ * length of the window. This makes it suitable for validating a view every time its text
+ * changes without evaluating every keystroke.
+ * <p>
+ * <pre>
+ * {@code
+ *  final DebouncedValidation debouncedValidation = new DebouncedValidation(validatorSet, 300)
+ *      .maxWait(1500)
+ *      .edge(DebouncedValidation.Edge.Trailing);
+ *
+ *  // Inside TextWatcher.afterTextChanged(Editable s)
+ *  debouncedValidation.validate();
+ * }
+ * </pre>
+ * <p>
+ * When the window is adaptive (the default), it widens to follow the interval between the
+ * user's keystrokes and the average latency reported by the wrapped validation
+ * ({@link Validation#getAverageLatencyMillis()}), up to {@link #maxWindow(long)}.
+ * <p>
+ * This class is not thread safe; {@link #validate()} and {@link #cancel()} should be called
+ * from the main UI thread.
+ */
+public class DebouncedValidation implements Validation {
+    // Gaps between calls longer than this are treated as the start of a new burst of typing.
+    private static final long IDLE_GAP_MILLIS = 1000;
+    private static final double TYPING_FACTOR = 1.5;
+    private static final double SMOOTHING = 0.3;
+
+    private final Validation validation;
+    private final Timer timer;
+    private final LongSupplier clock;
+    private final Runnable flush = this::flush;
+    private long window;
+    private long maxWindow;
+    private long maxWait = 0;
+    private Edge edge = Edge.Trailing;
+    private boolean adaptive = true;
+
+    private long burstStart = -1;
+    private long lastCall = -1;
+    private double averageCallInterval = 0;
+    private boolean pending = false;
+    private int requestCount = 0;
+    private int evaluationCount = 0;
+
+    /**
+     * Determines whether the wrapped validation is performed at the start and/or the end of a
+     * burst of calls.
+     */
+    public enum Edge {
+        /**
+         * Validate on the first call of a burst and ignore the remaining calls.
+         */
+        Leading,
+
+        /**
+         * Validate once the calls have stopped for the length of the window.
+         */
+        Trailing,
+
+        /**
+         * Validate on the first call of a burst and again once the calls have stopped, if
+         * there were additional calls.
+         */
+        Both
+    }
+
+    /**
+     * A timer that runs tasks on the main UI thread after a delay.
+     */
+    interface Timer {
+        void postDelayed(Runnable runnable, long delayMillis);
+
+        void removeCallbacks(Runnable runnable);
+    }
+
+    /**
+     * Class constructor specifying the validation to be debounced and the length of the window.
+     *
+     * @param validation a {@link Validation} such as a {@link Validator} or {@link ValidatorSet}
+     * @param windowMillis the quiet period, in milliseconds, that must elapse before validating
+     */
+    public DebouncedValidation(Validation validation, long windowMillis) {
+        this(validation, windowMillis, new HandlerTimer(),
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    /**
+     * Class constructor that accepts a {@link Timer} and a clock.
+     * <p>
+     * For testing.
+     */
+    DebouncedValidation(Validation validation, long windowMillis, Timer timer, LongSupplier clock) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("windowMillis must not be negative");
+        }
+
+        this.validation = validation;
+        this.window = windowMillis;
+        this.maxWindow = windowMillis * 4;
+        this.timer = timer;
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the longest time, in milliseconds, a burst of calls can delay the validation.
+     * <p>
+     * A value of 0 (the default) means there is no ceiling.
+     *
+     * @param maxWaitMillis the ceiling in milliseconds
+     * @return this {@link DebouncedValidation} instance
+     */
+    public DebouncedValidation maxWait(long maxWaitMillis) {
+        this.maxWait = maxWaitMillis;
+        return this;
+    }
+
+    /**
+     * Sets whether the validation is performed at the start and/or the end of a burst.
+     *
+     * @param edge an {@link Edge}, {@link Edge#Trailing} by default
+     * @return this {@link DebouncedValidation} instance
+     */
+    public DebouncedValidation edge(Edge edge) {
+        this.edge = edge;
+        return this;
+    }
+
+    /**
+     * Sets whether the window adapts to the typing speed and the validation latency.
+     *
+     * @param adaptive true to adapt the window (the default), false to always use the
+     *                 window supplied to the constructor
+     * @return this {@link DebouncedValidation} instance
+     */
+    public DebouncedValidation adaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+        return this;
+    }
+
+    /**
+     * Sets the widest window, in milliseconds, an adaptive window can grow to.
+     * <p>
+     * Defaults to four times the window supplied to the constructor.
+     *
+     * @param maxWindowMillis the widest window in milliseconds
+     * @return this {@link DebouncedValidation} instance
+     */
+    public DebouncedValidation maxWindow(long maxWindowMillis) {
+        this.maxWindow = maxWindowMillis;
+        return this;
+    }
+
+    /**
+     * Requests a validation. Requests received within the window are collapsed into a
+     * single evaluation of the wrapped {@link Validation}.
+     */
+    @Override
+    public void validate() {
+        long now = this.clock.getAsLong();
+        this.requestCount++;
+        recordCall(now);
+
+        if (this.burstStart < 0) {
+            this.burstStart = now;
+
+            if (this.edge == Edge.Trailing) {
+                this.pending = true;
+            } else {
+                perform();
+            }
+        } else {
+            this.pending = this.edge != Edge.Leading;
+        }
+
+        long deadline = now + getWindow();
+        if (this.maxWait > 0) {
+            deadline = Math.min(deadline, this.burstStart + this.maxWait);
+        }
+
+        this.timer.removeCallbacks(this.flush);
+        this.timer.postDelayed(this.flush, Math.max(0, deadline - now));
+    }
+
+    /**
+     * Discards a pending validation, if any.
+     * <p>
+     * This does not cancel a validation that is already running; call
+     * {@link Validator#cancelValidation()} or {@link ValidatorSet#cancelValidation()} for that.
+     */
+    public void cancel() {
+        this.timer.removeCallbacks(this.flush);
+        this.pending = false;
+        this.burstStart = -1;
+    }
+
+    /**
+     * Returns the average latency of the wrapped {@link Validation}.
+     *
+     * @return the average latency in milliseconds
+     */
+    @Override
+    public long getAverageLatencyMillis() {
+        return this.validation.getAverageLatencyMillis();
+    }
+
+    /**
+     * Returns the current length of the window, including any adaptation.
+     *
+     * @return the window in milliseconds
+     */
+    public long getWindow() {
+        if (!this.adaptive) {
+            return this.window;
+        }
+
+        long adapted = this.window;
+
+        // Cover the typical gap between keystrokes so a steady typist produces a single burst.
+        adapted = Math.max(adapted, (long) (this.averageCallInterval * TYPING_FACTOR));
+
+        // Slow validations are expensive to restart, so wait longer before starting one.
+        adapted = Math.max(adapted, this.validation.getAverageLatencyMillis() / 2);
+
+        return Math.max(this.window, Math.min(adapted, this.maxWindow));
+    }
+
+    /**
+     * Returns the number of times {@link #validate()} has been called.
+     *
+     * @return the number of requests
+     */
+    public int getRequestCount() {
+        return this.requestCount;
+    }
+
+    /**
+     * Returns the number of times the wrapped {@link Validation} has been performed.
+     *
+     * @return the number of evaluations
+     */
+    public int getEvaluationCount() {
+        return this.evaluationCount;
+    }
+
+    /**
+     * Updates the average interval between calls that belong to the same burst.
+     *
+     * @param now the current time in milliseconds
+     */
+    private void recordCall(long now) {
+        if (this.lastCall >= 0) {
+            long interval = now - this.lastCall;
+
+            if (interval < IDLE_GAP_MILLIS) {
+                this.averageCallInterval = this.averageCallInterval == 0
+                        ? interval
+                        : SMOOTHING * interval + (1 - SMOOTHING) * this.averageCallInterval;
+            }
+        }
+
+        this.lastCall = now;
+    }
+
+    /**
+     * Called by the {@link Timer} when the window or the max wait ceiling has elapsed.
+     */
+    private void flush() {
+        this.burstStart = -1;
+
+        if (this.pending) {
+            perform();
+        }
+    }
+
+    private void perform() {
+        this.pending = false;
+        this.evaluationCount++;
+        this.validation.validate();
+    }
+
+    /**
+     * A {@link Timer} that posts to a {@link Handler} attached to the main UI thread. The handler
+     * is created the first time it is needed.
+     */
+    private static class HandlerTimer implements Timer {
+        private Handler handler;
+
+        @Override
+        public void postDelayed(Runnable runnable, long delayMillis) {
+            getHandler().postDelayed(runnable, delayMillis);
+        }
+
+        @Override
+        public void removeCallbacks(Runnable runnable) {
+            getHandler().removeCallbacks(runnable);
+        }
+
+        private Handler getHandler() {
+            if (this.handler == null) {
+                this.handler = new Handler(Looper.getMainLooper());
+            }
+
+            return this.handler;
+        }
+    }
+}
@@ -1,11 +0,0 @@
-package io.launchowl.viewvalidationlibrary;
-
-/**
- * An interface for any class that needs to respond to a validation request.
- */
-public interface Validation {
-    /**
-     * Perform the validation.
-     */
-    void validate();
-}
@@ -0,0 +1,329 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(PowerMockRunner.class)
+public class CriteriaConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 500;
+
+    @Mock
+    private EditText mockEditText;
+
+    private final BlockingQueue<Runnable> frames = new LinkedBlockingQueue<>();
+    private final List<Validator.ValidationResult> results = Collections.synchronizedList(new ArrayList<Validator.ValidationResult>());
+    private MainThreadDispatcher dispatcher;
+    private ExecutorService executorService;
+    private ForkJoinPool computePool;
+
+    private volatile boolean[] outcomes;
+    private volatile CountDownLatch started;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        dispatcher = new MainThreadDispatcher(new MainThreadDispatcher.FrameScheduler() {
+            @Override
+            public void scheduleFrame(Runnable task) {
+                frames.add(task);
+            }
+        });
+        executorService = Executors.newFixedThreadPool(THREADS);
+        computePool = new ForkJoinPool(4);
+        ValidationExecutors.setComputePool(computePool);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executorService.shutdownNow();
+        ValidationExecutors.setComputePool(null);
+        computePool.shutdownNow();
+    }
+
+    private Criteria<EditText> newCriteria() {
+        return new Criteria<EditText>(mockEditText) {
+            @Override
+            MainThreadDispatcher getDispatcher() {
+                return dispatcher;
+            }
+        }.aggregation(Criteria.Aggregation.Concurrent);
+    }
+
+    private Criteria.AsyncCondition<EditText> newCondition(final int index) {
+        return new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+                try {
+                    started.await();
+                    complete(outcomes[index]);
+                } catch (InterruptedException e) {
+                    // Cancelled after another condition failed.
+                }
+            }
+
+            @Override
+            public void onCancelled() {
+
+            }
+
+            @Override
+            MainThreadDispatcher getDispatcher() {
+                return dispatcher;
+            }
+        };
+    }
+
+    /**
+     * Runs the queued frames on the calling thread, which acts as the main UI thread, until a
+     * result has been delivered.
+     */
+    private void awaitResult(int expectedResults) throws Exception {
+        while (results.size() < expectedResults) {
+            Runnable frame = frames.poll(5, TimeUnit.SECONDS);
+            assertNotNull("No result delivered", frame);
+            frame.run();
+        }
+    }
+
+    /**
+     * Waits until every task submitted so far, including any cancelled before it started, has
+     * left the worker threads.
+     */
+    private void awaitIdle() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(THREADS + 1);
+        for (int i = 0; i < THREADS; i++) {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        barrier.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+
+        barrier.await(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void evaluate_DeliversOneCorrectResultPerRound_ResultsCompletedConcurrently() throws Exception {
+        Criteria<EditText> criteria = newCriteria().executor(executorService);
+        for (int i = 0; i < THREADS; i++) {
+            criteria.asyncTest(newCondition(i));
+        }
+
+        Random random = new Random(42);
+        for (int round = 1; round <= ROUNDS; round++) {
+            boolean[] roundOutcomes = new boolean[THREADS];
+            boolean expectedValid = true;
+            for (int i = 0; i < THREADS; i++) {
+                roundOutcomes[i] = random.nextInt(THREADS * 2) != 0;
+                expectedValid &= roundOutcomes[i];
+            }
+            outcomes = roundOutcomes;
+            started = new CountDownLatch(1);
+
+            criteria.evaluate(new Criteria.EvalCompleteListener() {
+                @Override
+                public void onComplete(Validator.ValidationResult validationResult) {
+                    results.add(validationResult);
+                }
+            });
+
+            // Release every worker at once so the results race each other.
+            started.countDown();
+            awaitResult(round);
+            awaitIdle();
+
+            // Anything still queued must not deliver a second result for this round.
+            Runnable frame;
+            while ((frame = frames.poll()) != null) {
+                frame.run();
+            }
+
+            assertEquals(round, results.size());
+            assertEquals(expectedValid ? Validator.ValidationResult.Valid : Validator.ValidationResult.Invalid,
+                    results.get(round - 1));
+        }
+    }
+
+    @Test
+    public void evaluate_DispatchesFinalResultOnly_SeveralAsyncConditions() throws Exception {
+        outcomes = new boolean[] { true, true, true };
+        started = new CountDownLatch(1);
+
+        Criteria<EditText> criteria = newCriteria().executor(executorService)
+                .asyncTest(newCondition(0))
+                .asyncTest(newCondition(1))
+                .asyncTest(newCondition(2));
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        // Hold the workers until evaluate() returns, otherwise it may decide the round itself.
+        started.countDown();
+        awaitIdle();
+        awaitResult(1);
+
+        assertEquals(Validator.ValidationResult.Valid, results.get(0));
+        assertEquals(1, dispatcher.getDispatchedCount());
+    }
+
+    @Test
+    public void evaluate_DeliversImmediately_ConditionFailed() throws Exception {
+        Criteria<EditText> criteria = newCriteria()
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return false;
+                    }
+                });
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+        assertEquals(0, dispatcher.getDispatchedCount());
+    }
+
+    private Criteria.Condition<EditText> newCondition(final boolean result, final List<Thread> threads) {
+        return new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                threads.add(Thread.currentThread());
+                return result;
+            }
+        };
+    }
+
+    private Criteria.EvalCompleteListener listener() {
+        return new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        };
+    }
+
+    @Test
+    public void evaluate_DeliversOnMainThread_ConditionsEvaluatedInParallel() throws Exception {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        Criteria<EditText> criteria = newCriteria()
+                .aggregation(Criteria.Aggregation.MainThread)
+                .parallel(true);
+        for (int i = 0; i < 16; i++) {
+            criteria.test(newCondition(i != 11, threads));
+        }
+
+        criteria.evaluate(listener());
+
+        assertEquals(0, results.size());
+
+        awaitResult(1);
+
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+        assertEquals(16, threads.size());
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void evaluate_AsyncConditionsNotStarted_ParallelConditionFailedWhenShortCircuiting() throws Exception {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        outcomes = new boolean[] { true };
+        started = new CountDownLatch(0);
+
+        Criteria<EditText> criteria = newCriteria()
+                .evaluationPolicy(Criteria.EvaluationPolicy.ShortCircuit)
+                .parallel(true)
+                .executor(executorService)
+                .test(newCondition(true, threads))
+                .test(newCondition(false, threads))
+                .asyncTest(newCondition(0));
+
+        criteria.evaluate(listener());
+        awaitResult(1);
+
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+        assertEquals(1, dispatcher.getDispatchedCount());
+    }
+
+    @Test
+    public void evaluate_StartsAsyncConditions_ParallelConditionsPassedWhenShortCircuiting() throws Exception {
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        outcomes = new boolean[] { false };
+        started = new CountDownLatch(0);
+
+        Criteria<EditText> criteria = newCriteria()
+                .evaluationPolicy(Criteria.EvaluationPolicy.ShortCircuit)
+                .parallel(true)
+                .executor(executorService)
+                .test(newCondition(true, threads))
+                .test(newCondition(true, threads))
+                .asyncTest(newCondition(0));
+
+        criteria.evaluate(listener());
+        awaitResult(1);
+
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+        assertEquals(2, threads.size());
+    }
+
+    @Test
+    public void validate_ConditionsOfEveryValidatorInParallel_ValidatorSetParallel() throws Exception {
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+        Validator<EditText> validator1 = new Validator<EditText>(newCriteria().test(newCondition(true, threads)));
+        Validator<EditText> validator2 = new Validator<EditText>(newCriteria().test(newCondition(true, threads)));
+
+        ValidatorSet validatorSet = new ValidatorSet(validator1, validator2).parallel(true);
+        validatorSet.validate();
+
+        assertEquals(2, validatorSet.getPendingCount());
+
+        while (validatorSet.getPendingCount() > 0) {
+            Runnable frame = frames.poll(5, TimeUnit.SECONDS);
+            assertNotNull("No result delivered", frame);
+            frame.run();
+        }
+
+        assertEquals(Validator.ValidationResult.Valid, validatorSet.getResult());
+        assertTrue(threads.size() == 2 && !threads.contains(Thread.currentThread()));
+    }
+}
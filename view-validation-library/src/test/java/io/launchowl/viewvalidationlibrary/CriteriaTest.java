@@ -1,8 +1,6 @@
 package io.launchowl.viewvalidationlibrary;
 
 import android.os.Handler;
-import android.os.Looper;
-import android.os.Message;
 import android.widget.EditText;
 import android.widget.TextView;
 
@@ -17,6 +15,15 @@ import org.powermock.api.easymock.PowerMock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
 import static java.lang.Thread.sleep;
 import static org.easymock.EasyMock.expect;
 import static org.junit.Assert.assertEquals;
@@ -35,7 +42,7 @@ import static org.powermock.api.mockito.PowerMockito.spy;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 @RunWith(PowerMockRunner.class)
-@PrepareForTest({ Looper.class, Criteria.class })
+@PrepareForTest({ Criteria.class })
 public class CriteriaTest {
     @Mock
     private TextView mockTextView;
@@ -43,18 +50,25 @@ public class CriteriaTest {
     @Mock
     private EditText mockEditText;
 
-    @Mock
-    private Looper mockMainLooper;
-
     @Mock
     private Handler mockHandler;
 
-    @Mock
-    private Message mockMessage;
+    private final List<Runnable> frames = Collections.synchronizedList(new ArrayList<Runnable>());
+    private final CountDownLatch frameScheduled = new CountDownLatch(1);
+    private MainThreadDispatcher dispatcher;
 
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
+
+        // Frames are run by the test, as the main thread would.
+        dispatcher = new MainThreadDispatcher(new MainThreadDispatcher.FrameScheduler() {
+            @Override
+            public void scheduleFrame(Runnable task) {
+                frames.add(task);
+                frameScheduled.countDown();
+            }
+        });
     }
 
     /*@Test
@@ -118,10 +132,6 @@ public class CriteriaTest {
 
     @Test
     public void test_TwoAsyncConditionsAdded_AddTwoAsyncConditions() {
-        mockStatic(Looper.class);
-        expect(Looper.getMainLooper()).andReturn(mockMainLooper).times(2);
-        replayAll();
-
         Criteria.AsyncCondition<EditText> asyncCondition1 = spy(new Criteria.AsyncCondition<EditText>() {
             @Override
             public void evaluate(EditText view) {
@@ -157,9 +167,6 @@ public class CriteriaTest {
 
     @Test
     public void test_MixedTestsCompletesAsInvalid_AsyncConditionReturnsFalse() throws Exception {
-        mockStatic(Looper.class);
-        expect(Looper.getMainLooper()).andReturn(mockMainLooper);
-
         final Criteria.AsyncCondition<EditText> asyncCondition = spy(new Criteria.AsyncCondition<EditText>() {
             @Override
             public void evaluate(EditText view) {
@@ -172,7 +179,7 @@ public class CriteriaTest {
             }
         });
 
-        doReturn(mockMessage).when(asyncCondition).makeMessage();
+        doReturn(dispatcher).when(asyncCondition).getDispatcher();
 
 
         Criteria.Condition<EditText> condition = new Criteria.Condition<EditText>() {
@@ -206,9 +213,6 @@ public class CriteriaTest {
 
     @Test
     public void evaluate_AsyncTestsCompletesAsValid_TwoAsyncConditionsReturnTrue() {
-        mockStatic(Looper.class);
-        expect(Looper.getMainLooper()).andReturn(mockMainLooper);
-
         final Criteria.AsyncCondition<EditText> asyncCondition = spy(new Criteria.AsyncCondition<EditText>() {
             @Override
             public void evaluate(EditText view) {
@@ -221,7 +225,7 @@ public class CriteriaTest {
             }
         });
 
-        doReturn(mockMessage).when(asyncCondition).makeMessage();
+        doReturn(dispatcher).when(asyncCondition).getDispatcher();
 
 
         Criteria.Condition<EditText> condition = new Criteria.Condition<EditText>() {
@@ -256,11 +260,6 @@ public class CriteriaTest {
     int cancelCount = 0;
     @Test
     public void cancel_AsyncConditionCancelled_CancelInvoked() {
-
-        mockStatic(Looper.class);
-        expect(Looper.getMainLooper()).andReturn(mockMainLooper).times(2);
-        replayAll();
-
         Criteria<EditText> criteria = new Criteria<EditText>(mockEditText);
         criteria.asyncTest(new Criteria.AsyncCondition<EditText>() {
             @Override
@@ -295,4 +294,670 @@ public class CriteriaTest {
 
         assertEquals(2, cancelCount);
     }
-}
\ No newline at end of file
+
+    int asyncEvaluations = 0;
+    @Test
+    public void evaluate_AsyncConditionRunsOnCriteriaExecutor_CriteriaAndValidatorExecutorsSet() {
+        final List<Runnable> criteriaTasks = new ArrayList<>();
+        final List<Runnable> validatorTasks = new ArrayList<>();
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        criteriaTasks.add(runnable);
+                    }
+                })
+                .asyncTest(new Criteria.AsyncCondition<EditText>() {
+                    @Override
+                    public void evaluate(EditText view) {
+                        asyncEvaluations++;
+                    }
+
+                    @Override
+                    public void onCancelled() {
+
+                    }
+                });
+
+        Validator<EditText> validator = new Validator<EditText>(criteria);
+        validator.setExecutor(new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                validatorTasks.add(runnable);
+            }
+        });
+        validator.validate();
+
+        assertEquals(1, criteriaTasks.size());
+        assertEquals(0, validatorTasks.size());
+        assertEquals(0, asyncEvaluations);
+
+        criteriaTasks.get(0).run();
+
+        assertEquals(1, asyncEvaluations);
+    }
+
+    @Test
+    public void resolveExecutor_ValidatorExecutor_NoCriteriaExecutor() {
+        Executor validatorExecutor = new Executor() {
+            @Override
+            public void execute(Runnable runnable) {
+                runnable.run();
+            }
+        };
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText);
+        assertEquals(ValidationExecutors.getDefaultExecutor(), criteria.resolveExecutor());
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+
+            }
+        }, validatorExecutor);
+
+        assertEquals(validatorExecutor, criteria.resolveExecutor());
+    }
+
+    int completions = 0;
+    @Test
+    public void complete_StaleResultDropped_NewRoundStartedWhileRunning() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+
+        final Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        Thread thread = new Thread(runnable);
+                        threads.add(thread);
+                        thread.start();
+                    }
+                })
+                .asyncTest(new Criteria.AsyncCondition<EditText>() {
+                    int evaluations = 0;
+
+                    @Override
+                    public void evaluate(EditText view) {
+
+                        // Only the first round completes, and it ignores being interrupted.
+                        if (evaluations++ > 0) {
+                            return;
+                        }
+
+                        started.countDown();
+                        while (true) {
+                            try {
+                                release.await();
+                                break;
+                            } catch (InterruptedException e) {
+                                // Ignored
+                            }
+                        }
+
+                        complete(true);
+                    }
+
+                    @Override
+                    public void onCancelled() {
+
+                    }
+                });
+
+        Criteria.EvalCompleteListener evalCompleteListener = new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                completions++;
+            }
+        };
+
+        criteria.evaluate(evalCompleteListener);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        criteria.evaluate(evalCompleteListener);
+        threads.get(1).join();
+        release.countDown();
+        threads.get(0).join();
+
+        assertEquals(2, criteria.getGeneration());
+        assertEquals(1, criteria.getStaleCompletionCount());
+
+        // A message from the first round that was already queued is dropped on the main thread.
+        criteria.asyncConditionComplete(1, true);
+
+        assertEquals(2, criteria.getStaleCompletionCount());
+        assertEquals(0, completions);
+    }
+
+    int conditionsEvaluated = 0;
+    @Test
+    public void evaluate_StopsAtFirstFailureWithoutStartingAsync_ShortCircuitPolicy() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .evaluationPolicy(Criteria.EvaluationPolicy.ShortCircuit)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        tasks.add(runnable);
+                    }
+                })
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        conditionsEvaluated++;
+                        return false;
+                    }
+                })
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        conditionsEvaluated++;
+                        return false;
+                    }
+                })
+                .asyncTest(new Criteria.AsyncCondition<EditText>() {
+                    @Override
+                    public void evaluate(EditText view) {
+
+                    }
+
+                    @Override
+                    public void onCancelled() {
+
+                    }
+                });
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        assertEquals(1, conditionsEvaluated);
+        assertEquals(0, tasks.size());
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+    }
+
+    @Test
+    public void evaluate_StartsAsyncAfterSyncPasses_ShortCircuitPolicy() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .evaluationPolicy(Criteria.EvaluationPolicy.ShortCircuit)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        tasks.add(runnable);
+                    }
+                })
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        return true;
+                    }
+                })
+                .asyncTest(new Criteria.AsyncCondition<EditText>() {
+                    @Override
+                    public void evaluate(EditText view) {
+
+                    }
+
+                    @Override
+                    public void onCancelled() {
+
+                    }
+                });
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        assertEquals(1, tasks.size());
+        assertEquals(0, results.size());
+
+        criteria.asyncConditionComplete(true);
+
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Valid, results.get(0));
+    }
+
+    int losersCancelled = 0;
+    @Test
+    public void asyncConditionComplete_InvalidBeforeOthersFinish_OneAsyncConditionFails() {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+
+        final Criteria.AsyncCondition<EditText> failingCondition = spy(new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+                complete(false);
+            }
+
+            @Override
+            public void onCancelled() {
+
+            }
+        });
+
+        doReturn(dispatcher).when(failingCondition).getDispatcher();
+
+        Criteria.AsyncCondition<EditText> slowCondition = new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+
+            }
+
+            @Override
+            public void onCancelled() {
+                losersCancelled++;
+            }
+        };
+
+        final Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        tasks.add(runnable);
+                    }
+                })
+                .asyncTest(failingCondition)
+                .asyncTest(slowCondition);
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        assertEquals(2, tasks.size());
+
+        // Only the failing condition completes; its result is delivered in the next frame.
+        int generation = criteria.getGeneration();
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        frames.get(0).run();
+
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+        assertEquals(1, losersCancelled);
+
+        // The slow condition finishing late does not produce another result.
+        criteria.asyncConditionComplete(generation, true);
+
+        assertEquals(1, results.size());
+    }
+
+    int slowConditionEvaluations = 0;
+    @Test
+    public void evaluateConditions_CheapFailingConditionFirst_AdaptiveOrder() throws Exception {
+        Criteria.Condition<EditText> slowCondition = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                slowConditionEvaluations++;
+                try {
+                    sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+
+        Criteria.Condition<EditText> failingCondition = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return false;
+            }
+        };
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .evaluationPolicy(Criteria.EvaluationPolicy.ShortCircuit)
+                .test(slowCondition)
+                .test(failingCondition);
+
+        for (int i = 0; i < 3; i++) {
+            criteria.evaluateConditions();
+        }
+
+        assertEquals(1, slowConditionEvaluations);
+        assertEquals(failingCondition, criteria.getConditionOrder().get(0));
+        assertEquals(1, criteria.getReorderCount());
+        assertEquals(3, criteria.getConditionStats(failingCondition).getFailureCount());
+    }
+
+    @Test
+    public void evaluateConditions_AddedOrder_PinnedOrderIgnoresCostHints() throws Exception {
+        Criteria.Condition<EditText> expensiveCondition = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                slowConditionEvaluations++;
+                return true;
+            }
+        };
+
+        Criteria.Condition<EditText> cheapCondition = new Criteria.Condition<EditText>() {
+            @Override
+            public boolean evaluate(EditText view) {
+                return false;
+            }
+        };
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .evaluationPolicy(Criteria.EvaluationPolicy.ShortCircuit)
+                .conditionOrder(Criteria.ConditionOrder.Pinned)
+                .test(expensiveCondition, 1000000)
+                .test(cheapCondition, 10);
+
+        criteria.evaluateConditions();
+        criteria.evaluateConditions();
+
+        assertEquals(2, slowConditionEvaluations);
+        assertEquals(expensiveCondition, criteria.getConditionOrder().get(0));
+        assertEquals(0, criteria.getReorderCount());
+
+        criteria.conditionOrder(Criteria.ConditionOrder.Adaptive);
+        criteria.evaluateConditions();
+
+        assertEquals(2, slowConditionEvaluations);
+        assertEquals(cheapCondition, criteria.getConditionOrder().get(0));
+    }
+
+    int lookups = 0;
+    @Test
+    public void evaluate_CompletesWithoutWorker_MemoizedResultCached() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+
+        final Criteria.AsyncCondition<EditText> lookup = spy(new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+                lookups++;
+                complete(false);
+            }
+
+            @Override
+            public void onCancelled() {
+
+            }
+        });
+
+        MemoizedAsyncCondition<EditText, String> memoizedLookup = spy(new MemoizedAsyncCondition<EditText, String>(
+                lookup,
+                new Function<EditText, String>() {
+                    @Override
+                    public String apply(EditText view) {
+                        return "realkiwi";
+                    }
+                },
+                new ResultCache<String>(10, 60000, 60000)));
+
+        // The spy is a copy, so route the wrapped condition's results to it.
+        lookup.wrapWith(memoizedLookup);
+        doReturn(dispatcher).when(memoizedLookup).getDispatcher();
+
+        final Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        tasks.add(runnable);
+                    }
+                })
+                .asyncTest(memoizedLookup);
+
+        Criteria.EvalCompleteListener evalCompleteListener = new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        };
+
+        // The first evaluation misses the cache and runs on the executor.
+        criteria.evaluate(evalCompleteListener);
+        tasks.get(0).run();
+        frames.get(0).run();
+
+        // The second evaluation completes immediately from the cache.
+        criteria.evaluate(evalCompleteListener);
+
+        assertEquals(1, tasks.size());
+        assertEquals(1, lookups);
+        assertEquals(2, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(1));
+        assertEquals(1, memoizedLookup.getCache().getHitCount());
+    }
+
+    int syncConditionsEvaluated = 0;
+    @Test
+    public void evaluate_DecidedImmediately_MemoizedFailureCached() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+
+        MemoizedAsyncCondition<EditText, String> memoizedLookup = new MemoizedAsyncCondition<EditText, String>(
+                new Criteria.AsyncCondition<EditText>() {
+                    @Override
+                    public void evaluate(EditText view) {
+                        complete(true);
+                    }
+
+                    @Override
+                    public void onCancelled() {
+
+                    }
+                },
+                new Function<EditText, String>() {
+                    @Override
+                    public String apply(EditText view) {
+                        return "realkiwi";
+                    }
+                },
+                new ResultCache<String>(10, 60000, 60000));
+        memoizedLookup.getCache().put("realkiwi", false);
+
+        Criteria.AsyncCondition<EditText> slowCondition = new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+                complete(true);
+            }
+
+            @Override
+            public void onCancelled() {
+
+            }
+
+            @Override
+            MainThreadDispatcher getDispatcher() {
+                return dispatcher;
+            }
+        };
+
+        final Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        tasks.add(runnable);
+                    }
+                })
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        syncConditionsEvaluated++;
+                        return true;
+                    }
+                })
+                .asyncTest(memoizedLookup)
+                .asyncTest(slowCondition);
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        // The cached failure decides the round before anything else is evaluated.
+        assertEquals(Arrays.asList(Validator.ValidationResult.Invalid), results);
+        assertEquals(0, syncConditionsEvaluated);
+
+        // The slow condition, if it was started first, was cancelled and delivers nothing.
+        for (Runnable task : tasks) {
+            task.run();
+        }
+        for (Runnable frame : new ArrayList<>(frames)) {
+            frame.run();
+        }
+
+        assertEquals(1, results.size());
+    }
+
+    int timedOutConditionsCancelled = 0;
+    @Test
+    public void evaluate_TimeoutResultDelivered_AsyncConditionMissesDeadline() throws Exception {
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+
+        final Criteria.AsyncCondition<EditText> unresponsiveCondition = spy(new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+
+            }
+
+            @Override
+            public void onCancelled() {
+                timedOutConditionsCancelled++;
+            }
+        });
+
+        doReturn(dispatcher).when(unresponsiveCondition).getDispatcher();
+
+        final Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        runnable.run();
+                    }
+                })
+                .asyncTest(unresponsiveCondition, 10, Validator.ValidationResult.Unknown);
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        assertTrue(frameScheduled.await(5, TimeUnit.SECONDS));
+        assertEquals(1, criteria.getTimeoutCount());
+        assertEquals(0, results.size());
+
+        frames.get(0).run();
+
+        assertEquals(1, timedOutConditionsCancelled);
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Unknown, results.get(0));
+    }
+
+    @Test
+    public void asyncConditionComplete_InvalidOverridesUnknown_OneTimedOutOneFailed() {
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+
+                    }
+                });
+
+        for (int i = 0; i < 3; i++) {
+            criteria.asyncTest(new Criteria.AsyncCondition<EditText>() {
+                @Override
+                public void evaluate(EditText view) {
+
+                }
+
+                @Override
+                public void onCancelled() {
+
+                }
+            });
+        }
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        int generation = criteria.getGeneration();
+        criteria.asyncConditionComplete(generation, Validator.ValidationResult.Unknown);
+        criteria.asyncConditionComplete(generation, true);
+        criteria.asyncConditionComplete(generation, false);
+
+        assertEquals(1, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+    }
+
+    int hedgedEvaluations = 0;
+    @Test
+    public void evaluate_DuplicateWins_FirstEvaluationSlow() throws Exception {
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(0.9, 1, 100, 5);
+
+        for (int i = 0; i < 5; i++) {
+            hedgingPolicy.record(TimeUnit.MILLISECONDS.toNanos(5), false);
+        }
+
+        // The first evaluation never completes; the duplicate completes immediately.
+        final Criteria.AsyncCondition<EditText> slowCondition = spy(new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+                if (++hedgedEvaluations == 2) {
+                    complete(true);
+                }
+            }
+
+            @Override
+            public void onCancelled() {
+
+            }
+        }.hedge(hedgingPolicy));
+
+        doReturn(dispatcher).when(slowCondition).getDispatcher();
+
+        final Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        runnable.run();
+                    }
+                })
+                .asyncTest(slowCondition);
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        assertTrue(frameScheduled.await(5, TimeUnit.SECONDS));
+        frames.get(0).run();
+
+        assertEquals(2, hedgedEvaluations);
+        assertEquals(1, hedgingPolicy.getHedgeCount());
+        assertEquals(1, hedgingPolicy.getHedgeWinCount());
+        assertEquals(Validator.ValidationResult.Valid, results.get(0));
+    }
+}
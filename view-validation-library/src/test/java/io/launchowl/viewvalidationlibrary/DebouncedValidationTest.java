@@ -0,0 +1,185 @@
+package io.launchowl.viewvalidationlibrary;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class DebouncedValidationTest {
+    private FakeTimer timer;
+    private int validations;
+    private long latencyMillis;
+    private Validation validation;
+
+    @Before
+    public void setUp() throws Exception {
+        timer = new FakeTimer();
+        validations = 0;
+        latencyMillis = 0;
+        validation = new Validation() {
+            @Override
+            public void validate() {
+                validations++;
+            }
+
+            @Override
+            public long getAverageLatencyMillis() {
+                return latencyMillis;
+            }
+        };
+    }
+
+    @Test
+    public void validate_OneEvaluation_BurstOfCalls() throws Exception {
+        DebouncedValidation debouncedValidation = new DebouncedValidation(validation, 300, timer, timer::now)
+                .adaptive(false);
+
+        for (int i = 0; i < 10; i++) {
+            debouncedValidation.validate();
+            timer.advance(100);
+        }
+
+        assertEquals(0, validations);
+
+        timer.advance(300);
+
+        assertEquals(1, validations);
+        assertEquals(10, debouncedValidation.getRequestCount());
+        assertEquals(1, debouncedValidation.getEvaluationCount());
+    }
+
+    @Test
+    public void validate_EvaluatesImmediatelyOnce_LeadingEdge() throws Exception {
+        DebouncedValidation debouncedValidation = new DebouncedValidation(validation, 300, timer, timer::now)
+                .edge(DebouncedValidation.Edge.Leading)
+                .adaptive(false);
+
+        debouncedValidation.validate();
+        assertEquals(1, validations);
+
+        debouncedValidation.validate();
+        timer.advance(1000);
+
+        assertEquals(1, validations);
+    }
+
+    @Test
+    public void validate_EvaluatesTwice_BothEdges() throws Exception {
+        DebouncedValidation debouncedValidation = new DebouncedValidation(validation, 300, timer, timer::now)
+                .edge(DebouncedValidation.Edge.Both)
+                .adaptive(false);
+
+        debouncedValidation.validate();
+        timer.advance(50);
+        debouncedValidation.validate();
+        timer.advance(1000);
+
+        assertEquals(2, validations);
+    }
+
+    @Test
+    public void validate_EvaluatesAtCeiling_MaxWaitElapsed() throws Exception {
+        DebouncedValidation debouncedValidation = new DebouncedValidation(validation, 300, timer, timer::now)
+                .maxWait(1000)
+                .adaptive(false);
+
+        for (int i = 0; i < 12; i++) {
+            debouncedValidation.validate();
+            timer.advance(100);
+        }
+
+        assertEquals(1, validations);
+    }
+
+    @Test
+    public void cancel_NoEvaluation_PendingValidation() throws Exception {
+        DebouncedValidation debouncedValidation = new DebouncedValidation(validation, 300, timer, timer::now);
+
+        debouncedValidation.validate();
+        debouncedValidation.cancel();
+        timer.advance(1000);
+
+        assertEquals(0, validations);
+    }
+
+    @Test
+    public void getWindow_WidensToTypingSpeedAndLatency_Adaptive() throws Exception {
+        DebouncedValidation debouncedValidation = new DebouncedValidation(validation, 100, timer, timer::now);
+
+        assertEquals(100, debouncedValidation.getWindow());
+
+        debouncedValidation.validate();
+        timer.advance(200);
+        debouncedValidation.validate();
+
+        assertEquals(300, debouncedValidation.getWindow());
+
+        latencyMillis = 2000;
+
+        assertEquals(400, debouncedValidation.getWindow());
+    }
+
+    /**
+     * A {@link DebouncedValidation.Timer} that runs tasks when the time is advanced.
+     */
+    private static class FakeTimer implements DebouncedValidation.Timer {
+        private final List<Task> tasks = new ArrayList<>();
+        private long now = 0;
+
+        long now() {
+            return now;
+        }
+
+        void advance(long millis) {
+            long target = now + millis;
+
+            while (true) {
+                Task next = null;
+                for (Task task : tasks) {
+                    if (task.due <= target && (next == null || task.due < next.due)) {
+                        next = task;
+                    }
+                }
+
+                if (next == null) {
+                    break;
+                }
+
+                tasks.remove(next);
+                now = next.due;
+                next.runnable.run();
+            }
+
+            now = target;
+        }
+
+        @Override
+        public void postDelayed(Runnable runnable, long delayMillis) {
+            tasks.add(new Task(runnable, now + delayMillis));
+        }
+
+        @Override
+        public void removeCallbacks(Runnable runnable) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().runnable == runnable) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        private static class Task {
+            final Runnable runnable;
+            final long due;
+
+            Task(Runnable runnable, long due) {
+                this.runnable = runnable;
+                this.due = due;
+            }
+        }
+    }
+}
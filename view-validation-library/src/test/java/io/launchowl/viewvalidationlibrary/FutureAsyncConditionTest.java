@@ -0,0 +1,130 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(PowerMockRunner.class)
+public class FutureAsyncConditionTest {
+    @Mock
+    private EditText mockEditText;
+
+    private final List<Runnable> frames = new ArrayList<>();
+    private final List<CompletableFuture<Boolean>> operations = new ArrayList<>();
+    private MainThreadDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        dispatcher = new MainThreadDispatcher(new MainThreadDispatcher.FrameScheduler() {
+            @Override
+            public void scheduleFrame(Runnable task) {
+                frames.add(task);
+            }
+        });
+    }
+
+    private FutureAsyncCondition<EditText> newCondition() {
+        return new FutureAsyncCondition<EditText>(new Function<EditText, CompletionStage<Boolean>>() {
+            @Override
+            public CompletionStage<Boolean> apply(EditText view) {
+                CompletableFuture<Boolean> operation = new CompletableFuture<>();
+                operations.add(operation);
+                return operation;
+            }
+        }) {
+            @Override
+            MainThreadDispatcher getDispatcher() {
+                return dispatcher;
+            }
+        };
+    }
+
+    private void runFrames() {
+        while (!frames.isEmpty()) {
+            frames.remove(0).run();
+        }
+    }
+
+    @Test
+    public void evaluateAsync_Valid_OperationSucceeded() throws Exception {
+        CompletableFuture<Validator.ValidationResult> result = new Criteria<EditText>(mockEditText)
+                .asyncTest(newCondition())
+                .evaluateAsync();
+
+        assertEquals(1, operations.size());
+
+        operations.get(0).complete(true);
+        runFrames();
+
+        assertEquals(Validator.ValidationResult.Valid, result.get());
+    }
+
+    @Test
+    public void evaluateAsync_Invalid_OperationFailed() throws Exception {
+        CompletableFuture<Validator.ValidationResult> result = new Criteria<EditText>(mockEditText)
+                .asyncTest(newCondition())
+                .evaluateAsync();
+
+        operations.get(0).completeExceptionally(new IllegalStateException("Network unavailable"));
+        runFrames();
+
+        assertEquals(Validator.ValidationResult.Invalid, result.get());
+    }
+
+    @Test
+    public void evaluateAsync_PreviousCancelled_NewRoundStarted() throws Exception {
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .asyncTest(newCondition());
+
+        CompletableFuture<Validator.ValidationResult> first = criteria.evaluateAsync();
+        CompletableFuture<Validator.ValidationResult> second = criteria.evaluateAsync();
+
+        assertTrue(first.isCancelled());
+        assertTrue(operations.get(0).isCancelled());
+
+        operations.get(1).complete(false);
+        runFrames();
+
+        assertEquals(Validator.ValidationResult.Invalid, second.get());
+    }
+
+    @Test
+    public void evaluateAsync_CompletesWithoutMainThread_ConcurrentAggregation() throws Exception {
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText) {
+            @Override
+            MainThreadDispatcher getDispatcher() {
+                return dispatcher;
+            }
+        }
+                .aggregation(Criteria.Aggregation.Concurrent)
+                .asyncTest(newCondition())
+                .asyncTest(newCondition());
+
+        CompletableFuture<Validator.ValidationResult> result = criteria.evaluateAsync();
+
+        operations.get(0).complete(true);
+        assertFalse(result.isDone());
+
+        operations.get(1).complete(true);
+
+        assertEquals(Validator.ValidationResult.Valid, result.getNow(null));
+        assertEquals(1, frames.size());
+    }
+}
@@ -0,0 +1,151 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.powermock.api.mockito.PowerMockito.doReturn;
+import static org.powermock.api.mockito.PowerMockito.spy;
+
+@RunWith(PowerMockRunner.class)
+public class MainThreadDispatcherTest {
+    @Mock
+    private EditText mockEditText;
+
+    private final List<Runnable> frames = new ArrayList<>();
+    private final List<String> results = new ArrayList<>();
+    private MainThreadDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        dispatcher = new MainThreadDispatcher(new MainThreadDispatcher.FrameScheduler() {
+            @Override
+            public void scheduleFrame(Runnable task) {
+                frames.add(task);
+            }
+        });
+    }
+
+    private Criteria.AsyncCondition<EditText> newCondition(final boolean result) {
+        Criteria.AsyncCondition<EditText> asyncCondition = spy(new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+                complete(result);
+            }
+
+            @Override
+            public void onCancelled() {
+
+            }
+        });
+
+        doReturn(dispatcher).when(asyncCondition).getDispatcher();
+
+        return asyncCondition;
+    }
+
+    private Criteria<EditText> newCriteria(final String name, boolean... conditionResults) {
+        Criteria<EditText> criteria = new Criteria<EditText>(mockEditText)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        runnable.run();
+                    }
+                });
+
+        for (boolean conditionResult : conditionResults) {
+            criteria.asyncTest(newCondition(conditionResult));
+        }
+
+        criteria.evaluate(new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(name + " " + validationResult);
+            }
+        });
+
+        return criteria;
+    }
+
+    @Test
+    public void drain_DeliversInOneFrame_SeveralResultsDispatched() throws Exception {
+        newCriteria("userName", true, true, true);
+
+        assertEquals(1, frames.size());
+        assertEquals(3, dispatcher.getPendingCount());
+        assertEquals(0, results.size());
+
+        frames.get(0).run();
+
+        assertEquals(1, results.size());
+        assertEquals("userName Valid", results.get(0));
+        assertEquals(3, dispatcher.getDispatchedCount());
+        assertEquals(1, dispatcher.getDrainCount());
+        assertEquals(0, dispatcher.getPendingCount());
+    }
+
+    @Test
+    public void drain_DeliversInOrder_SeveralCriteria() throws Exception {
+        newCriteria("userName", true);
+        newCriteria("email", false);
+
+        assertEquals(1, frames.size());
+
+        frames.get(0).run();
+
+        assertEquals(2, results.size());
+        assertEquals("userName Valid", results.get(0));
+        assertEquals("email Invalid", results.get(1));
+    }
+
+    @Test
+    public void dispatch_SchedulesNextFrame_PreviousFrameDrained() throws Exception {
+        newCriteria("userName", true);
+        frames.get(0).run();
+
+        newCriteria("email", true);
+
+        assertEquals(2, frames.size());
+
+        frames.get(1).run();
+
+        assertEquals(2, results.size());
+        assertEquals(2, dispatcher.getDrainCount());
+    }
+
+    @Test
+    public void drain_SchedulesNextFrame_ResultThrew() throws Exception {
+        dispatcher.dispatch(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException();
+            }
+        });
+        newCriteria("userName", true);
+
+        try {
+            frames.get(0).run();
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+
+        assertEquals(2, frames.size());
+
+        frames.get(1).run();
+
+        assertEquals(1, results.size());
+        assertEquals("userName Valid", results.get(0));
+    }
+}
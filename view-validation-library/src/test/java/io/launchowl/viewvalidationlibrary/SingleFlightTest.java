@@ -0,0 +1,156 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.powermock.api.mockito.PowerMockito.doReturn;
+import static org.powermock.api.mockito.PowerMockito.spy;
+
+@RunWith(PowerMockRunner.class)
+public class SingleFlightTest {
+    @Mock
+    private EditText mockEditText;
+
+    private int lookups = 0;
+    private final List<Runnable> tasks = new ArrayList<>();
+    private final List<Validator.ValidationResult> results = new ArrayList<>();
+    private final MainThreadDispatcher dispatcher = new MainThreadDispatcher(new MainThreadDispatcher.FrameScheduler() {
+        @Override
+        public void scheduleFrame(Runnable task) {
+            task.run();
+        }
+    });
+    private final Executor capturingExecutor = new Executor() {
+        @Override
+        public void execute(Runnable runnable) {
+            tasks.add(runnable);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    private SingleFlightAsyncCondition<EditText, String> newCondition(SingleFlight group, final String userName) {
+        final Criteria.AsyncCondition<EditText> lookup = new Criteria.AsyncCondition<EditText>() {
+            @Override
+            public void evaluate(EditText view) {
+                lookups++;
+                complete(false);
+            }
+
+            @Override
+            public void onCancelled() {
+
+            }
+        };
+
+        SingleFlightAsyncCondition<EditText, String> condition = spy(new SingleFlightAsyncCondition<EditText, String>(
+                lookup,
+                new Function<EditText, String>() {
+                    @Override
+                    public String apply(EditText view) {
+                        return userName;
+                    }
+                },
+                "username-available",
+                group));
+
+        // The spy is a copy, so route the wrapped condition's results to it.
+        lookup.wrapWith(condition);
+        doReturn(dispatcher).when(condition).getDispatcher();
+
+        return condition;
+    }
+
+    private Criteria<EditText> newCriteria(Criteria.AsyncCondition<EditText> condition) {
+        return new Criteria<EditText>(mockEditText)
+                .executor(capturingExecutor)
+                .asyncTest(condition);
+    }
+
+    private Criteria.EvalCompleteListener recordResult() {
+        return new Criteria.EvalCompleteListener() {
+            @Override
+            public void onComplete(Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        };
+    }
+
+    @Test
+    public void evaluate_SharesEvaluation_SameInputInFlight() throws Exception {
+        SingleFlight group = new SingleFlight();
+        Criteria<EditText> availableCriteria = newCriteria(newCondition(group, "realkiwi"));
+        Criteria<EditText> otherScreenCriteria = newCriteria(newCondition(group, "realkiwi"));
+        Criteria<EditText> otherInputCriteria = newCriteria(newCondition(group, "bigkiwi"));
+
+        availableCriteria.evaluate(recordResult());
+        otherScreenCriteria.evaluate(recordResult());
+        otherInputCriteria.evaluate(recordResult());
+
+        assertEquals(2, tasks.size());
+        assertEquals(2, group.getCallCount());
+        assertEquals(1, group.getSharedCount());
+
+        tasks.get(0).run();
+
+        // Both conditions waiting for "realkiwi" are notified.
+        assertEquals(1, lookups);
+        assertEquals(1, group.getInFlightCount());
+        assertEquals(2, results.size());
+        assertEquals(Validator.ValidationResult.Invalid, results.get(0));
+        assertEquals(Validator.ValidationResult.Invalid, results.get(1));
+    }
+
+    @Test
+    public void cancelValidation_EvaluationContinues_OtherConditionWaiting() throws Exception {
+        SingleFlight group = new SingleFlight();
+        Criteria<EditText> availableCriteria = newCriteria(newCondition(group, "realkiwi"));
+        Criteria<EditText> otherScreenCriteria = newCriteria(newCondition(group, "realkiwi"));
+
+        availableCriteria.evaluate(recordResult());
+        otherScreenCriteria.evaluate(recordResult());
+
+        Future<?> evaluation = (Future<?>) tasks.get(0);
+
+        availableCriteria.cancelValidation();
+        assertFalse(evaluation.isCancelled());
+
+        // The evaluation started by the cancelled condition still notifies the other one.
+        tasks.get(0).run();
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    public void cancelValidation_EvaluationInterrupted_NoConditionWaiting() throws Exception {
+        SingleFlight group = new SingleFlight();
+        Criteria<EditText> availableCriteria = newCriteria(newCondition(group, "realkiwi"));
+        Criteria<EditText> otherScreenCriteria = newCriteria(newCondition(group, "realkiwi"));
+
+        availableCriteria.evaluate(recordResult());
+        otherScreenCriteria.evaluate(recordResult());
+
+        availableCriteria.cancelValidation();
+        otherScreenCriteria.cancelValidation();
+
+        assertTrue(((Future<?>) tasks.get(0)).isCancelled());
+        assertEquals(0, group.getInFlightCount());
+    }
+}
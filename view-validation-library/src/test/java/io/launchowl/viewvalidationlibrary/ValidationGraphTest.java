@@ -0,0 +1,132 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.EditText;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(PowerMockRunner.class)
+public class ValidationGraphTest {
+    @Mock
+    private EditText mockUserName;
+
+    @Mock
+    private EditText mockPassword;
+
+    @Mock
+    private EditText mockConfirmation;
+
+    private final List<String> validated = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    private Validator<EditText> newValidator(final String name, EditText editText) {
+        return new Validator<EditText>(new Criteria<EditText>(editText)
+                .test(new Criteria.Condition<EditText>() {
+                    @Override
+                    public boolean evaluate(EditText view) {
+                        validated.add(name);
+                        return true;
+                    }
+                })
+        );
+    }
+
+    @Test
+    public void validate_OnlyAffectedValidators_OneViewChanged() throws Exception {
+        Validator<EditText> userName = newValidator("userName", mockUserName);
+        Validator<EditText> password = newValidator("password", mockPassword);
+        Validator<EditText> confirmation = newValidator("confirmation", mockConfirmation);
+
+        ValidationGraph graph = new ValidationGraph()
+                .add(userName)
+                .add(confirmation, mockPassword)
+                .add(password);
+
+        graph.invalidate(mockUserName).validate();
+
+        assertEquals(Arrays.asList("userName"), validated);
+
+        validated.clear();
+        graph.invalidate(mockPassword).validate();
+
+        assertEquals(2, validated.size());
+        assertEquals(3, graph.getValidatedCount());
+        assertEquals(0, graph.getDirtyCount());
+    }
+
+    @Test
+    public void validate_TopologicalOrder_DependencyAddedLast() throws Exception {
+        Validator<EditText> password = newValidator("password", mockPassword);
+        Validator<EditText> confirmation = newValidator("confirmation", mockConfirmation);
+
+        ValidationGraph graph = new ValidationGraph()
+                .add(confirmation)
+                .add(password)
+                .dependsOn(confirmation, password);
+
+        graph.invalidate(mockPassword).validate();
+
+        assertEquals(Arrays.asList("password", "confirmation"), validated);
+        assertEquals(Arrays.<Validator<?>>asList(password, confirmation), graph.getOrder());
+    }
+
+    @Test
+    public void getOrder_AddedOrderKept_DependentReadyAfterLaterValidator() throws Exception {
+        Validator<EditText> password = newValidator("password", mockPassword);
+        Validator<EditText> confirmation = newValidator("confirmation", mockConfirmation);
+        Validator<EditText> userName = newValidator("userName", mockUserName);
+
+        ValidationGraph graph = new ValidationGraph()
+                .add(password)
+                .add(confirmation)
+                .add(userName)
+                .dependsOn(confirmation, password);
+
+        assertEquals(Arrays.<Validator<?>>asList(password, confirmation, userName), graph.getOrder());
+    }
+
+    @Test
+    public void validate_EachValidatorOnce_SeveralChangesBatched() throws Exception {
+        Validator<EditText> userName = newValidator("userName", mockUserName);
+        Validator<EditText> password = newValidator("password", mockPassword);
+        Validator<EditText> confirmation = newValidator("confirmation", mockConfirmation);
+
+        ValidationGraph graph = new ValidationGraph()
+                .add(userName)
+                .dependsOn(confirmation, password);
+
+        graph.invalidate(mockPassword)
+                .invalidate(mockConfirmation)
+                .invalidate(mockPassword);
+
+        assertEquals(2, graph.getDirtyCount());
+
+        graph.validate();
+
+        assertEquals(Arrays.asList("password", "confirmation"), validated);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void dependsOn_Throws_Cycle() throws Exception {
+        Validator<EditText> password = newValidator("password", mockPassword);
+        Validator<EditText> confirmation = newValidator("confirmation", mockConfirmation);
+
+        new ValidationGraph()
+                .dependsOn(confirmation, password)
+                .dependsOn(password, confirmation);
+    }
+}
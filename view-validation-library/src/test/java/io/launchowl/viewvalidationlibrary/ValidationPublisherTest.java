@@ -0,0 +1,153 @@
+package io.launchowl.viewvalidationlibrary;
+
+import android.widget.Button;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(PowerMockRunner.class)
+public class ValidationPublisherTest {
+    private static final Validator.ValidationResult VALID = Validator.ValidationResult.Valid;
+    private static final Validator.ValidationResult INVALID = Validator.ValidationResult.Invalid;
+
+    @Mock
+    private Button mockButton;
+
+    private final List<Validator.ValidationResult> received = new ArrayList<>();
+    private ValidationFlow.Subscription subscription;
+
+    private final ValidationFlow.Subscriber<Validator.ValidationResult> subscriber = new ValidationFlow.Subscriber<Validator.ValidationResult>() {
+        @Override
+        public void onSubscribe(ValidationFlow.Subscription subscription) {
+            ValidationPublisherTest.this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Validator.ValidationResult item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+
+        }
+
+        @Override
+        public void onComplete() {
+
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void publish_BufferBounded_NothingRequested() throws Exception {
+        ValidationPublisher publisher = new ValidationPublisher();
+        publisher.buffer(4).subscribe(subscriber);
+
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(i % 2 == 0 ? VALID : INVALID);
+        }
+
+        assertEquals(0, received.size());
+        assertEquals(96, publisher.getDroppedCount());
+
+        subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList(VALID, INVALID, VALID, INVALID), received);
+    }
+
+    @Test
+    public void request_DeliversRequestedResults_ResultsBuffered() throws Exception {
+        ValidationPublisher publisher = new ValidationPublisher();
+        publisher.subscribe(subscriber);
+
+        publisher.publish(VALID);
+        publisher.publish(INVALID);
+        publisher.publish(VALID);
+
+        subscription.request(2);
+        assertEquals(Arrays.asList(VALID, INVALID), received);
+
+        subscription.request(2);
+        publisher.publish(INVALID);
+        assertEquals(Arrays.asList(VALID, INVALID, VALID, INVALID), received);
+    }
+
+    @Test
+    public void latestOnly_DeliversNewestResult_SlowSubscriber() throws Exception {
+        ValidationPublisher publisher = new ValidationPublisher();
+        publisher.latestOnly().subscribe(subscriber);
+
+        publisher.publish(VALID);
+        publisher.publish(VALID);
+        publisher.publish(INVALID);
+
+        subscription.request(1);
+
+        assertEquals(Arrays.asList(INVALID), received);
+    }
+
+    @Test
+    public void distinctUntilChanged_SkipsRepeatedResults_ConflatedBuffer() throws Exception {
+        ValidationPublisher publisher = new ValidationPublisher();
+        publisher.latestOnly().distinctUntilChanged().subscribe(subscriber);
+
+        subscription.request(1);
+        publisher.publish(VALID);
+        publisher.publish(INVALID);
+        publisher.publish(VALID);
+        subscription.request(1);
+
+        assertEquals(Arrays.asList(VALID), received);
+
+        publisher.publish(INVALID);
+
+        assertEquals(Arrays.asList(VALID, INVALID), received);
+    }
+
+    @Test
+    public void cancel_NoMoreResults_Subscribed() throws Exception {
+        ValidationPublisher publisher = new ValidationPublisher();
+        publisher.subscribe(subscriber);
+        subscription.request(Long.MAX_VALUE);
+
+        publisher.publish(VALID);
+        subscription.cancel();
+        publisher.publish(INVALID);
+
+        assertEquals(Arrays.asList(VALID), received);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    public void validate_PublishesResult_Subscribed() throws Exception {
+        Validator<Button> validator = new Validator<Button>(new Criteria<Button>(mockButton)
+                .test(new Criteria.Condition<Button>() {
+                    @Override
+                    public boolean evaluate(Button view) {
+                        return false;
+                    }
+                })
+        );
+        validator.results().subscribe(subscriber);
+        subscription.request(Long.MAX_VALUE);
+
+        validator.validate();
+
+        assertEquals(Arrays.asList(INVALID), received);
+    }
+}
@@ -12,6 +12,12 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import io.launchowl.viewvalidationlibrary.Criteria;
 import io.launchowl.viewvalidationlibrary.Validator;
 import io.launchowl.viewvalidationlibrary.ValidatorSet;
@@ -115,4 +121,174 @@ public class ValidatorSetTest {
         assertEquals(2, validatorsValidated);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void validateAsync_Invalid_OneValidatorInvalid() throws Exception {
+        Validator validator1 = new Validator<Button>(new Criteria<Button>(mockButton1)
+                .test(new Criteria.Condition<Button>() {
+                    @Override
+                    public boolean evaluate(Button view) {
+                        return true;
+                    }
+                })
+        );
+
+        Validator validator2 = new Validator<Button>(new Criteria<Button>(mockButton2)
+                .test(new Criteria.Condition<Button>() {
+                    @Override
+                    public boolean evaluate(Button view) {
+                        return false;
+                    }
+                })
+        );
+
+        assertEquals(Validator.ValidationResult.Valid, new ValidatorSet(validator1).validateAsync().get());
+        assertEquals(Validator.ValidationResult.Invalid, new ValidatorSet(validator1, validator2).validateAsync().get());
+    }
+
+    @Test
+    public void validateAsync_Cancelled_OneValidatorSuperseded() throws Exception {
+        Validator<Button> pending = new Validator<Button>(new Criteria<Button>(mockButton1)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        // The condition never completes.
+                    }
+                })
+                .asyncTest(new Criteria.AsyncCondition<Button>() {
+                    @Override
+                    protected void evaluate(Button view) {
+
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+                })
+        );
+        boolean[] valid = { true };
+        ValidatorSet validatorSet = new ValidatorSet(pending, newValidator(mockButton2, valid));
+
+        CompletableFuture<Validator.ValidationResult> future = validatorSet.validateAsync();
+        pending.validate();
+
+        assertTrue(future.isCancelled());
+    }
+
+
+    private Validator<Button> newValidator(Button button, final boolean[] valid) {
+        return new Validator<Button>(new Criteria<Button>(button)
+                .test(new Criteria.Condition<Button>() {
+                    @Override
+                    public boolean evaluate(Button view) {
+                        return valid[0];
+                    }
+                })
+        );
+    }
+
+    @Test
+    public void validate_CountsEachState_MembersCompleted() throws Exception {
+        boolean[] valid1 = { true };
+        boolean[] valid2 = { false };
+        Validator<Button> validator1 = newValidator(mockButton1, valid1);
+        Validator<Button> validator2 = newValidator(mockButton2, valid2);
+        ValidatorSet validatorSet = new ValidatorSet(validator1, validator2, newValidator(mockButton3, valid1));
+
+        assertEquals(3, validatorSet.getPendingCount());
+        assertEquals(Validator.ValidationResult.Unknown, validatorSet.getResult());
+
+        validatorSet.validate();
+
+        assertEquals(2, validatorSet.getValidCount());
+        assertEquals(1, validatorSet.getInvalidCount());
+        assertEquals(0, validatorSet.getPendingCount());
+        assertEquals(Validator.ValidationResult.Invalid, validatorSet.getResult());
+
+        // A member validated on its own updates the set as well.
+        valid2[0] = true;
+        validator2.validate();
+
+        assertEquals(3, validatorSet.getValidCount());
+        assertEquals(Validator.ValidationResult.Valid, validatorSet.getResult());
+
+        validatorSet.remove(validator1);
+
+        assertEquals(2, validatorSet.getValidCount());
+    }
+
+    @Test
+    public void observe_NotifiedOnlyOnChange_SameResultTwice() throws Exception {
+        boolean[] valid = { true };
+        Validator<Button> validator = newValidator(mockButton1, valid);
+        ValidatorSet validatorSet = new ValidatorSet(validator, newValidator(mockButton2, new boolean[] { true }));
+
+        final List<Validator.ValidationResult> results = new ArrayList<>();
+        validatorSet.observe(new Observer<Button>(mockButton3) {
+            @Override
+            protected void onValidationComplete(Button view, Validator.ValidationResult validationResult) {
+                results.add(validationResult);
+            }
+        });
+
+        validatorSet.validate();
+        validatorSet.validate();
+        validator.validate();
+
+        assertEquals(Arrays.asList(Validator.ValidationResult.Valid), results);
+
+        valid[0] = false;
+        validator.validate();
+
+        assertEquals(Arrays.asList(Validator.ValidationResult.Valid, Validator.ValidationResult.Invalid), results);
+    }
+
+    @Test
+    public void validate_Pending_AsyncConditionRunning() throws Exception {
+        final List<Runnable> tasks = new ArrayList<>();
+        final List<Runnable> frames = new ArrayList<>();
+        final MainThreadDispatcher dispatcher = new MainThreadDispatcher(new MainThreadDispatcher.FrameScheduler() {
+            @Override
+            public void scheduleFrame(Runnable task) {
+                frames.add(task);
+            }
+        });
+
+        Validator<Button> validator = new Validator<Button>(new Criteria<Button>(mockButton1)
+                .executor(new Executor() {
+                    @Override
+                    public void execute(Runnable runnable) {
+                        tasks.add(runnable);
+                    }
+                })
+                .asyncTest(new Criteria.AsyncCondition<Button>() {
+                    @Override
+                    protected void evaluate(Button view) {
+                        complete(true);
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+
+                    }
+
+                    @Override
+                    MainThreadDispatcher getDispatcher() {
+                        return dispatcher;
+                    }
+                })
+        );
+        ValidatorSet validatorSet = new ValidatorSet(validator);
+
+        validatorSet.validate();
+
+        assertEquals(1, validatorSet.getPendingCount());
+        assertEquals(Validator.ValidationResult.Unknown, validatorSet.getResult());
+
+        tasks.get(0).run();
+        frames.get(0).run();
+
+        assertEquals(0, validatorSet.getPendingCount());
+        assertEquals(Validator.ValidationResult.Valid, validatorSet.getResult());
+    }
+}